@@ -14,14 +14,17 @@ public class AppStore {
     private StartupConfiguration startupConfiguration;
     private static AppStore instance;
     private String tableName;
+    // every table loaded by the run, tableName is the first one
+    private List<String> tableNames;
     private boolean debugAll;
     private String testSetPath;
     private String pagesRegex;
 
-    public static AppStore getInstance(StartupConfiguration startupConfiguration, String tableName, boolean debugAll,
-            String testSetPath, String pagesRegex) {
+    public static AppStore getInstance(StartupConfiguration startupConfiguration, List<String> tableNames,
+            boolean debugAll, String testSetPath, String pagesRegex) {
         if (instance == null) {
-            instance = new AppStore(startupConfiguration, tableName, debugAll, testSetPath, pagesRegex);
+            instance = new AppStore(startupConfiguration, tableNames.get(0), tableNames, debugAll, testSetPath,
+                    pagesRegex);
         }
         return instance;
     }
@@ -34,6 +37,15 @@ public class AppStore {
         this.tableName = tableName;
     }
 
+    /**
+     * Checks if the run loads more than one table.
+     * 
+     * @return true if several tables were given, false otherwise.
+     */
+    public boolean isMultiTable() {
+        return tableNames != null && tableNames.size() > 1;
+    }
+
     public LLMConfig getLlmConfig() {
         return startupConfiguration.getApp().getLlmConfig();
     }
@@ -1,8 +1,13 @@
 package com.leonjr.ldo;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -10,25 +15,37 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.leonjr.ldo.app.consts.AppConsts;
+import com.leonjr.ldo.app.helper.ExecutorHelper;
 import com.leonjr.ldo.app.helper.LoggerHelper;
 import com.leonjr.ldo.database.handler.DBHelper;
 import com.leonjr.ldo.database.models.TableDescription;
 import com.leonjr.ldo.extractor.DocumentImageExtractor;
 import com.leonjr.ldo.extractor.DocumentTextExtractor;
+import com.leonjr.ldo.extractor.models.DocumentImage;
 import com.leonjr.ldo.extractor.utils.DocumentContext;
-import com.leonjr.ldo.extractor.utils.JsonResponseTransformer;
+import com.leonjr.ldo.extractor.utils.DocumentSegmenter;
+import com.leonjr.ldo.extractor.utils.TabularReader;
 import com.leonjr.ldo.parsing.etl.ETLParser;
-import com.leonjr.ldo.parsing.etl.interfaces.ETLProcessor;
+import com.leonjr.ldo.parsing.etl.MultiTableExtraction;
+import com.leonjr.ldo.parsing.etl.TabularExtraction;
 import com.leonjr.ldo.parsing.etl.models.ETLDocument;
-import com.leonjr.ldo.parsing.llm.AiHelper;
+import com.leonjr.ldo.parsing.llm.TokenUsageStats;
+import com.leonjr.ldo.parsing.llm.cache.LLMResponseCache;
+import com.leonjr.ldo.parsing.llm.prompts.PromptSchema;
 import com.leonjr.ldo.parsing.llm.prompts.PromptTexts;
+import com.leonjr.ldo.pipeline.RunJournal;
+import com.leonjr.ldo.pipeline.StreamingStage;
 import com.leonjr.ldo.validation.ETLValidation;
+import com.leonjr.ldo.validation.RelevanceScorer;
 import com.leonjr.ldo.validation.helper.TestSetHelper;
 import com.leonjr.ldo.validation.models.LLMValidationResult;
 import com.leonjr.ldo.validation.models.LocalSimpleValidationResult;
 
 import ch.qos.logback.core.util.Duration;
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.segment.TextSegment;
 import lombok.Data;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -36,17 +53,38 @@ import lombok.ToString;
 
 @RequiredArgsConstructor
 @Data
-@ToString(callSuper = false, exclude = { "etlAgentProcessor", "tableDescription", "etlAgentParser", "rawDocuments",
-        "validatedDocuments" })
+@ToString(callSuper = false, exclude = { "tableDescription", "etlAgentParser", "rawDocuments",
+        "validatedDocuments", "runJournal", "sharedDocuments", "multiTableExtraction", "parentTablesLoaded",
+        "tableLoaded", "tabularDocuments" })
 public final class ETLPipeline {
     @NonNull
     private String fileOrFolderPath;
+    // the table loaded by this pipeline, the table of the application when not set
+    private String tableName;
+    // documents extracted once by a run that loads several tables, null to extract them here
+    private List<ETLDocument> sharedDocuments;
     private TableDescription tableDescription;
-    private ETLProcessor etlAgentProcessor;
     private ETLParser etlAgentParser;
     private List<ETLDocument> rawDocuments;
     private List<ETLDocument> validatedDocuments;
+    // tabular documents loaded with a column mapping instead of the LLM parsing
+    private List<ETLDocument> tabularDocuments = new ArrayList<>();
+    private String resumeRunId;
+    // id of the journal of this table when the run loads several tables
+    private String journalRunId;
+    // shares the LLM calls with the pipelines of the other tables, null to call the LLM per table
+    private MultiTableExtraction multiTableExtraction;
+    // tables referenced by this table, inserted by other pipelines before this one inserts
+    private List<CompletableFuture<Void>> parentTablesLoaded = List.of();
+    // completed when this pipeline finishes, so the tables referencing it can insert
+    private final CompletableFuture<Void> tableLoaded = new CompletableFuture<>();
+    // set when the caller already truncated the table
+    private boolean tableTruncated;
+    private RunJournal runJournal;
+    private boolean streamingInsert;
     private long startExecutionTime, endExecutionTime;
+    // characters of the document sent in the summary built without the LLM
+    private static final int LOCAL_SUMMARY_EXCERPT_CHARS = 400;
 
     /**
      * Step 1: Extract table schema from database - This method will extract the
@@ -57,8 +95,7 @@ public final class ETLPipeline {
     private void describeDatabaseTable() throws Exception {
         long startTime = System.currentTimeMillis();
         LoggerHelper.logger.info("Describing database table...");
-        tableDescription = DBHelper
-                .getTableDescription(AppStore.getInstance().getTableName());
+        tableDescription = DBHelper.getTableDescription(tableName);
         LoggerHelper.logger.info(tableDescription);
         LoggerHelper.logger.info("Table description in JSON format:");
         LoggerHelper.logger.info(tableDescription.toJson());
@@ -68,6 +105,51 @@ public final class ETLPipeline {
                 + Duration.buildByMilliseconds(endTime - startTime));
     }
 
+    /**
+     * Opens the run journal - Starts a new journal or, when a run id to resume
+     * was given, loads the journal of that run so its finished steps are skipped
+     *
+     * @throws IOException If the journal cannot be created or read
+     */
+    private void openRunJournal() throws IOException {
+        if (resumeRunId != null && !resumeRunId.isBlank()) {
+            runJournal = RunJournal.resume(journalRunId != null ? journalRunId : resumeRunId, tableName);
+        } else if (AppStore.getStartConfigs().getApp().isRunJournal()) {
+            runJournal = journalRunId != null ? RunJournal.start(journalRunId, tableName, fileOrFolderPath)
+                    : RunJournal.start(tableName, fileOrFolderPath);
+        }
+    }
+
+    /**
+     * Checks if a document was already inserted by the resumed run.
+     *
+     * @param index    the position of the document in the extraction order
+     * @param document the extracted document
+     * @return true if the document must be skipped, false otherwise
+     */
+    private boolean isAlreadyInserted(int index, Document document) {
+        String documentKey = runJournal == null ? null : RunJournal.documentKey(document);
+        if (documentKey == null || !runJournal.isInserted(documentKey)) {
+            return false;
+        }
+        LoggerHelper.logger.info("[Document " + index + "] Already inserted by run " + runJournal.getRunId()
+                + ", skipping.");
+        releaseSharedResults(documentKey);
+        return true;
+    }
+
+    /**
+     * Tells the multi-table extraction that this table is done with a document,
+     * so the results the other tables no longer need are dropped.
+     *
+     * @param documentKey the key of the document
+     */
+    private void releaseSharedResults(String documentKey) {
+        if (multiTableExtraction != null) {
+            multiTableExtraction.releaseDocument(documentKey, tableDescription.getName());
+        }
+    }
+
     /**
      * Step 2: Extract data from documents - This method will extract the data from
      * the documents. It include document text, metadata, segments and images
@@ -79,19 +161,23 @@ public final class ETLPipeline {
         LoggerHelper.logger.info("Loading documents and extracting data...");
         long startTime = System.currentTimeMillis();
         rawDocuments = new ArrayList<>();
-        var documents = DocumentTextExtractor.getDocument(fileOrFolderPath);
-        LoggerHelper.logger.info("Documents loaded successfully!");
-        for (var document : documents) {
-            var foundedImages = DocumentImageExtractor.extractImages(document);
-            if (foundedImages != null && !foundedImages.isEmpty()) {
-                LoggerHelper.logger
-                        .info("Found " + foundedImages.size() + " images in document " + documents.indexOf(document));
-            }
-            rawDocuments.add(ETLDocument.builder().document(document).images(foundedImages).build());
-            if (AppStore.getInstance().isDebugAll()) {
-                LoggerHelper.logger.info("Document " + documents.indexOf(document) + ":");
-                LoggerHelper.logger.info(document);
+        if (sharedDocuments != null) {
+            for (int i = 0; i < sharedDocuments.size(); i++) {
+                if (!isAlreadyInserted(i, sharedDocuments.get(i).getDocument())) {
+                    rawDocuments.add(sharedDocuments.get(i).copyForTable());
+                }
             }
+        } else {
+            try (var documents = DocumentTextExtractor.openDocuments(fileOrFolderPath)) {
+                for (int i = 0; documents.hasNext(); i++) {
+                    var document = documents.next();
+                    if (isAlreadyInserted(i, document)) {
+                        continue;
+                    }
+                    rawDocuments.add(toETLDocument(i, document));
+                }
+            }
+            LoggerHelper.logger.info("Documents loaded successfully!");
         }
         LoggerHelper.logger.info("Number of documents found at the path: " + rawDocuments.size());
         long endTime = System.currentTimeMillis();
@@ -103,6 +189,53 @@ public final class ETLPipeline {
         }
     }
 
+    /**
+     * Wraps an extracted document into an ETLDocument, extracting its images
+     * when {@code extractDocumentImages} is enabled.
+     *
+     * @param index    the position of the document in the extraction order
+     * @param document the extracted document
+     * @return the ETLDocument ready to be summarized
+     * @throws Exception If an error occurs while extracting the document images
+     */
+    static ETLDocument toETLDocument(int index, Document document) throws Exception {
+        List<DocumentImage> foundedImages = null;
+        var appConfig = AppStore.getStartConfigs().getApp();
+        if (appConfig.isExtractDocumentImages() || appConfig.isDocumentImageRows()) {
+            foundedImages = DocumentImageExtractor.extractImages(document,
+                    appConfig.getDocumentImagesMaxSizeMb() * 1024L * 1024L);
+        }
+        if (foundedImages != null && !foundedImages.isEmpty()) {
+            LoggerHelper.logger.info("Found " + foundedImages.size() + " images in document " + index + " ("
+                    + foundedImages.stream().mapToLong(DocumentImage::getSize).sum() + " bytes)");
+        }
+        if (AppStore.getInstance().isDebugAll()) {
+            LoggerHelper.logger.info("Document " + index + ":");
+            LoggerHelper.logger.info(document);
+        }
+        return ETLDocument.builder()
+                .document(document)
+                .index(index)
+                .documentKey(RunJournal.documentKey(document))
+                .images(foundedImages)
+                .build();
+    }
+
+    /**
+     * Returns the table description sent in the prompts: the compact schema of
+     * the columns to fill with {@code compactPromptSchema}, or the JSON of the
+     * description otherwise.
+     *
+     * @return the table description of the prompts
+     */
+    private String getPromptTableDescription() {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        if (appConfig.isCompactPromptSchema()) {
+            return PromptSchema.render(tableDescription, appConfig.getColumnHints());
+        }
+        return tableDescription.toJson();
+    }
+
     /**
      * Step 3: Start the ETL processor - This method will start the ETL processor
      * with LLM model
@@ -111,8 +244,12 @@ public final class ETLPipeline {
      */
     private void startETLProcessor() throws Exception {
         LoggerHelper.logger.info("Starting ETL Processor...");
-        etlAgentProcessor = AiHelper.buildNewAssistent();
-        etlAgentParser = ETLParser.builder().tableDescription(tableDescription.toJson()).build();
+        etlAgentParser = ETLParser.builder()
+                .tableDescription(getPromptTableDescription())
+                .runJournal(runJournal)
+                .multiTableExtraction(multiTableExtraction)
+                .tableName(tableName)
+                .build();
         LoggerHelper.logger.info("ETL Processor started successfully!");
     }
 
@@ -132,37 +269,13 @@ public final class ETLPipeline {
         validatedDocuments = new ArrayList<>();
 
         int maxEtlProcessors = AppStore.getStartConfigs().getApp().getMaxETLProcessors();
-        ExecutorService etlProcessors = Executors.newFixedThreadPool(maxEtlProcessors);
+        ExecutorService etlProcessors = ExecutorHelper.newDocumentExecutor(maxEtlProcessors);
         List<Future<Integer>> futures = new ArrayList<>();
 
         for (int i = 0; i < rawDocuments.size(); i++) {
             final int index = i;
             ETLDocument etlDocument = rawDocuments.get(i);
-
-            futures.add(etlProcessors.submit(() -> {
-                try {
-                    String context = DocumentContext.getAllAvailableContextFromDocument(etlDocument.getDocument());
-                    String summarized = etlAgentParser.preSummarize(context);
-                    etlDocument.getDocument().metadata().put("summarized", summarized);
-                    if (AppStore.getInstance().isDebugAll()) {
-                        LoggerHelper.logger.info("[Document " + index + "] Summarized: " + summarized);
-                    }
-                    if (summarized == null || summarized.isEmpty()) {
-                        throw new Exception("Document summarized is null or empty");
-                    }
-                    if (summarized.trim().replace("\n", "").equalsIgnoreCase("INVALID_PARSING")) {
-                        LoggerHelper.logger.error("[Document " + index
-                                + "] Validation error found: Document is not related with the table selected!\nResponse: "
-                                + summarized);
-                        return null;
-                    }
-                    return index;
-                } catch (Exception ex) {
-                    LoggerHelper.logger.error("[Document " + index + "] Error during summarization: " + ex.getMessage(),
-                            ex);
-                    return null;
-                }
-            }));
+            futures.add(etlProcessors.submit(() -> summarizeDocument(etlDocument.getIndex(), etlDocument) ? index : null));
         }
 
         List<ETLDocument> validDocs = new ArrayList<>();
@@ -180,7 +293,7 @@ public final class ETLPipeline {
             }
         }
 
-        etlProcessors.shutdown();
+        ExecutorHelper.release(etlProcessors);
         etlProcessors.awaitTermination(1, TimeUnit.HOURS);
 
         validatedDocuments.addAll(validDocs);
@@ -201,6 +314,90 @@ public final class ETLPipeline {
                 + Duration.buildByMilliseconds(endValidationTime - startValidationTime));
     }
 
+    /**
+     * Summarizes a single document and checks if it is related with the table
+     * selected.
+     *
+     * @param index       the position of the document in the raw documents
+     * @param etlDocument the document to summarize
+     * @return true if the document is related with the table, false otherwise
+     */
+    private boolean summarizeDocument(int index, ETLDocument etlDocument) {
+        try {
+            String context = DocumentContext.getAllAvailableContextFromDocument(etlDocument.getDocument());
+            String summarized = runJournal != null ? runJournal.getSummary(etlDocument.getDocumentKey()) : null;
+            if (summarized == null) {
+                summarized = summarizeLocally(index, etlDocument);
+            }
+            if (summarized == null) {
+                summarized = etlAgentParser.preSummarize(etlDocument.getDocumentKey(), context);
+                if (runJournal != null && summarized != null && !summarized.isEmpty()) {
+                    runJournal.recordSummary(etlDocument.getDocumentKey(), summarized);
+                }
+            }
+            etlDocument.setSummary(summarized);
+            if (AppStore.getInstance().isDebugAll()) {
+                LoggerHelper.logger.info("[Document " + index + "] Summarized: " + summarized);
+            }
+            if (summarized == null || summarized.isEmpty()) {
+                throw new Exception("Document summarized is null or empty");
+            }
+            if (summarized.trim().replace("\n", "").equalsIgnoreCase("INVALID_PARSING")) {
+                LoggerHelper.logger.error("[Document " + index
+                        + "] Validation error found: Document is not related with the table selected!\nResponse: "
+                        + summarized);
+                releaseSharedResults(etlDocument.getDocumentKey());
+                return false;
+            }
+            return true;
+        } catch (Exception ex) {
+            LoggerHelper.logger.error("[Document " + index + "] Error during summarization: " + ex.getMessage(), ex);
+            releaseSharedResults(etlDocument.getDocumentKey());
+            return false;
+        }
+    }
+
+    /**
+     * Scores the relevance of a document to the table locally, see
+     * {@link RelevanceScorer}, so the clearly relevant and the clearly irrelevant
+     * documents skip the summarization call. A clearly relevant document gets a
+     * short summary built from its columns found and its first lines.
+     *
+     * @param index       the position of the document in the raw documents
+     * @param etlDocument the document to summarize
+     * @return the local summary of a clearly relevant document,
+     *         {@code INVALID_PARSING} for a clearly irrelevant one, or null if
+     *         the document must be summarized by the LLM
+     */
+    private String summarizeLocally(int index, ETLDocument etlDocument) {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        // the summary of a multi-table extraction is shared by every table
+        if (!appConfig.isRelevanceGate() || multiTableExtraction != null) {
+            return null;
+        }
+        String text = etlDocument.getDocument().text();
+        var relevance = RelevanceScorer.score(tableDescription, text);
+        String score = String.format(Locale.ROOT, "%.2f", relevance.score());
+        if (relevance.score() < appConfig.getRelevanceRejectScore()) {
+            LoggerHelper.logger.info("[Document " + index + "] Relevance score " + score
+                    + ", rejected without summarization");
+            return "INVALID_PARSING";
+        }
+        if (relevance.score() < appConfig.getRelevanceAcceptScore()) {
+            LoggerHelper.logger.info("[Document " + index + "] Relevance score " + score + ", summarizing with LLM");
+            return null;
+        }
+        LoggerHelper.logger.info("[Document " + index + "] Relevance score " + score
+                + ", accepted without summarization");
+        String excerpt = text.replaceAll("\\s+", " ").trim();
+        if (excerpt.length() > LOCAL_SUMMARY_EXCERPT_CHARS) {
+            excerpt = excerpt.substring(0, LOCAL_SUMMARY_EXCERPT_CHARS);
+        }
+        return "Document " + Objects.toString(etlDocument.getDocument().metadata().getString("file_name"),
+                etlDocument.getDocumentKey()) + " holds data of the columns " + relevance.matchedColumns()
+                + ". It starts with: " + excerpt;
+    }
+
     /**
      * Step 5: Start parsing process - This method will start the parsing process
      * The first step is to segment the document and then chunk it to be parsed
@@ -213,25 +410,20 @@ public final class ETLPipeline {
         long startParsingTime = System.currentTimeMillis();
         LoggerHelper.logger.info("Starting segmentation and chunking process in parallel...");
 
-        int maxEtlProcessors = AppStore.getStartConfigs().getApp().getMaxETLProcessors();
-        ExecutorService etlProcessors = Executors.newFixedThreadPool(maxEtlProcessors);
-        List<Future<Integer>> futures = new ArrayList<>();
-
         if (validatedDocuments.isEmpty()) {
             LoggerHelper.logger.warn("No documents to parse!");
             return;
         }
 
+        int maxEtlProcessors = AppStore.getStartConfigs().getApp().getMaxETLProcessors();
+        ExecutorService etlProcessors = ExecutorHelper.newDocumentExecutor(maxEtlProcessors);
+        List<Future<Integer>> futures = new ArrayList<>();
+
         for (int i = 0; i < validatedDocuments.size(); i++) {
             final int index = i;
             ETLDocument etlDocument = validatedDocuments.get(i);
             futures.add(etlProcessors.submit(() -> {
-                var segments = DocumentTextExtractor.getSegments(etlDocument.getDocument());
-                LoggerHelper.logger.info("[Document " + index + "] Segments: " + segments.size());
-                String parsedResponse = etlAgentParser.executeParsing(segments);
-                String jsonResponse = JsonResponseTransformer.parseJson(parsedResponse);
-                etlDocument.setParsedResponse(jsonResponse);
-                LoggerHelper.logger.info("[Document " + index + "] Parsing completed.");
+                parseDocument(etlDocument.getIndex(), etlDocument);
                 return index;
             }));
         }
@@ -245,7 +437,7 @@ public final class ETLPipeline {
             }
         }
 
-        etlProcessors.shutdown();
+        ExecutorHelper.release(etlProcessors);
         etlProcessors.awaitTermination(1, TimeUnit.HOURS);
 
         LoggerHelper.logger.info("All documents parsed, total: " + validatedDocuments.size());
@@ -253,6 +445,248 @@ public final class ETLPipeline {
         LoggerHelper.logger.info("Parsing time: " + Duration.buildByMilliseconds(endParsingTime - startParsingTime));
     }
 
+    /**
+     * Segments a single document and parses its chunks with the ETL processor.
+     *
+     * @param index       the position of the document used in the logs
+     * @param etlDocument the document to parse
+     * @throws Exception If an error occurs while parsing the document
+     */
+    private void parseDocument(int index, ETLDocument etlDocument) throws Exception {
+        try {
+            var segments = etlDocument.getSegments();
+            if (segments == null) {
+                // the summary goes with every chunk, so it counts against the token budget of a chunk
+                String promptContext = etlAgentParser.getChunkPromptContext()
+                        + Objects.toString(etlDocument.getSummary(), "");
+                segments = DocumentTextExtractor.getSegments(etlDocument.getDocument(), promptContext);
+            }
+            // the summary goes with every chunk, the shared segments are left untouched
+            segments = DocumentSegmenter.withMetadata(segments, "summarized", etlDocument.getSummary());
+            LoggerHelper.logger.info("[Document " + index + "] Segments: " + segments.size());
+            if (streamingInsert) {
+                parseAndInsertDocument(index, etlDocument, segments);
+                return;
+            }
+            ArrayNode rows = etlAgentParser.executeParsing(etlDocument.getDocumentKey(), segments);
+            if (hasImagesToParse(etlDocument)) {
+                etlAgentParser.executeImageParsing(etlDocument.getDocumentKey(), etlDocument.getSummary(),
+                        etlDocument.getImages(), (chunkKey, imageRows) -> rows.addAll(imageRows));
+            }
+            etlDocument.setParsedRows(rows);
+            LoggerHelper.logger.info("[Document " + index + "] Parsing completed.");
+        } finally {
+            // the chunks of the document are not read by this table anymore
+            releaseSharedResults(etlDocument.getDocumentKey());
+        }
+    }
+
+    /**
+     * Parses the chunks of a single document and inserts the rows of each chunk
+     * as soon as it is parsed. Each chunk is validated locally before the
+     * insertion, and a chunk that fails the validation is skipped. The rows are
+     * not kept in the document.
+     *
+     * @param index       the position of the document used in the logs
+     * @param etlDocument the document to parse
+     * @param segments    the chunks of the document
+     * @throws Exception If an error occurs while parsing the document or while
+     *                   inserting its rows, the uncommitted rows are dropped
+     */
+    private void parseAndInsertDocument(int index, ETLDocument etlDocument, List<TextSegment> segments)
+            throws Exception {
+        String documentKey = etlDocument.getDocumentKey();
+        try (var inserter = DBHelper.openStreamingInserter(tableDescription,
+                runJournal == null ? null : chunkKeys -> runJournal.recordChunksInserted(documentKey, chunkKeys))) {
+            ETLParser.ChunkRowsConsumer insertChunk = (chunkKey, rows) -> {
+                if (!rows.isEmpty()) {
+                    try {
+                        checkLocalValidationResult(ETLValidation.validateParsingLocally(rows, tableDescription));
+                    } catch (Exception e) {
+                        LoggerHelper.logger.error("[Document " + index + "] Chunk skipped by local validation: "
+                                + e.getMessage());
+                        return;
+                    }
+                }
+                inserter.addChunk(chunkKey, rows);
+            };
+            etlAgentParser.executeParsing(documentKey, segments, insertChunk);
+            if (hasImagesToParse(etlDocument)) {
+                etlAgentParser.executeImageParsing(documentKey, etlDocument.getSummary(), etlDocument.getImages(),
+                        insertChunk);
+            }
+            int insertedRows = inserter.finish();
+            if (runJournal != null) {
+                runJournal.recordInserted(documentKey, insertedRows);
+            }
+            LoggerHelper.logger.info("[Document " + index + "] Parsing completed, " + insertedRows
+                    + " rows inserted.");
+        }
+    }
+
+    /**
+     * Checks if the rows of the images embedded in a document should be
+     * extracted with the vision model.
+     *
+     * @param etlDocument the document to parse
+     * @return true if image parsing is enabled and the document has images
+     */
+    private boolean hasImagesToParse(ETLDocument etlDocument) {
+        return AppStore.getStartConfigs().getApp().isDocumentImageRows() && etlDocument.getImages() != null
+                && !etlDocument.getImages().isEmpty();
+    }
+
+    /**
+     * Checks if tabular documents can skip the LLM parsing. The fast path is
+     * disabled when the parsed rows are compared with a test set, since its rows
+     * are never kept in memory.
+     *
+     * @return true if the tabular fast path should be used, false otherwise
+     */
+    private boolean isTabularFastPathEnabled() {
+        if (!AppStore.getStartConfigs().getApp().isTabularFastPath()) {
+            return false;
+        }
+        if (AppStore.getInstance().getTestSetPath() != null && !AppStore.getInstance().getTestSetPath().isEmpty()) {
+            LoggerHelper.logger.warn("Tabular fast path disabled: test set validation needs all rows parsed!");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tabular fast path - Maps the columns of the CSV, TSV and XLSX documents
+     * with one LLM call each. The mapped documents leave the LLM steps and are
+     * loaded by {@link #loadTabularDocuments()}, the others go on as usual.
+     *
+     * @throws Exception If an error occurs while waiting for the mappings
+     */
+    private void mapTabularDocuments() throws Exception {
+        if (!isTabularFastPathEnabled() || rawDocuments.stream().noneMatch(
+                etlDocument -> TabularReader.isTabular(etlDocument.getDocument()))) {
+            return;
+        }
+        int maxEtlProcessors = AppStore.getStartConfigs().getApp().getMaxETLProcessors();
+        ExecutorService etlProcessors = ExecutorHelper.newDocumentExecutor(maxEtlProcessors);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < rawDocuments.size(); i++) {
+            ETLDocument etlDocument = rawDocuments.get(i);
+            futures.add(etlProcessors.submit(() -> mapTabularDocument(etlDocument.getIndex(), etlDocument)));
+        }
+        List<ETLDocument> mappedDocuments = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            if (futures.get(i).get()) {
+                mappedDocuments.add(rawDocuments.get(i));
+            }
+        }
+        ExecutorHelper.release(etlProcessors);
+        etlProcessors.awaitTermination(1, TimeUnit.HOURS);
+        rawDocuments.removeAll(mappedDocuments);
+        tabularDocuments.addAll(mappedDocuments);
+    }
+
+    /**
+     * Maps the columns of a single document, when it is tabular.
+     *
+     * @param index       the position of the document used in the logs
+     * @param etlDocument the document to map
+     * @return true if the document will be loaded by the fast path, false if it
+     *         goes through the LLM parsing
+     */
+    private boolean mapTabularDocument(int index, ETLDocument etlDocument) {
+        if (!TabularReader.isTabular(etlDocument.getDocument())) {
+            return false;
+        }
+        try {
+            var mapping = TabularExtraction.mapColumns(etlAgentParser, tableDescription, etlDocument.getDocument());
+            if (mapping == null) {
+                LoggerHelper.logger.info("[Document " + index + "] Columns do not match the table, parsing with the "
+                        + "LLM.");
+                return false;
+            }
+            etlDocument.setTabularMapping(mapping);
+            LoggerHelper.logger.info("[Document " + index + "] Tabular document, loading columns "
+                    + mapping.getColumnNames() + " without the LLM parsing.");
+            releaseSharedResults(etlDocument.getDocumentKey());
+            return true;
+        } catch (Exception e) {
+            LoggerHelper.logger.error("[Document " + index + "] Tabular mapping failed, parsing with the LLM: "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads the mapped tabular documents, streaming their rows into the table in
+     * parallel. Each batch of rows is validated locally before the insertion.
+     *
+     * @throws Exception If the table cannot be truncated
+     */
+    private void loadTabularDocuments() throws Exception {
+        if (tabularDocuments.isEmpty()) {
+            return;
+        }
+        long startLoadTime = System.currentTimeMillis();
+        truncateTableBeforeLoad();
+        var appConfig = AppStore.getStartConfigs().getApp();
+        ExecutorService dbInserters = Executors.newFixedThreadPool(Math.max(1, appConfig.getDbInsertParallelism()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (ETLDocument etlDocument : tabularDocuments) {
+                futures.add(dbInserters.submit(() -> loadTabularDocument(etlDocument.getIndex(), etlDocument)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    LoggerHelper.logger.error("Error loading tabular document: " + e.getMessage(), e);
+                }
+            }
+        } finally {
+            dbInserters.shutdown();
+        }
+        LoggerHelper.logger.info("Tabular documents loaded: " + tabularDocuments.size() + ", time: "
+                + Duration.buildByMilliseconds(System.currentTimeMillis() - startLoadTime));
+    }
+
+    /**
+     * Streams the rows of a single mapped tabular document into the table.
+     *
+     * @param index       the position of the document used in the logs
+     * @param etlDocument the mapped document
+     * @return true if the document was inserted, false otherwise
+     */
+    private boolean loadTabularDocument(int index, ETLDocument etlDocument) {
+        String documentKey = etlDocument.getDocumentKey();
+        int batchSize = AppStore.getStartConfigs().getApp().getMaxDBInsertionChunkSize();
+        try (var inserter = DBHelper.openStreamingInserter(tableDescription,
+                runJournal == null ? null : chunkKeys -> runJournal.recordChunksInserted(documentKey, chunkKeys))) {
+            TabularExtraction.extractRows(etlDocument.getDocument(), etlDocument.getTabularMapping(), batchSize,
+                    (chunkKey, rows) -> {
+                        if (runJournal != null && runJournal.isChunkInserted(documentKey, chunkKey)) {
+                            return;
+                        }
+                        try {
+                            checkLocalValidationResult(ETLValidation.validateParsingLocally(rows, tableDescription));
+                        } catch (Exception e) {
+                            LoggerHelper.logger.error("[Tabular document " + index + "] Rows " + chunkKey
+                                    + " skipped by local validation: " + e.getMessage());
+                            return;
+                        }
+                        inserter.addChunk(chunkKey, rows);
+                    });
+            int insertedRows = inserter.finish();
+            if (runJournal != null) {
+                runJournal.recordInserted(documentKey, insertedRows);
+            }
+            LoggerHelper.logger.info("[Tabular document " + index + "] " + insertedRows + " rows inserted.");
+            return true;
+        } catch (Exception e) {
+            LoggerHelper.logger.error("[Tabular document " + index + "] Error inserting rows: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
     // Test and validate parsing process steps
     public void validateETLWithLocalTests() throws Exception {
         LoggerHelper.logger.info("Validating parsing process with local tests...");
@@ -271,13 +705,13 @@ public final class ETLPipeline {
                 var validationResult = ETLValidation.validateParsingLocally(
                         etlDocument.getJsonSchema(),
                         tableDescription);
-                LoggerHelper.logger.info("Document " + rawDocuments.indexOf(etlDocument) + ":");
+                LoggerHelper.logger.info("Document " + etlDocument.getIndex() + ":");
                 LoggerHelper.logger.info("Validation response:" + System.lineSeparator() + validationResult);
                 if (validationResult != null) {
                     testSetResults.add(validationResult);
                 } else {
                     LoggerHelper.logger.warn("Validation result is null for document "
-                            + rawDocuments.indexOf(etlDocument));
+                            + etlDocument.getIndex());
                 }
             }
         } else {
@@ -293,14 +727,14 @@ public final class ETLPipeline {
                 index++;
                 var validationResult = ETLValidation.validateParsingWithTestJson(test,
                         etlDocument.getJsonSchema(), tableDescription);
-                LoggerHelper.logger.info("Document " + rawDocuments.indexOf(etlDocument) + ":");
+                LoggerHelper.logger.info("Document " + etlDocument.getIndex() + ":");
                 LoggerHelper.logger.info("Validation response:" + System.lineSeparator() +
                         validationResult);
                 if (validationResult != null) {
                     testSetResults.add(validationResult);
                 } else {
                     LoggerHelper.logger.warn("Validation result is null for document "
-                            + rawDocuments.indexOf(etlDocument));
+                            + etlDocument.getIndex());
                 }
             }
         }
@@ -310,27 +744,35 @@ public final class ETLPipeline {
             throw new RuntimeException("No validation results found, skipping further validation checks!");
         }
         for (var validationResult : testSetResults) {
-            if (validationResult != null) {
-                if (!validationResult.getMissingMandatoryFields().isEmpty()) {
-                    throw new Exception("Execution stopped due to missing mandatory fields: "
-                            + validationResult.getMissingMandatoryFields());
-                }
-                if (!validationResult.getDataTypeErrors().isEmpty()) {
-                    throw new Exception("Execution stopped due to data type errors: "
-                            + validationResult.getDataTypeErrors());
-                }
-                var conformity = validationResult.getConformityAndUnknownRate().getLeft();
-                var unknownRate = validationResult.getConformityAndUnknownRate().getRight();
-                if (conformity < AppConsts.ETL_VALIDATION_CONFORMITY_THRESHOLD) {
-                    throw new Exception("Execution stopped due to conformity rate: " + conformity);
-                }
-                if (unknownRate > AppConsts.ETL_VALIDATION_UNKNOWN_THRESHOLD) {
-                    throw new Exception("Execution stopped due to unknown rate: " + unknownRate);
-                }
+            checkLocalValidationResult(validationResult);
+        }
+    }
 
-            } else {
-                throw new Exception("Found invalid validation result!");
-            }
+    /**
+     * Checks a local validation result against the acceptance thresholds.
+     *
+     * @param validationResult the local validation result of a document
+     * @throws Exception if the result is missing or does not meet the thresholds
+     */
+    private void checkLocalValidationResult(LocalSimpleValidationResult validationResult) throws Exception {
+        if (validationResult == null) {
+            throw new Exception("Found invalid validation result!");
+        }
+        if (!validationResult.getMissingMandatoryFields().isEmpty()) {
+            throw new Exception("Execution stopped due to missing mandatory fields: "
+                    + validationResult.getMissingMandatoryFields());
+        }
+        if (!validationResult.getDataTypeErrors().isEmpty()) {
+            throw new Exception("Execution stopped due to data type errors: "
+                    + validationResult.getDataTypeErrors());
+        }
+        var conformity = validationResult.getConformityAndUnknownRate().getLeft();
+        var unknownRate = validationResult.getConformityAndUnknownRate().getRight();
+        if (conformity < AppConsts.ETL_VALIDATION_CONFORMITY_THRESHOLD) {
+            throw new Exception("Execution stopped due to conformity rate: " + conformity);
+        }
+        if (unknownRate > AppConsts.ETL_VALIDATION_UNKNOWN_THRESHOLD) {
+            throw new Exception("Execution stopped due to unknown rate: " + unknownRate);
         }
     }
 
@@ -340,7 +782,7 @@ public final class ETLPipeline {
      * 
      * This method performs validation on all documents that have been processed
      * through the ETL pipeline.
-     * For each validated document, it extracts the context (summarized metadata),
+     * For each validated document, it extracts the context (document summary),
      * generated response,
      * and original query to perform LLM-based validation using the ETLValidation
      * service.
@@ -375,29 +817,10 @@ public final class ETLPipeline {
         }
         var validationResults = new ArrayList<LLMValidationResult>();
         for (var etlDocument : validatedDocuments) {
-            String context = etlDocument.getDocument().metadata().getString("summarized") + "\nTable description: "
-                    + tableDescription.toJson();
-            String generatedResponse = etlDocument.getParsedResponse();
-            String originalQuery = PromptTexts.ETL_PROCESS_TEXT;
-            if (context == null || context.isEmpty()) {
-                LoggerHelper.logger.error("Context is null or empty for document "
-                        + rawDocuments.indexOf(etlDocument));
-                continue;
-            }
-            if (generatedResponse == null || generatedResponse.isEmpty()) {
-                LoggerHelper.logger.error("Generated response is null or empty for document "
-                        + rawDocuments.indexOf(etlDocument));
-                continue;
-            }
-            if (originalQuery == null || originalQuery.isEmpty()) {
-                LoggerHelper.logger.error("Original query is null or empty for document "
-                        + rawDocuments.indexOf(etlDocument));
-                continue;
+            var validationResult = validateDocumentWithLLM(etlDocument);
+            if (validationResult != null) {
+                validationResults.add(validationResult);
             }
-            var validationResult = ETLValidation.validateLLMOutput(context, generatedResponse, originalQuery);
-            LoggerHelper.logger.info("Document " + rawDocuments.indexOf(etlDocument) + ":");
-            LoggerHelper.logger.info("Validation response:" + System.lineSeparator() + validationResult);
-            validationResults.add(validationResult);
         }
         boolean allAccepted = validationResults.stream()
                 .allMatch(result -> result.isAccepted(AppConsts.LLM_VALIDATION_ACCEPTANCE_THRESHOLD));
@@ -415,6 +838,40 @@ public final class ETLPipeline {
         LoggerHelper.logger.info("All documents passed LLM validation successfully!");
     }
 
+    /**
+     * Validates the parsing result of a single document using the LLM.
+     *
+     * @param etlDocument the parsed document to validate
+     * @return the LLM validation result, or null if the document has nothing to
+     *         validate
+     * @throws Exception if an error occurs during the LLM validation
+     */
+    private LLMValidationResult validateDocumentWithLLM(ETLDocument etlDocument) throws Exception {
+        String context = etlDocument.getSummary() + "\nTable description: "
+                + tableDescription.toJson();
+        String generatedResponse = etlDocument.getParsedResponse();
+        String originalQuery = PromptTexts.ETL_PROCESS_TEXT;
+        if (context == null || context.isEmpty()) {
+            LoggerHelper.logger.error("Context is null or empty for document "
+                    + etlDocument.getIndex());
+            return null;
+        }
+        if (generatedResponse == null || generatedResponse.isEmpty()) {
+            LoggerHelper.logger.error("Generated response is null or empty for document "
+                    + etlDocument.getIndex());
+            return null;
+        }
+        if (originalQuery == null || originalQuery.isEmpty()) {
+            LoggerHelper.logger.error("Original query is null or empty for document "
+                    + etlDocument.getIndex());
+            return null;
+        }
+        var validationResult = ETLValidation.validateLLMOutput(context, generatedResponse, originalQuery);
+        LoggerHelper.logger.info("Document " + etlDocument.getIndex() + ":");
+        LoggerHelper.logger.info("Validation response:" + System.lineSeparator() + validationResult);
+        return validationResult;
+    }
+
     /**
      * Step 6: Insert data into database - This method will insert the data into the
      * database
@@ -429,27 +886,369 @@ public final class ETLPipeline {
             return;
         }
         long startInsertTime = System.currentTimeMillis();
-        for (var etlDocument : validatedDocuments) {
-            try {
-                if (DBHelper.insertParsedDocumentAtDatabase(
-                        AppStore.getInstance().getTableName(),
-                        tableDescription,
-                        etlDocument.getJsonSchema())) {
+        truncateTableBeforeLoad();
+        var appConfig = AppStore.getStartConfigs().getApp();
+        int partitionSize = appConfig.getDbInsertPartitionSize();
+        ExecutorService dbInserters = Executors.newFixedThreadPool(Math.max(1, appConfig.getDbInsertParallelism()));
+        try {
+            // every document is split into partitions, all of them are queued before waiting
+            List<List<Future<Boolean>>> documentPartitions = new ArrayList<>();
+            for (var etlDocument : validatedDocuments) {
+                documentPartitions.add(submitInsertPartitions(dbInserters, etlDocument, partitionSize));
+            }
+            for (int i = 0; i < validatedDocuments.size(); i++) {
+                var etlDocument = validatedDocuments.get(i);
+                int insertedPartitions = 0;
+                for (Future<Boolean> partition : documentPartitions.get(i)) {
+                    try {
+                        if (partition.get()) {
+                            insertedPartitions++;
+                        }
+                    } catch (ExecutionException e) {
+                        LoggerHelper.logger.error("Error in parallel insertion: " + e.getMessage(), e);
+                    }
+                }
+                int totalPartitions = documentPartitions.get(i).size();
+                if (insertedPartitions == totalPartitions) {
                     LoggerHelper.logger
-                            .info("Document " + rawDocuments.indexOf(etlDocument) + " inserted successfully!");
+                            .info("Document " + etlDocument.getIndex() + " inserted successfully!");
+                    if (runJournal != null) {
+                        runJournal.recordInserted(etlDocument.getDocumentKey(), etlDocument.getJsonSchema().size());
+                    }
                 } else {
-                    LoggerHelper.logger.error("Error inserting document " + rawDocuments.indexOf(etlDocument) + "!");
+                    LoggerHelper.logger.error("Error inserting document " + etlDocument.getIndex() + ": "
+                            + insertedPartitions + " of " + totalPartitions + " partitions inserted!");
                 }
-            } catch (SQLException e) {
-                LoggerHelper.logger
-                        .error("Error inserting document " + rawDocuments.indexOf(etlDocument) + ": " + e.getMessage());
             }
+        } finally {
+            dbInserters.shutdown();
         }
         long endInsertTime = System.currentTimeMillis();
         LoggerHelper.logger.info("Data inserted into database successfully!");
         LoggerHelper.logger.info("Insertion time: " + Duration.buildByMilliseconds(endInsertTime - startInsertTime));
     }
 
+    /**
+     * Splits the parsed rows of a document into partitions and queues each one to
+     * be inserted in its own connection and transaction.
+     *
+     * Each committed partition is recorded in the run journal, keyed by the hash
+     * of its rows, so a resumed run skips the partitions already committed when
+     * the other partitions of the document failed.
+     *
+     * @param dbInserters   the executor running the insertions
+     * @param etlDocument   the parsed and validated document
+     * @param partitionSize the max rows of each partition, 0 or less keeps the
+     *                      whole document in a single partition
+     * @return the futures of the partitions, true when a partition was inserted
+     */
+    private List<Future<Boolean>> submitInsertPartitions(ExecutorService dbInserters, ETLDocument etlDocument,
+            int partitionSize) {
+        JsonNode rows = etlDocument.getJsonSchema();
+        String documentKey = etlDocument.getDocumentKey();
+        int totalRows = rows.size();
+        int step = partitionSize > 0 ? partitionSize : Math.max(1, totalRows);
+        List<Future<Boolean>> partitions = new ArrayList<>();
+        for (int from = 0; from < totalRows; from += step) {
+            final int fromIndex = from;
+            final int toIndex = Math.min(totalRows, from + step);
+            String partitionKey = runJournal == null ? null
+                    : RunJournal.partitionKey(rows, fromIndex, toIndex);
+            if (partitionKey != null && runJournal.isChunkInserted(documentKey, partitionKey)) {
+                partitions.add(CompletableFuture.completedFuture(true));
+                continue;
+            }
+            partitions.add(dbInserters.submit(() -> {
+                boolean inserted = DBHelper.insertParsedRowsAtDatabase(tableDescription, rows, fromIndex, toIndex);
+                if (inserted && partitionKey != null) {
+                    runJournal.recordChunksInserted(documentKey, List.of(partitionKey));
+                }
+                return inserted;
+            }));
+        }
+        return partitions;
+    }
+
+    /**
+     * Inserts the parsed rows of a single document into the database.
+     *
+     * @param etlDocument the parsed and validated document
+     * @return true if the document was inserted, false otherwise
+     */
+    private boolean insertDocument(ETLDocument etlDocument) {
+        if (DBHelper.insertParsedDocumentAtDatabase(
+                tableName,
+                tableDescription,
+                etlDocument.getJsonSchema())) {
+            LoggerHelper.logger
+                    .info("Document " + etlDocument.getIndex() + " inserted successfully!");
+            if (runJournal != null) {
+                runJournal.recordInserted(etlDocument.getDocumentKey(), etlDocument.getJsonSchema().size());
+            }
+            return true;
+        }
+        LoggerHelper.logger.error("Error inserting document " + etlDocument.getIndex() + "!");
+        return false;
+    }
+
+    /**
+     * Streaming process - Runs summarization, parsing, validation and insertion
+     * as overlapping stages connected by bounded queues. Each document moves to
+     * the next stage as soon as its previous stage finishes, so the database
+     * insertion of one document overlaps with the LLM parsing of the others.
+     *
+     * Validation is done per document: a document that fails the local or the LLM
+     * validation is dropped instead of stopping the whole execution.
+     *
+     * The documents are parsed on demand while the summarize stage takes them,
+     * and their content is released once they leave the pipeline.
+     *
+     * @throws Exception If an error occurs while extracting the documents
+     */
+    private void streamingProcess() throws Exception {
+        long startStreamingTime = System.currentTimeMillis();
+        LoggerHelper.logger.info("Starting streaming ETL process...");
+        var appConfig = AppStore.getStartConfigs().getApp();
+        int maxEtlProcessors = appConfig.getMaxETLProcessors();
+        int queueCapacity = appConfig.getStreamingQueueCapacity();
+        rawDocuments = Collections.synchronizedList(new ArrayList<>());
+        validatedDocuments = Collections.synchronizedList(new ArrayList<>());
+        List<ETLDocument> insertedDocuments = Collections.synchronizedList(new ArrayList<>());
+        tabularDocuments = Collections.synchronizedList(new ArrayList<>());
+        // tabular documents are mapped and loaded off the producer thread
+        ExecutorService tabularLoaders = isTabularFastPathEnabled()
+                ? ExecutorHelper.newDocumentExecutor(maxEtlProcessors)
+                : null;
+        List<Future<?>> tabularLoads = new ArrayList<>();
+
+        var summarizeStage = new StreamingStage<ETLDocument>("summarize", maxEtlProcessors, queueCapacity,
+                etlDocument -> {
+                    if (!summarizeDocument(etlDocument.getIndex(), etlDocument)) {
+                        etlDocument.release();
+                        return null;
+                    }
+                    validatedDocuments.add(etlDocument);
+                    return etlDocument;
+                });
+        var parseStage = new StreamingStage<ETLDocument>("parse", maxEtlProcessors, queueCapacity,
+                etlDocument -> {
+                    parseDocument(etlDocument.getIndex(), etlDocument);
+                    if (streamingInsert) {
+                        insertedDocuments.add(etlDocument);
+                        etlDocument.release();
+                    }
+                    return etlDocument;
+                });
+        var validateStage = new StreamingStage<ETLDocument>("validate", maxEtlProcessors, queueCapacity,
+                etlDocument -> {
+                    checkLocalValidationResult(
+                            ETLValidation.validateParsingLocally(etlDocument.getJsonSchema(), tableDescription));
+                    if (appConfig.isValidateLLMResultsWithLLM()) {
+                        var validationResult = validateDocumentWithLLM(etlDocument);
+                        if (validationResult != null
+                                && !validationResult.isAccepted(AppConsts.LLM_VALIDATION_ACCEPTANCE_THRESHOLD)) {
+                            LoggerHelper.logger.error("Document " + etlDocument.getIndex()
+                                    + " rejected by LLM validation: " + validationResult.simpleValidationResult());
+                            return null;
+                        }
+                    }
+                    return etlDocument;
+                });
+        var insertStage = new StreamingStage<ETLDocument>("insert", appConfig.getDbInsertParallelism(), queueCapacity,
+                etlDocument -> {
+                    boolean inserted = insertDocument(etlDocument);
+                    etlDocument.release();
+                    if (!inserted) {
+                        return null;
+                    }
+                    insertedDocuments.add(etlDocument);
+                    return etlDocument;
+                });
+        // with streaming insert the rows are validated and inserted by the parse stage
+        var stages = streamingInsert ? List.of(summarizeStage, parseStage)
+                : List.of(summarizeStage, parseStage, validateStage, insertStage);
+        for (int i = 0; i < stages.size() - 1; i++) {
+            stages.get(i).then(stages.get(i + 1));
+        }
+        stages.forEach(StreamingStage::start);
+
+        try {
+            if (sharedDocuments != null) {
+                for (int i = 0; i < sharedDocuments.size(); i++) {
+                    if (isAlreadyInserted(i, sharedDocuments.get(i).getDocument())) {
+                        continue;
+                    }
+                    var etlDocument = sharedDocuments.get(i).copyForTable();
+                    rawDocuments.add(etlDocument);
+                    submitStreamingDocument(summarizeStage, tabularLoaders, tabularLoads, etlDocument);
+                }
+            } else {
+                // documents are parsed on demand, as the summarize stage takes them
+                try (var documents = DocumentTextExtractor.openDocuments(fileOrFolderPath)) {
+                    for (int i = 0; documents.hasNext(); i++) {
+                        var document = documents.next();
+                        if (isAlreadyInserted(i, document)) {
+                            continue;
+                        }
+                        var etlDocument = toETLDocument(i, document);
+                        rawDocuments.add(etlDocument);
+                        submitStreamingDocument(summarizeStage, tabularLoaders, tabularLoads, etlDocument);
+                    }
+                }
+                LoggerHelper.logger.info("Documents loaded successfully!");
+            }
+        } finally {
+            // a tabular document whose columns do not match goes to the summarize stage
+            awaitTabularLoads(tabularLoaders, tabularLoads);
+            summarizeStage.complete();
+            for (var stage : stages) {
+                stage.awaitTermination();
+            }
+        }
+
+        if (rawDocuments.isEmpty()) {
+            LoggerHelper.logger.warn("No documents to run ETL Process!");
+            throw new Exception("No documents found at the path: " + fileOrFolderPath);
+        }
+        LoggerHelper.logger.info("Number of documents found at the path: " + rawDocuments.size());
+        LoggerHelper.logger.info("Number of validated documents: " + validatedDocuments.size());
+        LoggerHelper.logger.info("Number of inserted documents: " + insertedDocuments.size());
+        LoggerHelper.logger.info("Number of tabular documents loaded: " + tabularDocuments.size());
+        long endStreamingTime = System.currentTimeMillis();
+        LoggerHelper.logger.info("Streaming ETL time: "
+                + Duration.buildByMilliseconds(endStreamingTime - startStreamingTime));
+    }
+
+    /**
+     * Submits a document to the streaming pipeline. A tabular document is mapped
+     * by the fast path on the tabular loaders instead, and loaded right away, or
+     * handed to the pipeline when its columns do not match the table.
+     *
+     * @param summarizeStage  the first stage of the pipeline
+     * @param tabularLoaders  the executor mapping and loading the tabular
+     *                        documents, null without the fast path
+     * @param tabularLoads    receives the futures of the tabular loads
+     * @param etlDocument     the extracted document
+     * @throws InterruptedException If interrupted while waiting for queue space
+     */
+    private void submitStreamingDocument(StreamingStage<ETLDocument> summarizeStage, ExecutorService tabularLoaders,
+            List<Future<?>> tabularLoads, ETLDocument etlDocument) throws InterruptedException {
+        if (tabularLoaders == null || !TabularReader.isTabular(etlDocument.getDocument())) {
+            summarizeStage.submit(etlDocument);
+            return;
+        }
+        int index = etlDocument.getIndex();
+        tabularLoads.add(tabularLoaders.submit(() -> {
+            if (!mapTabularDocument(index, etlDocument)) {
+                summarizeStage.submit(etlDocument);
+                return null;
+            }
+            tabularDocuments.add(etlDocument);
+            loadTabularDocument(index, etlDocument);
+            etlDocument.release();
+            return null;
+        }));
+    }
+
+    /**
+     * Waits for the tabular documents mapped and loaded during the streaming
+     * process.
+     *
+     * @param tabularLoaders the executor of the tabular documents, may be null
+     * @param tabularLoads   the futures of the tabular loads
+     * @throws InterruptedException If interrupted while waiting
+     */
+    private void awaitTabularLoads(ExecutorService tabularLoaders, List<Future<?>> tabularLoads)
+            throws InterruptedException {
+        if (tabularLoaders == null) {
+            return;
+        }
+        for (Future<?> tabularLoad : tabularLoads) {
+            try {
+                tabularLoad.get();
+            } catch (ExecutionException e) {
+                LoggerHelper.logger.error("Error loading tabular document: " + e.getMessage(), e);
+            }
+        }
+        ExecutorHelper.release(tabularLoaders);
+    }
+
+    /**
+     * Checks if the streaming pipeline can be used for this execution. Streaming
+     * is disabled when the execution needs every document before deciding
+     * anything: test set comparison or stopping on invalidated documents.
+     *
+     * @return true if the streaming pipeline should be used, false otherwise
+     */
+    private boolean isStreamingEnabled() {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        if (!appConfig.isStreamingPipeline()) {
+            return false;
+        }
+        if (!parentTablesLoaded.isEmpty()) {
+            LoggerHelper.logger.warn("Streaming pipeline disabled: table " + tableName
+                    + " is inserted after the tables it references!");
+            return false;
+        }
+        if (AppStore.getInstance().getTestSetPath() != null && !AppStore.getInstance().getTestSetPath().isEmpty()) {
+            LoggerHelper.logger.warn("Streaming pipeline disabled: test set validation needs all documents parsed!");
+            return false;
+        }
+        if (appConfig.isStopIfInvalidatedDocument()) {
+            LoggerHelper.logger.warn("Streaming pipeline disabled: stopIfInvalidatedDocument needs all documents "
+                    + "validated before the insertion!");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the rows can be inserted as soon as each chunk is parsed. The
+     * streaming insert is disabled when the rows must be validated as a whole
+     * document before the insertion: test set comparison or LLM validation.
+     *
+     * @return true if the streaming insert should be used, false otherwise
+     */
+    private boolean isStreamingInsertEnabled() {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        if (!appConfig.isStreamingInsert()) {
+            return false;
+        }
+        if (!parentTablesLoaded.isEmpty()) {
+            LoggerHelper.logger.warn("Streaming insert disabled: table " + tableName
+                    + " is inserted after the tables it references!");
+            return false;
+        }
+        if (AppStore.getInstance().getTestSetPath() != null && !AppStore.getInstance().getTestSetPath().isEmpty()) {
+            LoggerHelper.logger.warn("Streaming insert disabled: test set validation needs all rows parsed!");
+            return false;
+        }
+        if (appConfig.isValidateLLMResultsWithLLM()) {
+            LoggerHelper.logger.warn("Streaming insert disabled: LLM validation needs all rows parsed before the "
+                    + "insertion!");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Truncates the target table once, before the first insertion, when
+     * configured. A resumed run keeps the rows it already inserted.
+     *
+     * @throws SQLException If the table cannot be truncated
+     */
+    private void truncateTableBeforeLoad() throws SQLException {
+        if (tableTruncated || !AppStore.getStartConfigs().getDatabase().isTruncateTableBeforeInsert()) {
+            return;
+        }
+        if (resumeRunId != null && !resumeRunId.isBlank()) {
+            LoggerHelper.logger.warn("Resuming run " + resumeRunId + ", the table will not be truncated!");
+            return;
+        }
+        DBHelper.truncateTable(tableName);
+        tableTruncated = true;
+    }
+
     /**
      * Boot the ETL pipeline - This method will boot the ETL pipeline
      * 
@@ -457,14 +1256,83 @@ public final class ETLPipeline {
      */
     public void boot() throws Exception {
         startExecutionTime = System.currentTimeMillis();
-        // parsing pipeline steps
-        describeDatabaseTable();
+        if (tableName == null) {
+            tableName = AppStore.getInstance().getTableName();
+        }
+        try {
+            // parsing pipeline steps, the table may be described by the caller
+            if (tableDescription == null) {
+                describeDatabaseTable();
+            }
+            openRunJournal();
+            try {
+                runPipeline();
+            } finally {
+                if (runJournal != null) {
+                    runJournal.close();
+                }
+                if (multiTableExtraction != null) {
+                    multiTableExtraction.releaseTable(tableDescription.getName());
+                }
+            }
+            tableLoaded.complete(null);
+        } catch (Exception e) {
+            tableLoaded.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for the pipelines of the tables referenced by this table, so its rows
+     * are inserted after the rows they reference
+     * 
+     * @throws Exception If a referenced table failed to load
+     */
+    private void awaitParentTables() throws Exception {
+        if (parentTablesLoaded.isEmpty()) {
+            return;
+        }
+        LoggerHelper.logger.info("Table " + tableName + " waiting for the tables it references...");
+        try {
+            CompletableFuture.allOf(parentTablesLoaded.toArray(CompletableFuture[]::new)).get();
+        } catch (ExecutionException e) {
+            throw new Exception("Table " + tableName + " not inserted, a table it references failed: "
+                    + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Runs the ETL steps, streaming or barrier-based, after the table is described
+     * 
+     * @throws Exception If an error occurs while running the ETL steps
+     */
+    private void runPipeline() throws Exception {
+        streamingInsert = isStreamingInsertEnabled();
+        boolean streaming = isStreamingEnabled();
+        if (streamingInsert || streaming) {
+            // rows are inserted while documents are still being parsed
+            truncateTableBeforeLoad();
+        }
+        if (streaming) {
+            startETLProcessor();
+            streamingProcess();
+            endExecutionTime = System.currentTimeMillis();
+            debugETLResults();
+            return;
+        }
         extractDataFromDocuments();
         startETLProcessor();
+        mapTabularDocuments();
         validateAndSummarizeDocuments();
         parsingProcess();
         // test parsing process
         endExecutionTime = System.currentTimeMillis();
+        if (streamingInsert) {
+            LoggerHelper.logger.info("Rows validated per chunk and inserted during the parsing process!");
+            loadTabularDocuments();
+            debugETLResults();
+            return;
+        }
         // print tests and validations
         var validationStartTime = System.currentTimeMillis();
         validateETLWithLocalTests();
@@ -473,6 +1341,8 @@ public final class ETLPipeline {
         LoggerHelper.logger.info("Validation time: "
                 + Duration.buildByMilliseconds(validationEndTime - validationStartTime));
         // insert data into database
+        awaitParentTables();
+        loadTabularDocuments();
         insertETLIntoDatabase();
         debugETLResults();
     }
@@ -485,11 +1355,22 @@ public final class ETLPipeline {
                 "=========================================== ETL Results ===========================================");
         LoggerHelper.logger.info("Number of documents found: " + rawDocuments.size());
         LoggerHelper.logger.info("Number of validated documents: " + validatedDocuments.size());
+        LoggerHelper.logger.info("Number of tabular documents loaded without LLM parsing: "
+                + tabularDocuments.size());
         var etlDuration = Duration.buildByMilliseconds(endExecutionTime - startExecutionTime);
         LoggerHelper.logger.info("Execution time: " + etlDuration.toString());
+        try {
+            var responseCache = LLMResponseCache.getInstance();
+            if (responseCache != null) {
+                responseCache.logStatistics();
+            }
+        } catch (IOException e) {
+            LoggerHelper.logger.warn("Could not read LLM response cache statistics: " + e.getMessage());
+        }
+        TokenUsageStats.logStatistics();
         if (AppStore.getInstance().isDebugAll()) {
             for (var etlDocument : validatedDocuments) {
-                LoggerHelper.logger.info("Document " + rawDocuments.indexOf(etlDocument) + ":");
+                LoggerHelper.logger.info("Document " + etlDocument.getIndex() + ":");
                 LoggerHelper.logger.info(etlDocument);
             }
         }
@@ -1,10 +1,13 @@
 package com.leonjr.ldo;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
 import java.util.concurrent.Callable;
 
 import com.leonjr.ldo.app.consts.AppConsts;
+import com.leonjr.ldo.app.helper.ExecutorHelper;
 import com.leonjr.ldo.app.helper.LoggerHelper;
 import com.leonjr.ldo.app.helper.YmlHelper;
 import com.leonjr.ldo.database.handler.DBHelper;
@@ -25,7 +28,7 @@ import picocli.CommandLine.Option;
  * 
  * Required parameters:
  * - Configuration file path (-c, --config)
- * - Table name (-t, --table)
+ * - Table name (-t, --table), or a comma separated list of tables loaded from the same documents
  * 
  * Optional parameters:
  * - File or folder path to process (-f, --file, --folder)
@@ -33,6 +36,7 @@ import picocli.CommandLine.Option;
  * - Debug mode (-d, --debug)
  * - Test set path (-ts, --testset)
  * - Pages regex for selective processing (-p, --pages)
+ * - Run id to resume a previous execution (-r, --resume)
  * - Help display (-h, --help)
  * 
  * The application follows a boot-then-execute pattern where configuration is loaded first,
@@ -46,6 +50,7 @@ public class Main implements Callable<Integer> {
     public static void main(String[] args) {
         int exitCode = new CommandLine(new Main()).execute(args);
         LoggerHelper.logger.info("Shutting down application...");
+        ExecutorHelper.shutdown();
         DBHelper.shutdown();
         System.exit(exitCode);
     }
@@ -53,7 +58,7 @@ public class Main implements Callable<Integer> {
     @Option(names = { "-c", "--config" }, description = "Path to the configuration file")
     private String configFilePath;
 
-    @Option(names = { "-t", "--table" }, description = "Table name to retrieve information")
+    @Option(names = { "-t", "--table" }, description = "Table name to retrieve information. Several tables can be given comma separated (e.g., orders,customers), the documents are then extracted once and parsed for every table.")
     private String tableName;
 
     @Option(names = { "-h", "--help" }, usageHelp = true, description = "Display a help message")
@@ -74,6 +79,9 @@ public class Main implements Callable<Integer> {
     @Option(names = { "-p", "--pages" }, description = "Pages regex to process (if applicable). It can be used to represent a set of pages or a range of pages e.g., 1,2,3 or 1-3 ( comma separated or range). If not set, all pages will be processed.")
     private String pagesRegex;
 
+    @Option(names = { "-r", "--resume" }, description = "Id of a previous run to resume. Documents, summaries and chunks already processed by that run are skipped.")
+    private String resumeRunId;
+
     @Override
     public Integer call() {
         if (helpRequested) {
@@ -95,7 +103,8 @@ public class Main implements Callable<Integer> {
      * Boot the application with the provided configuration file path and table name
      * 
      * @param configFilePath Path to the configuration file
-     * @param tableName      Table name to retrieve information
+     * @param tableName      Table name to retrieve information, or a comma
+     *                       separated list of tables
      */
     public static void boot(String configFilePath, String tableName, boolean debug, String testSetPath, String pagesRegex) {
         LoggerHelper.logger.info("Starting application at ", Calendar.getInstance().getTime());
@@ -108,7 +117,7 @@ public class Main implements Callable<Integer> {
             }
             LoggerHelper.logger.info("Configuration loaded successfully!");
             LoggerHelper.logger.info(startupConf);
-            AppStore.getInstance(startupConf, tableName, debug, testSetPath, pagesRegex);
+            AppStore.getInstance(startupConf, parseTableNames(tableName), debug, testSetPath, pagesRegex);
             DBHelper.startDB(startupConf.getDatabase());
             LoggerHelper.logger.info("Application started successfully!");
         } catch (Exception e) {
@@ -126,7 +135,16 @@ public class Main implements Callable<Integer> {
     public int startETLPipeline(String fileOrFolderPath) {
         try {
             LoggerHelper.logger.info("ETL Pipeline started to process file/folder: " + fileOrFolderPath);
+            if (AppStore.getInstance().isMultiTable()) {
+                MultiTableETLPipeline multiTablePipeline = new MultiTableETLPipeline(fileOrFolderPath,
+                        AppStore.getInstance().getTableNames());
+                multiTablePipeline.setResumeRunId(resumeRunId);
+                multiTablePipeline.boot();
+                LoggerHelper.logger.info("ETL Pipeline finished successfully!");
+                return 0;
+            }
             ETLPipeline etlPipeline = new ETLPipeline(fileOrFolderPath);
+            etlPipeline.setResumeRunId(resumeRunId);
             etlPipeline.boot();
             LoggerHelper.logger.info("ETL Pipeline finished successfully!");
             return 0;
@@ -137,6 +155,25 @@ public class Main implements Callable<Integer> {
         }
     }
 
+    /**
+     * Splits the table option into the table names, ignoring blank entries.
+     * 
+     * @param tableName the table option, a table name or a comma separated list
+     * @return the table names, in the given order and without duplicates
+     * @throws IllegalArgumentException if no table name is given
+     */
+    private static List<String> parseTableNames(String tableName) throws IllegalArgumentException {
+        List<String> tableNames = Arrays.stream(tableName.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .distinct()
+                .toList();
+        if (tableNames.isEmpty()) {
+            throw new IllegalArgumentException("No table name given: " + tableName);
+        }
+        return tableNames;
+    }
+
     /**
      * Validate the test set path.
      * 
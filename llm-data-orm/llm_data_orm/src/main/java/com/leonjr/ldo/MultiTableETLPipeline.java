@@ -0,0 +1,184 @@
+package com.leonjr.ldo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.database.handler.DBHelper;
+import com.leonjr.ldo.database.models.TableDescription;
+import com.leonjr.ldo.extractor.DocumentTextExtractor;
+import com.leonjr.ldo.parsing.etl.MultiTableExtraction;
+import com.leonjr.ldo.parsing.etl.models.ETLDocument;
+import com.leonjr.ldo.pipeline.RunJournal;
+
+import ch.qos.logback.core.util.Duration;
+import lombok.Data;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Loads the same documents into several tables in a single run.
+ *
+ * The documents are extracted and segmented once. The extracted documents are
+ * then shared by one {@link ETLPipeline} per table, and the pipelines run
+ * concurrently. Each table is summarized, parsed, validated and inserted on
+ * its own, and a failure in one table does not stop the others. The LLM
+ * requests of every table go through the same scheduler, so the tables share
+ * the LLM budget instead of multiplying it.
+ *
+ * Each table keeps its own run journal. All of them are resumed with the id of
+ * the run.
+ *
+ * The rows are inserted in foreign key order: a table waits for the tables it
+ * references before inserting its rows, and the tables are truncated together.
+ * With {@code multiTableSingleCall} the tables also share the LLM calls: each
+ * document is summarized and each chunk is parsed once for all the tables.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+@RequiredArgsConstructor
+@Data
+public final class MultiTableETLPipeline {
+    @NonNull
+    private String fileOrFolderPath;
+    @NonNull
+    private List<String> tableNames;
+    private String resumeRunId;
+
+    /**
+     * Boot the multi-table ETL pipeline - Extracts the documents and runs the
+     * pipeline of every table
+     *
+     * @throws Exception If the documents cannot be extracted or the pipeline of
+     *                   any table fails
+     */
+    public void boot() throws Exception {
+        long startTime = System.currentTimeMillis();
+        LoggerHelper.logger.info("Loading " + tableNames.size() + " tables: " + String.join(", ", tableNames));
+        List<ETLDocument> documents = extractDocuments();
+        String runId = resumeRunId != null && !resumeRunId.isBlank() ? resumeRunId : RunJournal.newRunId();
+        if (AppStore.getStartConfigs().getApp().isRunJournal()) {
+            LoggerHelper.logger.info("Run id of all tables: " + runId + ". Use --resume " + runId
+                    + " to continue this run if it stops.");
+        }
+
+        List<ETLPipeline> etlPipelines = buildPipelines();
+        ExecutorService tablePipelines = Executors.newFixedThreadPool(etlPipelines.size());
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (ETLPipeline etlPipeline : etlPipelines) {
+                etlPipeline.setSharedDocuments(documents);
+                etlPipeline.setResumeRunId(resumeRunId);
+                etlPipeline.setJournalRunId(RunJournal.tableRunId(runId, etlPipeline.getTableName()));
+                futures.add(tablePipelines.submit(() -> {
+                    etlPipeline.boot();
+                    return null;
+                }));
+            }
+            List<String> failedTables = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                    LoggerHelper.logger.info("Table " + etlPipelines.get(i).getTableName() + " loaded successfully!");
+                } catch (ExecutionException e) {
+                    LoggerHelper.logger.error("Table " + etlPipelines.get(i).getTableName() + " failed: "
+                            + e.getCause().getMessage(), e.getCause());
+                    failedTables.add(etlPipelines.get(i).getTableName());
+                }
+            }
+            if (!failedTables.isEmpty()) {
+                throw new Exception("ETL Pipeline failed for tables: " + String.join(", ", failedTables));
+            }
+        } finally {
+            tablePipelines.shutdown();
+        }
+        LoggerHelper.logger.info("Multi-table execution time: "
+                + Duration.buildByMilliseconds(System.currentTimeMillis() - startTime));
+    }
+
+    /**
+     * Creates the pipeline of every table. The tables are described first and
+     * each table waits for the tables it references before inserting its rows.
+     * The tables are then truncated together, since a table referenced by
+     * another cannot be truncated on its own. With a single LLM call per chunk,
+     * the pipelines also share one extraction.
+     *
+     * @return the pipelines, in load order
+     * @throws Exception If the tables cannot be described, sorted or truncated
+     */
+    private List<ETLPipeline> buildPipelines() throws Exception {
+        List<ETLPipeline> etlPipelines = new ArrayList<>();
+        var loadOrder = DBHelper.getTableLoadOrder(tableNames);
+        List<TableDescription> tableDescriptions = new ArrayList<>();
+        Map<String, ETLPipeline> pipelinesByTable = new HashMap<>();
+        for (var table : loadOrder.entrySet()) {
+            ETLPipeline etlPipeline = new ETLPipeline(fileOrFolderPath);
+            etlPipeline.setTableName(table.getKey());
+            etlPipeline.setTableDescription(DBHelper.getTableDescription(table.getKey()));
+            etlPipeline.setParentTablesLoaded(table.getValue().stream()
+                    .map(parent -> pipelinesByTable.get(parent).getTableLoaded())
+                    .toList());
+            tableDescriptions.add(etlPipeline.getTableDescription());
+            pipelinesByTable.put(table.getKey(), etlPipeline);
+            etlPipelines.add(etlPipeline);
+        }
+        if (AppStore.getStartConfigs().getApp().isMultiTableSingleCall()) {
+            var multiTableExtraction = new MultiTableExtraction(tableDescriptions);
+            etlPipelines.forEach(etlPipeline -> etlPipeline.setMultiTableExtraction(multiTableExtraction));
+        }
+
+        boolean resuming = resumeRunId != null && !resumeRunId.isBlank();
+        if (AppStore.getStartConfigs().getDatabase().isTruncateTableBeforeInsert() && !resuming) {
+            DBHelper.truncateTables(new ArrayList<>(loadOrder.keySet()));
+            etlPipelines.forEach(etlPipeline -> etlPipeline.setTableTruncated(true));
+        }
+        return etlPipelines;
+    }
+
+    /**
+     * Extracts the documents, their images and their segments once for every
+     * table.
+     *
+     * Every document is kept until all the tables are loaded, since the tables
+     * read them at their own pace and a table inserted after the tables it
+     * references needs all of its documents. So a multi-table run holds the text
+     * of the whole folder in memory, even with {@code streamingPipeline}.
+     *
+     * @return the extracted documents
+     * @throws Exception If an error occurs while extracting the documents
+     */
+    private List<ETLDocument> extractDocuments() throws Exception {
+        long startTime = System.currentTimeMillis();
+        LoggerHelper.logger.info("Loading documents and extracting data...");
+        if (AppStore.getStartConfigs().getApp().isStreamingPipeline()) {
+            LoggerHelper.logger.warn("Multi-table runs keep every document in memory until all tables are loaded, "
+                    + "the streaming pipeline does not release them!");
+        }
+        List<ETLDocument> etlDocuments = new ArrayList<>();
+        try (var documents = DocumentTextExtractor.openDocuments(fileOrFolderPath)) {
+            for (int i = 0; documents.hasNext(); i++) {
+                var etlDocument = ETLPipeline.toETLDocument(i, documents.next());
+                // token budgeted segments depend on the table description and the summary,
+                // so each table segments the documents itself
+                if (!AppStore.getStartConfigs().getApp().isTokenBudgetSegmentation()) {
+                    etlDocument.setSegments(DocumentTextExtractor.getSegments(etlDocument.getDocument()));
+                }
+                etlDocuments.add(etlDocument);
+            }
+        }
+        if (etlDocuments.isEmpty()) {
+            throw new Exception("No documents found at the path: " + fileOrFolderPath);
+        }
+        LoggerHelper.logger.info("Number of documents found at the path: " + etlDocuments.size());
+        LoggerHelper.logger.info("Data extraction time: "
+                + Duration.buildByMilliseconds(System.currentTimeMillis() - startTime));
+        return etlDocuments;
+    }
+}
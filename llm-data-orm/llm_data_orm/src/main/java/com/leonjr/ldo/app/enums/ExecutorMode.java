@@ -0,0 +1,7 @@
+package com.leonjr.ldo.app.enums;
+
+public enum ExecutorMode {
+    FIXED,
+    SHARED,
+    VIRTUAL;
+}
@@ -0,0 +1,8 @@
+package com.leonjr.ldo.app.enums;
+
+public enum LLMProfile {
+    ETL,
+    SUMMARY,
+    IMAGE,
+    VALIDATOR;
+}
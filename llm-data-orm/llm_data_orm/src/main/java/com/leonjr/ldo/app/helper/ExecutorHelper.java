@@ -0,0 +1,188 @@
+package com.leonjr.ldo.app.helper;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.enums.ExecutorMode;
+
+public class ExecutorHelper {
+
+    private static ExecutorService sharedLLMExecutor;
+
+    /**
+     * Returns the executor used to run LLM-bound tasks, such as the parsing of
+     * document chunks, according to the configured executor mode:
+     * 
+     * - FIXED: a new fixed thread pool with maxExecutorsThreads threads per call
+     * - SHARED: one long-lived fixed thread pool with maxExecutorsThreads threads
+     * shared by every call
+     * - VIRTUAL: one long-lived executor that starts a virtual thread per task,
+     * available on Java 21 or newer. Older runtimes fall back to SHARED
+     * 
+     * The number of requests running at the same time is bounded by the
+     * LLMRequestScheduler, not by the number of threads.
+     * 
+     * @return the executor for LLM-bound tasks, must be given back with
+     *         {@link #release(ExecutorService)}
+     */
+    public static ExecutorService getLLMExecutor() {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        if (appConfig.getExecutorMode() == ExecutorMode.FIXED) {
+            return Executors.newFixedThreadPool(appConfig.getMaxExecutorsThreads());
+        }
+        synchronized (ExecutorHelper.class) {
+            if (sharedLLMExecutor == null) {
+                sharedLLMExecutor = appConfig.getExecutorMode() == ExecutorMode.VIRTUAL
+                        ? newVirtualThreadExecutor()
+                        : null;
+                if (sharedLLMExecutor == null) {
+                    sharedLLMExecutor = Executors.newFixedThreadPool(appConfig.getMaxExecutorsThreads(),
+                            daemonThreadFactory("ldo-llm-"));
+                }
+            }
+            return sharedLLMExecutor;
+        }
+    }
+
+    /**
+     * Returns a new executor to process documents in parallel. In VIRTUAL mode
+     * each document gets its own virtual thread, and at most the given number of
+     * them runs at the same time, otherwise a fixed thread pool with the given
+     * number of threads is created.
+     * 
+     * @param threads the number of documents processed at the same time
+     * @return the executor for document tasks, must be given back with
+     *         {@link #release(ExecutorService)}
+     */
+    public static ExecutorService newDocumentExecutor(int threads) {
+        if (AppStore.getStartConfigs().getApp().getExecutorMode() == ExecutorMode.VIRTUAL) {
+            var virtualExecutor = newVirtualThreadExecutor();
+            if (virtualExecutor != null) {
+                return new ThrottledExecutor(virtualExecutor, threads);
+            }
+        }
+        return Executors.newFixedThreadPool(threads);
+    }
+
+    /**
+     * Gives back an executor obtained from this helper. Executors created for a
+     * single call are shut down, the shared executor is kept alive.
+     * 
+     * @param executor the executor to give back
+     */
+    public static void release(ExecutorService executor) {
+        synchronized (ExecutorHelper.class) {
+            if (executor == sharedLLMExecutor) {
+                return;
+            }
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Shuts down the shared executor, if it was created.
+     */
+    public static synchronized void shutdown() {
+        if (sharedLLMExecutor != null) {
+            sharedLLMExecutor.shutdown();
+            sharedLLMExecutor = null;
+        }
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task. The
+     * factory method is looked up at runtime since the application is compiled
+     * for Java 17.
+     * 
+     * @return the virtual thread executor, or null if the runtime does not
+     *         support virtual threads
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LoggerHelper.logger.warn("Virtual threads are not available on Java "
+                    + Runtime.version().feature() + ", using a shared thread pool instead");
+            return null;
+        }
+    }
+
+    /**
+     * Executor that runs at most a given number of tasks of its delegate at the
+     * same time. The other tasks wait for a permit on their own thread, which is
+     * cheap with virtual threads.
+     */
+    private static final class ThrottledExecutor extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        private ThrottledExecutor(ExecutorService delegate, int maxRunningTasks) {
+            this.delegate = delegate;
+            this.permits = new Semaphore(Math.max(1, maxRunningTasks));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    // the executor was shut down before the task started
+                    if (command instanceof Future<?> future) {
+                        future.cancel(false);
+                    }
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
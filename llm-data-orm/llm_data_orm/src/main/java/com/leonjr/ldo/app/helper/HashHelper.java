@@ -0,0 +1,44 @@
+package com.leonjr.ldo.app.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+public class HashHelper {
+
+    /**
+     * Hashes a sequence of texts with SHA-256. Each part is length-prefixed so
+     * different splits of the same text never produce the same hash.
+     * 
+     * @param parts the texts to hash, null parts are hashed as empty texts
+     * @return the hexadecimal SHA-256 hash of the parts
+     */
+    public static String sha256(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                byte[] bytes = (part == null ? "" : part).getBytes(StandardCharsets.UTF_8);
+                digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) ':');
+                digest.update(bytes);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Hashes binary content, such as an image, with SHA-256.
+     * 
+     * @param data the content to hash
+     * @return the hexadecimal SHA-256 hash of the content
+     */
+    public static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
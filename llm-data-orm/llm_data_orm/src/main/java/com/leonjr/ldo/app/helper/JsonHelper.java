@@ -7,6 +7,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 public class JsonHelper {
 
+    // ObjectMapper is thread safe once configured, so a single instance is shared
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @return the ObjectMapper shared by the application
+     */
+    public static ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
     /**
      * Convert a JSON string to a JsonNode object.
      * 
@@ -14,7 +24,6 @@ public class JsonHelper {
      * @return the JsonNode object
      */
     public static JsonNode convertJsonStringToJsonNode(String jsonString) throws Exception {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
             return objectMapper.readTree(jsonString);
         } catch (Exception e) {
@@ -29,7 +38,6 @@ public class JsonHelper {
      * @return the JsonNode object
      */
     public static JsonNode readFileAsJsonNode(String filePath) {
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
             var file = new File(filePath);
             if (!file.exists()) {
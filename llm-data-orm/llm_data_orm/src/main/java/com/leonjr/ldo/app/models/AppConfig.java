@@ -1,5 +1,9 @@
 package com.leonjr.ldo.app.models;
 
+import java.util.HashMap;
+import java.util.Map;
+
+import com.leonjr.ldo.app.enums.ExecutorMode;
 import com.leonjr.ldo.app.enums.LLMType;
 
 import jakarta.validation.constraints.NotBlank;
@@ -26,9 +30,126 @@ public class AppConfig {
     @NotBlank(message = "MAX DB insertion chunk size is required - default 100")
     private Integer maxDBInsertionChunkSize = 100;
 
+    @NotNull(message = "Max documents or row partitions inserted at the same time, each one on its own connection - default 4")
+    private Integer dbInsertParallelism = 4;
+
+    @NotNull(message = "Max rows of each partition inserted in its own transaction, 0 means one partition per document - default 5000")
+    private Integer dbInsertPartitionSize = 5000;
+
+    @NotNull(message = "Insert the rows of each chunk as soon as it is parsed, validating each chunk locally - default false")
+    private boolean streamingInsert = false;
+
+    @NotNull(message = "Min rows committed by each transaction of the streaming insert - default 1000")
+    private Integer dbCommitBatchSize = 1000;
+
+    @NotNull(message = "Files of a folder parsed at the same time while the documents are consumed - default number of CPU cores")
+    private Integer documentLoaderThreads = Runtime.getRuntime().availableProcessors();
+
     @NotBlank(message = "MAX ETL processors is required - default 4")
     private Integer maxETLProcessors = 4;
 
     @NotNull(message = "Stop if invalidated document was found when parsing data from documents - default false")
     private boolean stopIfInvalidatedDocument = false;
+
+    @NotNull(message = "Executor mode for LLM-bound tasks, should be FIXED, SHARED or VIRTUAL - default FIXED")
+    private ExecutorMode executorMode = ExecutorMode.FIXED;
+
+    @NotNull(message = "Max LLM requests running at the same time - default 16")
+    private Integer llmMaxConcurrentRequests = 16;
+
+    @NotNull(message = "Max LLM requests per second shared by every parser - default 7")
+    private Double llmRequestsPerSecond = 7d;
+
+    @NotNull(message = "Max LLM tokens per minute shared by every parser, 0 means unlimited - default 0")
+    private Integer llmTokensPerMinute = 0;
+
+    @NotNull(message = "Max attempts of a failed LLM request - default 5")
+    private Integer llmMaxRetries = 5;
+
+    @NotBlank(message = "Work directory used for local caches and run files - default .ldo")
+    private String workDirectory = ".ldo";
+
+    @NotNull(message = "Record the finished steps of each run so it can be resumed - default true")
+    private boolean runJournal = true;
+
+    @NotNull(message = "Cache the table descriptions on disk while the tables do not change - default true")
+    private boolean schemaCache = true;
+
+    @NotNull(message = "Cache the LLM responses on disk to reuse them on re-runs - default false")
+    private boolean llmResponseCache = false;
+
+    @NotNull(message = "Max size in MB of the LLM response cache - default 512")
+    private Integer llmResponseCacheMaxSizeMb = 512;
+
+    @NotNull(message = "Pack the document segments up to a token budget instead of fixed size splitters - default false")
+    private boolean tokenBudgetSegmentation = false;
+
+    @NotNull(message = "Context window of the model in tokens, used by the token budgeted segmentation - default 16384")
+    private Integer modelContextTokens = 16384;
+
+    @NotNull(message = "Fraction of the model context used by each chunk, prompt included - default 0.25")
+    private Double segmentContextFraction = 0.25d;
+
+    @NotNull(message = "Send the same user with the requests sharing a prompt prefix, so the provider routes them to the same prompt cache - default false")
+    private boolean promptCacheHint = false;
+
+    @NotNull(message = "Describe the tables in the prompts with a compact notation of the columns to fill, instead of JSON - default false")
+    private boolean compactPromptSchema = false;
+
+    @NotNull(message = "Hints of the columns sent with the compact schema, keyed by table.column - default empty")
+    private Map<String, String> columnHints = new HashMap<>();
+
+    @NotNull(message = "Pack several small chunks of a document into a single LLM request - default false")
+    private boolean chunkBatching = false;
+
+    @NotNull(message = "Max chunks packed into a single LLM request with the chunk batching - default 8")
+    private Integer chunkBatchSize = 8;
+
+    @NotNull(message = "Max tokens of the chunks packed into a single LLM request with the chunk batching - default 2048")
+    private Integer chunkBatchMaxTokens = 2048;
+
+    @NotNull(message = "Summarize documents larger than summaryMaxTokens from a sample of their segments - default false")
+    private boolean sampledSummarization = false;
+
+    @NotNull(message = "Max tokens of a document summarized with a single call, and of each sampled segment - default 8192")
+    private Integer summaryMaxTokens = 8192;
+
+    @NotNull(message = "Max segments of a large document summarized before merging their summaries - default 6")
+    private Integer summarySampleSegments = 6;
+
+    @NotNull(message = "Score the relevance of documents locally before summarizing them with the LLM - default false")
+    private boolean relevanceGate = false;
+
+    @NotNull(message = "Min relevance score of a document accepted without the LLM summary - default 0.75")
+    private Double relevanceAcceptScore = 0.75d;
+
+    @NotNull(message = "Relevance score under which a document is rejected without the LLM summary - default 0.01")
+    private Double relevanceRejectScore = 0.01d;
+
+    @NotNull(message = "Extract the images embedded in PDF, DOCX and PPTX documents - default false")
+    private boolean extractDocumentImages = false;
+
+    @NotNull(message = "Max size of the compressed images kept from each document, in MB - default 32")
+    private Integer documentImagesMaxSizeMb = 32;
+
+    @NotNull(message = "Extract rows from the images embedded in the documents with the vision model - default false")
+    private boolean documentImageRows = false;
+
+    @NotNull(message = "Images sent in each request to the vision model - default 4")
+    private Integer visionImagesPerRequest = 4;
+
+    @NotNull(message = "Longest side of the images sent to the vision model, in pixels - default 768")
+    private Integer visionImageMaxSide = 768;
+
+    @NotNull(message = "Load CSV, TSV and XLSX files by mapping their columns with a single LLM call - default false")
+    private boolean tabularFastPath = false;
+
+    @NotNull(message = "Parse every table with a single LLM call per chunk when several tables are loaded - default false")
+    private boolean multiTableSingleCall = false;
+
+    @NotNull(message = "Run the ETL stages as a streaming pipeline instead of barriers - default false")
+    private boolean streamingPipeline = false;
+
+    @NotNull(message = "Max documents waiting between streaming pipeline stages - default 8")
+    private Integer streamingQueueCapacity = 8;
 }
@@ -5,6 +5,7 @@ import com.leonjr.ldo.app.enums.DatabaseType;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Null;
 import lombok.Data;
 import lombok.ToString;
@@ -29,6 +30,8 @@ public class DatabaseConfig {
     private String schema;
     @NotBlank(message = "Truncate table before insert is required")
     private boolean truncateTableBeforeInsert;
+    @NotNull(message = "Use the bulk-load path of the database, COPY for POSTGRES and rewritten multi-row batches for MYSQL - default false")
+    private boolean bulkLoad = false;
 
     public String getJdbcUrl() {
         return String.format("jdbc:%s://%s:%d/%s", databaseType.toString().toLowerCase(), host, port, databaseName);
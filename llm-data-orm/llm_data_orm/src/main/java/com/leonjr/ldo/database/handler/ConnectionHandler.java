@@ -3,6 +3,7 @@ package com.leonjr.ldo.database.handler;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import com.leonjr.ldo.app.enums.DatabaseType;
 import com.leonjr.ldo.app.models.DatabaseConfig;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
@@ -26,6 +27,12 @@ final class ConnectionHandler {
         hcPollCfg.addDataSourceProperty("cachePrepStmts", "true");
         hcPollCfg.addDataSourceProperty("prepStmtCacheSize", "250");
         hcPollCfg.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        // let the drivers send each JDBC batch as multi-row INSERT statements
+        if (config.getDatabaseType() == DatabaseType.POSTGRES) {
+            hcPollCfg.addDataSourceProperty("reWriteBatchedInserts", "true");
+        } else if (config.getDatabaseType() == DatabaseType.MYSQL) {
+            hcPollCfg.addDataSourceProperty("rewriteBatchedStatements", "true");
+        }
         hcPollCfg.setMaximumPoolSize(MAX_CONNECTIONS);
         hcPollCfg.setMinimumIdle(MIN_IDLE_CONNECTIONS);
         hcPollCfg.setIdleTimeout(IDLE_TIMEOUT);
@@ -2,6 +2,8 @@ package com.leonjr.ldo.database.handler;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.leonjr.ldo.AppStore;
@@ -9,7 +11,9 @@ import com.leonjr.ldo.app.helper.LoggerHelper;
 import com.leonjr.ldo.app.models.DatabaseConfig;
 import com.leonjr.ldo.database.models.TableDescription;
 import com.leonjr.ldo.database.operations.JSONBatchInserter;
-import com.leonjr.ldo.database.operations.TableSchemaRetriever;
+import com.leonjr.ldo.database.operations.StreamingRowInserter;
+import com.leonjr.ldo.database.operations.TableDependencyResolver;
+import com.leonjr.ldo.database.operations.TableSchemaCache;
 
 public class DBHelper {
 
@@ -32,7 +36,8 @@ public class DBHelper {
     }
 
     /**
-     * Get the table description for the provided table name
+     * Get the table description for the provided table name, from the schema
+     * cache when the table did not change
      * 
      * @param tableName Table name to retrieve information
      * @return TableDescription object containing table information
@@ -40,7 +45,7 @@ public class DBHelper {
     public static TableDescription getTableDescription(String tableName) throws Exception {
         try (Connection connection = ConnectionHandler.getConnection()) {
             var dbType = AppStore.getStartConfigs().getDatabase().getDatabaseType();
-            return TableSchemaRetriever.getTableInfo(connection, tableName, dbType);
+            return TableSchemaCache.getTableInfo(connection, tableName, dbType);
         } catch (SQLException e) {
             LoggerHelper.logger.error("Error while retrieving table description: " + e.getMessage());
             throw e;
@@ -73,6 +78,91 @@ public class DBHelper {
         }
     }
 
+    /**
+     * Insert a range of the rows of a parsed JSON document into the database, in
+     * its own connection and transaction
+     * 
+     * @param tableDescription Table description object
+     * @param json             Parsed JSON document to insert
+     * @param fromIndex        Index of the first row to insert, inclusive
+     * @param toIndex          Index of the last row to insert, exclusive
+     * @return true if insertion was successful, false otherwise
+     */
+    public static boolean insertParsedRowsAtDatabase(TableDescription tableDescription, JsonNode json,
+            int fromIndex, int toIndex) {
+        try (Connection connection = ConnectionHandler.getConnection()) {
+            connection.setAutoCommit(false);
+            return JSONBatchInserter.insertJsonArrayRangeInChunks(connection, tableDescription, json, fromIndex,
+                    toIndex, AppStore.getStartConfigs().getApp().getMaxDBInsertionChunkSize());
+        } catch (SQLException e) {
+            LoggerHelper.logger.error("Error while inserting rows " + fromIndex + "-" + toIndex + ": "
+                    + e.getMessage());
+            return false;
+        } catch (Exception e) {
+            LoggerHelper.logger.error("Something went wrong: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Open a streaming inserter that writes rows into the table as they are parsed
+     * 
+     * @param tableDescription Table description object
+     * @param commitListener   Receives the chunks committed by each transaction,
+     *                         may be null
+     * @return the inserter, which borrows a pooled connection only to insert and
+     *         commit each transaction
+     */
+    public static StreamingRowInserter openStreamingInserter(TableDescription tableDescription,
+            StreamingRowInserter.CommitListener commitListener) {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        return new StreamingRowInserter(ConnectionHandler::getConnection, tableDescription,
+                appConfig.getMaxDBInsertionChunkSize(), appConfig.getDbCommitBatchSize(), commitListener);
+    }
+
+    /**
+     * Truncate the provided table
+     * 
+     * @param tableName Table name to truncate
+     * @throws SQLException if the table cannot be truncated
+     */
+    public static void truncateTable(String tableName) throws SQLException {
+        try (Connection connection = ConnectionHandler.getConnection()) {
+            LoggerHelper.logger.info("Truncating table " + tableName + "...");
+            JSONBatchInserter.truncateTableBeforeInsert(connection, tableName);
+        }
+    }
+
+    /**
+     * Truncate the provided tables together, so foreign keys between them do not
+     * block the truncation
+     * 
+     * @param tableNames Table names to truncate
+     * @throws SQLException if the tables cannot be truncated
+     */
+    public static void truncateTables(List<String> tableNames) throws SQLException {
+        try (Connection connection = ConnectionHandler.getConnection()) {
+            LoggerHelper.logger.info("Truncating tables " + tableNames + "...");
+            var dbType = AppStore.getStartConfigs().getDatabase().getDatabaseType();
+            JSONBatchInserter.truncateTablesBeforeInsert(connection, tableNames, dbType);
+        }
+    }
+
+    /**
+     * Get the load order of the provided tables from their foreign keys
+     * 
+     * @param tableNames Table names to sort
+     * @return the tables in load order, each one mapped to the tables it
+     *         references that must be loaded before it
+     * @throws SQLException if the foreign keys cannot be read
+     */
+    public static Map<String, List<String>> getTableLoadOrder(List<String> tableNames) throws SQLException {
+        try (Connection connection = ConnectionHandler.getConnection()) {
+            var dbType = AppStore.getStartConfigs().getDatabase().getDatabaseType();
+            return TableDependencyResolver.sortByForeignKeys(connection, tableNames, dbType);
+        }
+    }
+
     /**
      * Shutdown the database connection
      */
@@ -19,6 +19,8 @@ public class ColumnDescription {
     @NotBlank(message = "Auto increment cannot be blank")
     private String autoIncrement;
     private String defaultValue;
+    // JDBC type from java.sql.Types, used to bind values (not sent to the LLM)
+    private transient int jdbcType;
 
     public String toString() {
         return String.format(
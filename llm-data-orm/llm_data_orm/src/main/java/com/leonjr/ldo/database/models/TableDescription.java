@@ -6,9 +6,11 @@ import com.google.gson.Gson;
 import com.leonjr.ldo.app.helper.JsonHelper;
 
 import jakarta.validation.constraints.NotBlank;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.Getter;
 
 @Data
 @Builder
@@ -17,6 +19,28 @@ public class TableDescription {
     @NotBlank(message = "Table name cannot be blank")
     private String name;
     private List<ColumnDescription> columns;
+    // JSON forms of the description, built once and shared by every validation
+    @Getter(AccessLevel.NONE)
+    private final transient ParsedSchema parsedSchema = new ParsedSchema();
+
+    /**
+     * Lazily built JSON forms of the description. The JSON trees are only read
+     * after they are built, so they can be shared between threads.
+     */
+    private static final class ParsedSchema {
+        private String json;
+        private JsonNode fullJsonSchema;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        clearParsedSchema();
+    }
+
+    public void setColumns(List<ColumnDescription> columns) {
+        this.columns = columns;
+        clearParsedSchema();
+    }
 
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -27,9 +51,29 @@ public class TableDescription {
         return sb.toString();
     }
 
-    public JsonNode getFullJsonSchemaFromToJson() throws Exception{
-        String json = toJson();
-        return JsonHelper.convertJsonStringToJsonNode(json);
+    /**
+     * Get the description as a JSON tree. The tree is parsed once and cached, it
+     * must not be modified by the callers.
+     * 
+     * @return JSON tree of the table description
+     */
+    public JsonNode getFullJsonSchemaFromToJson() throws Exception {
+        synchronized (parsedSchema) {
+            if (parsedSchema.fullJsonSchema == null) {
+                parsedSchema.fullJsonSchema = JsonHelper.convertJsonStringToJsonNode(toJson());
+            }
+            return parsedSchema.fullJsonSchema;
+        }
+    }
+
+    /**
+     * Get the columns of the description as a JSON tree, used by the local
+     * validations.
+     * 
+     * @return JSON array with the columns of the table
+     */
+    public JsonNode getColumnsJsonSchema() throws Exception {
+        return getFullJsonSchemaFromToJson().get("columns");
     }
 
     /**
@@ -71,13 +115,25 @@ public class TableDescription {
     }
 
     /**
-     * Convert the object to JSON string
+     * Convert the object to JSON string. The string is built once and cached.
      * 
      * @return JSON string representation of the object
      */
     public String toJson() {
-        Gson gson = new Gson();
-        return gson.toJson(this);
+        synchronized (parsedSchema) {
+            if (parsedSchema.json == null) {
+                Gson gson = new Gson();
+                parsedSchema.json = gson.toJson(this);
+            }
+            return parsedSchema.json;
+        }
+    }
+
+    private void clearParsedSchema() {
+        synchronized (parsedSchema) {
+            parsedSchema.json = null;
+            parsedSchema.fullJsonSchema = null;
+        }
     }
 
 }
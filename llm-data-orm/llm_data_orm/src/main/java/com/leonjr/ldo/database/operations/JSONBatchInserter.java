@@ -3,17 +3,13 @@ package com.leonjr.ldo.database.operations;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.leonjr.ldo.database.models.TableDescription;
 import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.enums.DatabaseType;
 import com.leonjr.ldo.app.helper.LoggerHelper;
 import com.leonjr.ldo.database.models.ColumnDescription;
 import java.sql.Connection;
-import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.sql.Time;
-import java.sql.Timestamp;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.sql.Statement;
 import java.util.List;
 
 public class JSONBatchInserter {
@@ -27,9 +23,9 @@ public class JSONBatchInserter {
      * <p>
      * The method supports automatic data type mapping from JSON values to
      * appropriate SQL types,
-     * including special handling for ISO 8601 date/time strings. It also supports
-     * truncating the
-     * target table before insertion if configured to do so.
+     * including special handling for ISO 8601 date/time strings, see
+     * {@link RowBinder}. The table is not
+     * truncated here, see {@link #truncateTableBeforeInsert(Connection, String)}.
      * </p>
      * 
      * <p>
@@ -59,75 +55,60 @@ public class JSONBatchInserter {
             TableDescription tableDesc,
             JsonNode jsonArray,
             int chunkSize) throws SQLException, Exception {
+        return insertJsonArrayRangeInChunks(conn, tableDesc, jsonArray, 0, jsonArray.size(), chunkSize);
+    }
+
+    /**
+     * Inserts a range of a JSON array into a database table using batch
+     * processing, within a single transaction. Used to split large documents into
+     * partitions inserted in parallel over different connections.
+     * 
+     * @param conn      the database connection to use for the insertion operation
+     * @param tableDesc the table description containing metadata about the target
+     *                  table structure
+     * @param jsonArray the JSON array containing the data to be inserted
+     * @param fromIndex the index of the first row to insert, inclusive
+     * @param toIndex   the index of the last row to insert, exclusive
+     * @param chunkSize the number of rows to process in each batch before executing
+     *                  the SQL statement
+     * @return true if any rows were successfully inserted, false otherwise
+     * @throws SQLException if a database access error occurs during the insertion
+     *                      process
+     * @throws Exception    if an error occurs during JSON processing or other
+     *                      operations
+     */
+    public static boolean insertJsonArrayRangeInChunks(
+            Connection conn,
+            TableDescription tableDesc,
+            JsonNode jsonArray,
+            int fromIndex,
+            int toIndex,
+            int chunkSize) throws SQLException, Exception {
         boolean anyInserted = false;
-        String tableName = tableDesc.getName();
-        List<ColumnDescription> cols = tableDesc.getColumns();
 
-        if (AppStore.getInstance().getStartupConfiguration().getDatabase().isTruncateTableBeforeInsert()) {
-            truncateTableBeforeInsert(conn, tableName);
+        if (isCopyBulkLoad()) {
+            anyInserted = PostgresCopyLoader.copyJsonArray(conn, tableDesc, jsonArray, fromIndex, toIndex) > 0;
+            if (anyInserted) {
+                conn.commit();
+            } else {
+                conn.rollback();
+            }
+            return anyInserted;
         }
 
-        StringBuilder sql = new StringBuilder("INSERT INTO ")
-                .append(tableName).append(" (");
-        for (int i = 0; i < cols.size(); i++) {
-            sql.append(cols.get(i).getName());
-            if (i < cols.size() - 1)
-                sql.append(", ");
-        }
-        sql.append(") VALUES (");
-        sql.append("?".repeat(Math.max(0, cols.size()))
-                .replaceAll("(.)(?=.)", "$1, "));
-        sql.append(")");
+        String sql = buildInsertSql(tableDesc);
+        RowBinder rowBinder = RowBinder.of(tableDesc);
 
         if (AppStore.getInstance().isDebugAll()) {
-            LoggerHelper.logger.debug("SQL: " + sql.toString());
+            LoggerHelper.logger.debug("SQL: " + sql);
         }
 
-        try (PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
 
             int count = 0;
-            int totalRows = jsonArray.size();
-
-            for (int idx = 0; idx < totalRows; idx++) {
-                JsonNode row = jsonArray.get(idx);
-                for (int c = 0; c < cols.size(); c++) {
-                    String colName = cols.get(c).getName();
-                    String colType = cols.get(c).getType();
-                    JsonNode value = row.get(colName);
-                    if (value == null || value.isNull()) {
-                        ps.setObject(c + 1, null);
-                    } else if (value.isInt()) {
-                        ps.setInt(c + 1, value.intValue());
-                    } else if (value.isLong()) {
-                        ps.setLong(c + 1, value.longValue());
-                    } else if (value.isDouble() || value.isFloat()) {
-                        ps.setDouble(c + 1, value.doubleValue());
-                    } else if (value.isBoolean()) {
-                        ps.setBoolean(c + 1, value.booleanValue());
-                    } else if (value.isTextual() && isIso8601(value.asText())) {
-                        OffsetDateTime odt = OffsetDateTime.parse(value.asText());
-                        if (colType.equals("DATE")) {
-                            ps.setDate(c + 1, Date.valueOf(odt.toLocalDate()));
-                        } else if (colType.equals("TIME")) {
-                            ps.setTime(c + 1, Time.valueOf(odt.toLocalTime().withNano(0)));
-                        } else if (colType.equals("TIMESTAMP")) {
-                            ps.setTimestamp(c + 1, Timestamp.from(odt.toInstant()));
-                        } else {
-                            ps.setString(c + 1, value.asText());
-                        }
-                    } else if (value.isTextual()) {
-                        ps.setString(c + 1, value.asText());
-                    } else if (value.isBinary()) {
-                        ps.setBytes(c + 1, value.binaryValue());
-                    } else if (value.isArray() || value.isObject()) {
-                        ps.setObject(c + 1, value.toString());
-                    } else if (value.isBigInteger() || value.isBigDecimal()) {
-                        ps.setBigDecimal(c + 1, value.decimalValue());
-                    } else {
-                        ps.setString(c + 1, value.asText());
-                    }
-                }
 
+            for (int idx = fromIndex; idx < toIndex; idx++) {
+                rowBinder.bind(ps, jsonArray.get(idx));
                 ps.addBatch();
                 count++;
                 if (count % chunkSize == 0) {
@@ -149,23 +130,37 @@ public class JSONBatchInserter {
     }
 
     /**
-     * Checks if the given text string represents a valid ISO 8601 date-time format.
+     * Checks if the rows should be loaded with the PostgreSQL COPY command. MySQL
+     * bulk loads keep the batch path, which the driver rewrites into multi-row
+     * INSERT statements.
      * 
-     * This method attempts to parse the input string using the ISO_OFFSET_DATE_TIME
-     * formatter, which expects the format: yyyy-MM-dd'T'HH:mm:ss[.SSS]XXX
-     * (e.g., "2023-12-25T14:30:00+02:00").
+     * @return true if bulk load is enabled and the database is PostgreSQL
+     */
+    static boolean isCopyBulkLoad() {
+        var databaseConfig = AppStore.getStartConfigs().getDatabase();
+        return databaseConfig.isBulkLoad() && databaseConfig.getDatabaseType() == DatabaseType.POSTGRES;
+    }
+
+    /**
+     * Builds the parameterized INSERT statement for every column of the table.
      * 
-     * @param text the string to be validated as ISO 8601 date-time format
-     * @return true if the text is a valid ISO 8601 date-time string, false
-     *         otherwise
+     * @param tableDesc the table description containing the target columns
+     * @return the INSERT statement with one placeholder per column
      */
-    private static boolean isIso8601(String text) {
-        try {
-            OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-            return true;
-        } catch (DateTimeParseException e) {
-            return false;
+    static String buildInsertSql(TableDescription tableDesc) {
+        List<ColumnDescription> cols = tableDesc.getColumns();
+        StringBuilder sql = new StringBuilder("INSERT INTO ")
+                .append(tableDesc.getName()).append(" (");
+        for (int i = 0; i < cols.size(); i++) {
+            sql.append(cols.get(i).getName());
+            if (i < cols.size() - 1)
+                sql.append(", ");
         }
+        sql.append(") VALUES (");
+        sql.append("?".repeat(Math.max(0, cols.size()))
+                .replaceAll("(.)(?=.)", "$1, "));
+        sql.append(")");
+        return sql.toString();
     }
 
     /**
@@ -181,10 +176,40 @@ public class JSONBatchInserter {
      * @throws SQLException if a database access error occurs or the table doesn't
      *                      exist
      */
-    private static boolean truncateTableBeforeInsert(Connection conn, String tableName) throws SQLException {
+    public static boolean truncateTableBeforeInsert(Connection conn, String tableName) throws SQLException {
         String sql = "TRUNCATE TABLE " + tableName;
         try (PreparedStatement ps = conn.prepareStatement(sql)) {
             return ps.executeUpdate() > 0;
         }
     }
+
+    /**
+     * Truncates several tables that may reference each other. PostgreSQL truncates
+     * them in a single statement. MySQL truncates them one by one with the foreign
+     * key checks disabled for the session, and enables the checks again before the
+     * connection is given back.
+     * 
+     * @param conn       the database connection to use for the truncate operation
+     * @param tableNames the names of the tables to truncate
+     * @param dbType     the database type
+     * @throws SQLException if a database access error occurs or a table doesn't
+     *                      exist
+     */
+    public static void truncateTablesBeforeInsert(Connection conn, List<String> tableNames, DatabaseType dbType)
+            throws SQLException {
+        if (dbType == DatabaseType.POSTGRES) {
+            truncateTableBeforeInsert(conn, String.join(", ", tableNames));
+            return;
+        }
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("SET FOREIGN_KEY_CHECKS = 0");
+            try {
+                for (String tableName : tableNames) {
+                    statement.execute("TRUNCATE TABLE " + tableName);
+                }
+            } finally {
+                statement.execute("SET FOREIGN_KEY_CHECKS = 1");
+            }
+        }
+    }
 }
\ No newline at end of file
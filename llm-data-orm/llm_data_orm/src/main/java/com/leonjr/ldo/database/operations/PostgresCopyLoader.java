@@ -0,0 +1,168 @@
+package com.leonjr.ldo.database.operations;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+
+/**
+ * Bulk-loads JSON rows into PostgreSQL with {@code COPY ... FROM STDIN}.
+ *
+ * The rows are encoded as CSV and streamed to the server in fixed-size buffers,
+ * so a single round trip loads the whole array and the encoded text is never
+ * fully materialized. Values follow the same mapping used by
+ * {@link JSONBatchInserter}: ISO 8601 date-times are converted to the column
+ * type and objects and arrays are written as JSON text.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class PostgresCopyLoader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private PostgresCopyLoader() {
+    }
+
+    /**
+     * Copies a JSON array of rows into the table. The copy runs in the current
+     * transaction of the connection, the caller is responsible for committing it.
+     *
+     * @param conn      a connection to a PostgreSQL database
+     * @param tableDesc the table description containing the target columns
+     * @param rows      the JSON array of rows keyed by column name
+     * @return the number of rows copied
+     * @throws SQLException if the connection is not a PostgreSQL connection or
+     *                      the server rejects the data
+     */
+    public static long copyJsonArray(Connection conn, TableDescription tableDesc, JsonNode rows)
+            throws SQLException {
+        return copyJsonArray(conn, tableDesc, rows, 0, rows == null ? 0 : rows.size());
+    }
+
+    /**
+     * Copies a range of a JSON array of rows into the table. The copy runs in the
+     * current transaction of the connection, the caller is responsible for
+     * committing it.
+     *
+     * @param conn      a connection to a PostgreSQL database
+     * @param tableDesc the table description containing the target columns
+     * @param rows      the JSON array of rows keyed by column name
+     * @param fromIndex the index of the first row to copy, inclusive
+     * @param toIndex   the index of the last row to copy, exclusive
+     * @return the number of rows copied
+     * @throws SQLException if the connection is not a PostgreSQL connection or
+     *                      the server rejects the data
+     */
+    public static long copyJsonArray(Connection conn, TableDescription tableDesc, JsonNode rows, int fromIndex,
+            int toIndex) throws SQLException {
+        if (rows == null || fromIndex >= toIndex) {
+            return 0;
+        }
+        List<ColumnDescription> cols = tableDesc.getColumns();
+        int[] sqlTypes = cols.stream().mapToInt(RowBinder::sqlType).toArray();
+        CopyIn copyIn = conn.unwrap(PGConnection.class).getCopyAPI().copyIn(buildCopySql(tableDesc));
+        try {
+            StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+            for (int idx = fromIndex; idx < toIndex; idx++) {
+                appendRow(buffer, cols, sqlTypes, rows.get(idx));
+                if (buffer.length() >= BUFFER_SIZE) {
+                    write(copyIn, buffer);
+                }
+            }
+            write(copyIn, buffer);
+            return copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+    }
+
+    private static String buildCopySql(TableDescription tableDesc) {
+        StringBuilder sql = new StringBuilder("COPY ").append(tableDesc.getName()).append(" (");
+        List<ColumnDescription> cols = tableDesc.getColumns();
+        for (int i = 0; i < cols.size(); i++) {
+            sql.append(cols.get(i).getName());
+            if (i < cols.size() - 1)
+                sql.append(", ");
+        }
+        return sql.append(") FROM STDIN WITH (FORMAT csv)").toString();
+    }
+
+    private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        if (buffer.length() == 0) {
+            return;
+        }
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    static void appendRow(StringBuilder buffer, List<ColumnDescription> cols, int[] sqlTypes, JsonNode row)
+            throws SQLException {
+        for (int c = 0; c < cols.size(); c++) {
+            if (c > 0) {
+                buffer.append(',');
+            }
+            JsonNode value = row.get(cols.get(c).getName());
+            if (value == null || value.isNull()) {
+                // an unquoted empty field is NULL in the CSV format
+                continue;
+            }
+            if (value.isNumber() || value.isBoolean()) {
+                buffer.append(value.asText());
+            } else if (value.isTextual()) {
+                appendQuoted(buffer, textValue(sqlTypes[c], value.asText()));
+            } else if (value.isBinary()) {
+                try {
+                    buffer.append("\\x").append(HexFormat.of().formatHex(value.binaryValue()));
+                } catch (Exception e) {
+                    throw new SQLException("Invalid binary value for column " + cols.get(c).getName(), e);
+                }
+            } else {
+                appendQuoted(buffer, value.toString());
+            }
+        }
+        buffer.append('\n');
+    }
+
+    private static String textValue(int sqlType, String text) {
+        if (!RowBinder.isTemporal(sqlType)) {
+            return text;
+        }
+        OffsetDateTime odt = RowBinder.parseIsoOffsetDateTime(text);
+        if (odt == null) {
+            return text;
+        }
+        return switch (sqlType) {
+            case Types.DATE -> odt.toLocalDate().toString();
+            case Types.TIME, Types.TIME_WITH_TIMEZONE -> Time.valueOf(odt.toLocalTime().withNano(0)).toString();
+            default -> Timestamp.from(odt.toInstant()).toString();
+        };
+    }
+
+    static void appendQuoted(StringBuilder buffer, String text) {
+        buffer.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '"') {
+                buffer.append('"');
+            }
+            buffer.append(ch);
+        }
+        buffer.append('"');
+    }
+}
@@ -0,0 +1,220 @@
+package com.leonjr.ldo.database.operations;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+
+/**
+ * Binds JSON rows to the parameters of an INSERT statement.
+ *
+ * The binder is compiled once per table: each column gets a setter chosen from
+ * its JDBC type, so binding a row is a single pass over an array of setters
+ * instead of a chain of type checks and string comparisons per cell. Only
+ * temporal columns look for ISO 8601 date-times, and the text shape is checked
+ * before parsing, so plain text never goes through a thrown exception.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+final class RowBinder {
+
+    /**
+     * Sets the value of a single column.
+     */
+    @FunctionalInterface
+    private interface ColumnSetter {
+        void set(PreparedStatement ps, int index, JsonNode value) throws Exception;
+    }
+
+    private static final Map<TableDescription, RowBinder> binders = new ConcurrentHashMap<>();
+
+    private final String[] names;
+    private final int[] sqlTypes;
+    private final ColumnSetter[] setters;
+
+    private RowBinder(List<ColumnDescription> cols) {
+        names = new String[cols.size()];
+        sqlTypes = new int[cols.size()];
+        setters = new ColumnSetter[cols.size()];
+        for (int c = 0; c < cols.size(); c++) {
+            names[c] = cols.get(c).getName();
+            sqlTypes[c] = sqlType(cols.get(c));
+            setters[c] = compileSetter(sqlTypes[c]);
+        }
+    }
+
+    /**
+     * Returns the binder of a table, compiling it on the first call.
+     *
+     * @param tableDesc the table description containing the target columns
+     * @return the binder for the columns of the table, in the INSERT order
+     */
+    static RowBinder of(TableDescription tableDesc) {
+        return binders.computeIfAbsent(tableDesc, table -> new RowBinder(table.getColumns()));
+    }
+
+    /**
+     * Binds the values of a JSON row to the parameters of the INSERT statement.
+     *
+     * @param ps  the statement built by
+     *            {@link JSONBatchInserter#buildInsertSql(TableDescription)}
+     * @param row the JSON object with the row values keyed by column name
+     * @throws Exception if a value cannot be bound to its parameter
+     */
+    void bind(PreparedStatement ps, JsonNode row) throws Exception {
+        for (int c = 0; c < setters.length; c++) {
+            JsonNode value = row.get(names[c]);
+            if (value == null || value.isNull()) {
+                if (sqlTypes[c] == Types.OTHER) {
+                    ps.setObject(c + 1, null);
+                } else {
+                    ps.setNull(c + 1, sqlTypes[c]);
+                }
+            } else {
+                setters[c].set(ps, c + 1, value);
+            }
+        }
+    }
+
+    /**
+     * Parses an ISO 8601 date-time with offset (e.g. "2023-12-25T14:30:00+02:00")
+     * without using exceptions for the common case of a text that is not a
+     * date-time: the shape of the text is checked before parsing.
+     *
+     * @param text the text to parse
+     * @return the parsed date-time, or null if the text is not an ISO 8601
+     *         date-time with offset
+     */
+    static OffsetDateTime parseIsoOffsetDateTime(String text) {
+        if (!hasIsoOffsetDateTimeShape(text)) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            // right shape but invalid fields, such as month 13
+            return null;
+        }
+    }
+
+    /**
+     * Checks if a column type is a date, time or timestamp type.
+     *
+     * @param sqlType the JDBC type of the column
+     * @return true if ISO 8601 values should be converted for the column
+     */
+    static boolean isTemporal(int sqlType) {
+        return sqlType == Types.DATE || sqlType == Types.TIME || sqlType == Types.TIME_WITH_TIMEZONE
+                || sqlType == Types.TIMESTAMP || sqlType == Types.TIMESTAMP_WITH_TIMEZONE;
+    }
+
+    /**
+     * Resolves the JDBC type of a column. Descriptions without the JDBC type,
+     * such as the ones cached by older versions, fall back to the type name.
+     *
+     * @param column the column description
+     * @return the JDBC type of the column, {@link Types#OTHER} if unknown
+     */
+    static int sqlType(ColumnDescription column) {
+        if (column.getJdbcType() != 0) {
+            return column.getJdbcType();
+        }
+        String typeName = column.getType() == null ? "" : column.getType().toUpperCase();
+        return switch (typeName) {
+            case "DATE" -> Types.DATE;
+            case "TIME" -> Types.TIME;
+            case "TIMESTAMP", "DATETIME" -> Types.TIMESTAMP;
+            default -> Types.OTHER;
+        };
+    }
+
+    private static ColumnSetter compileSetter(int sqlType) {
+        return switch (sqlType) {
+            case Types.DATE -> temporalSetter((ps, index, odt) -> ps.setDate(index, Date.valueOf(odt.toLocalDate())));
+            case Types.TIME, Types.TIME_WITH_TIMEZONE -> temporalSetter(
+                    (ps, index, odt) -> ps.setTime(index, Time.valueOf(odt.toLocalTime().withNano(0))));
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> temporalSetter(
+                    (ps, index, odt) -> ps.setTimestamp(index, Timestamp.from(odt.toInstant())));
+            default -> RowBinder::setByJsonType;
+        };
+    }
+
+    @FunctionalInterface
+    private interface TemporalSetter {
+        void set(PreparedStatement ps, int index, OffsetDateTime value) throws Exception;
+    }
+
+    private static ColumnSetter temporalSetter(TemporalSetter temporalSetter) {
+        return (ps, index, value) -> {
+            if (value.isTextual()) {
+                OffsetDateTime odt = parseIsoOffsetDateTime(value.asText());
+                if (odt != null) {
+                    temporalSetter.set(ps, index, odt);
+                    return;
+                }
+            }
+            setByJsonType(ps, index, value);
+        };
+    }
+
+    private static void setByJsonType(PreparedStatement ps, int index, JsonNode value) throws Exception {
+        switch (value.getNodeType()) {
+            case NUMBER -> {
+                switch (value.numberType()) {
+                    case INT -> ps.setInt(index, value.intValue());
+                    case LONG -> ps.setLong(index, value.longValue());
+                    case FLOAT, DOUBLE -> ps.setDouble(index, value.doubleValue());
+                    default -> ps.setBigDecimal(index, value.decimalValue());
+                }
+            }
+            case BOOLEAN -> ps.setBoolean(index, value.booleanValue());
+            case STRING -> ps.setString(index, value.textValue());
+            case BINARY -> ps.setBytes(index, value.binaryValue());
+            case ARRAY, OBJECT -> ps.setObject(index, value.toString());
+            default -> ps.setString(index, value.asText());
+        }
+    }
+
+    private static boolean hasIsoOffsetDateTimeShape(String text) {
+        // yyyy-MM-ddTHH:mm is the shortest prefix, followed by the optional seconds and the offset
+        if (text == null || text.length() < 17 || text.length() > 40) {
+            return false;
+        }
+        if (!isDigits(text, 0, 4) || text.charAt(4) != '-' || !isDigits(text, 5, 7) || text.charAt(7) != '-'
+                || !isDigits(text, 8, 10) || text.charAt(10) != 'T' || !isDigits(text, 11, 13)
+                || text.charAt(13) != ':' || !isDigits(text, 14, 16)) {
+            return false;
+        }
+        char last = text.charAt(text.length() - 1);
+        if (last == 'Z') {
+            return true;
+        }
+        // +HH:mm or -HH:mm offset
+        int offsetStart = text.length() - 6;
+        char sign = text.charAt(offsetStart);
+        return offsetStart >= 16 && (sign == '+' || sign == '-') && isDigits(text, offsetStart + 1, offsetStart + 3)
+                && text.charAt(offsetStart + 3) == ':' && isDigits(text, offsetStart + 4, text.length());
+    }
+
+    private static boolean isDigits(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char ch = text.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
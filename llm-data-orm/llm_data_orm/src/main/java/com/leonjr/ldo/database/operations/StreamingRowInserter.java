@@ -0,0 +1,195 @@
+package com.leonjr.ldo.database.operations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.database.models.TableDescription;
+
+/**
+ * Inserts rows into a table as they arrive, instead of waiting for the whole
+ * document.
+ *
+ * Rows are added chunk by chunk and buffered until {@code commitSize} rows are
+ * pending at a chunk boundary. The inserter then borrows a connection from the
+ * pool, sends the buffered rows with {@code executeBatch} every
+ * {@code batchSize} rows, commits and gives the connection back. So no
+ * connection or transaction is held while the LLM parses the next chunks, and
+ * the rows of a document never have to be held in memory at once. A commit
+ * always contains whole chunks, and the {@link CommitListener} is told which
+ * chunks were committed. With the PostgreSQL bulk load each chunk is sent with
+ * a single COPY instead of batches.
+ *
+ * An inserter is not thread safe: each document uses its own inserter from a
+ * single thread.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class StreamingRowInserter implements AutoCloseable {
+
+    /**
+     * Receives the chunks whose rows were committed.
+     */
+    @FunctionalInterface
+    public interface CommitListener {
+        /**
+         * Called after each commit.
+         *
+         * @param chunkKeys the keys of the chunks committed by the transaction
+         */
+        void onCommit(List<String> chunkKeys);
+    }
+
+    /**
+     * Opens the connection of each commit, such as a pooled connection.
+     */
+    @FunctionalInterface
+    public interface ConnectionSource {
+        /**
+         * @return a connection, closed by the inserter after the commit
+         * @throws SQLException if no connection can be opened
+         */
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionSource connectionSource;
+    private final String sql;
+    private final TableDescription tableDesc;
+    private final RowBinder rowBinder;
+    private final boolean copyBulkLoad;
+    private final int batchSize;
+    private final int commitSize;
+    private final CommitListener commitListener;
+    private final List<String> uncommittedChunks = new ArrayList<>();
+    private final List<JsonNode> uncommittedChunkRows = new ArrayList<>();
+    private int uncommittedRows;
+    private int insertedRows;
+    private boolean finished;
+
+    /**
+     * Creates an inserter. No connection is opened until the first commit.
+     *
+     * @param connectionSource opens the connection of each commit
+     * @param tableDesc        the description of the target table
+     * @param batchSize        the number of rows sent in each executeBatch
+     * @param commitSize       the minimum number of rows of each transaction
+     * @param commitListener   receives the chunks committed, may be null
+     */
+    public StreamingRowInserter(ConnectionSource connectionSource, TableDescription tableDesc, int batchSize,
+            int commitSize, CommitListener commitListener) {
+        this.connectionSource = connectionSource;
+        this.tableDesc = tableDesc;
+        this.rowBinder = RowBinder.of(tableDesc);
+        this.copyBulkLoad = JSONBatchInserter.isCopyBulkLoad();
+        this.batchSize = Math.max(1, batchSize);
+        this.commitSize = Math.max(1, commitSize);
+        this.commitListener = commitListener;
+        this.sql = copyBulkLoad ? null : JSONBatchInserter.buildInsertSql(tableDesc);
+        if (sql != null && AppStore.getInstance().isDebugAll()) {
+            LoggerHelper.logger.debug("SQL: " + sql);
+        }
+    }
+
+    /**
+     * Adds the rows of a chunk, inserting and committing the buffered rows when
+     * the commit size is reached.
+     *
+     * @param chunkKey the key of the chunk, reported to the commit listener
+     * @param rows     the JSON array of rows parsed from the chunk
+     * @throws Exception if a row cannot be bound or the database rejects the
+     *                   batch, the rows of the transaction are rolled back
+     */
+    public void addChunk(String chunkKey, JsonNode rows) throws Exception {
+        uncommittedChunks.add(chunkKey);
+        if (rows != null && !rows.isEmpty()) {
+            uncommittedChunkRows.add(rows);
+            uncommittedRows += rows.size();
+        }
+        if (uncommittedRows >= commitSize) {
+            commit();
+        }
+    }
+
+    /**
+     * Inserts and commits the remaining rows.
+     *
+     * @return the number of rows inserted by this inserter
+     * @throws Exception if a row cannot be bound or the database rejects the
+     *                   last batch
+     */
+    public int finish() throws Exception {
+        commit();
+        finished = true;
+        return insertedRows;
+    }
+
+    /**
+     * Drops the rows not committed yet, unless {@link #finish()} was called.
+     */
+    @Override
+    public void close() {
+        if (!finished && uncommittedRows > 0) {
+            LoggerHelper.logger.warn("Dropping " + uncommittedRows + " uncommitted rows");
+        }
+        uncommittedChunks.clear();
+        uncommittedChunkRows.clear();
+        uncommittedRows = 0;
+    }
+
+    private void commit() throws Exception {
+        if (uncommittedChunks.isEmpty()) {
+            return;
+        }
+        if (uncommittedRows > 0) {
+            try (Connection conn = connectionSource.open()) {
+                conn.setAutoCommit(false);
+                try {
+                    insert(conn);
+                    conn.commit();
+                } catch (Exception e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        }
+        insertedRows += uncommittedRows;
+        if (commitListener != null) {
+            commitListener.onCommit(List.copyOf(uncommittedChunks));
+        }
+        uncommittedChunks.clear();
+        uncommittedChunkRows.clear();
+        uncommittedRows = 0;
+    }
+
+    private void insert(Connection conn) throws Exception {
+        if (copyBulkLoad) {
+            // each chunk is sent in a single COPY, there is no batch to flush
+            for (JsonNode rows : uncommittedChunkRows) {
+                PostgresCopyLoader.copyJsonArray(conn, tableDesc, rows);
+            }
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int pendingBatchRows = 0;
+            for (JsonNode rows : uncommittedChunkRows) {
+                for (JsonNode row : rows) {
+                    rowBinder.bind(ps, row);
+                    ps.addBatch();
+                    if (++pendingBatchRows >= batchSize) {
+                        ps.executeBatch();
+                        pendingBatchRows = 0;
+                    }
+                }
+            }
+            if (pendingBatchRows > 0) {
+                ps.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.leonjr.ldo.database.operations;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.leonjr.ldo.app.enums.DatabaseType;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+
+/**
+ * Orders tables by their foreign keys, so the referenced tables are loaded
+ * before the tables that reference them.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TableDependencyResolver {
+
+    private TableDependencyResolver() {
+    }
+
+    /**
+     * Sorts the tables by their foreign keys. Only the references between the
+     * given tables are considered. Self references are ignored, and the tables of
+     * a reference cycle keep the given order.
+     *
+     * @param conn       Connection object
+     * @param tableNames the tables to sort
+     * @param dbType     Database type (e.g. POSTGRES, MYSQL)
+     * @return the tables in load order, each one mapped to the tables it
+     *         references that must be loaded before it
+     * @throws SQLException If the foreign keys cannot be read
+     */
+    public static Map<String, List<String>> sortByForeignKeys(Connection conn, List<String> tableNames,
+            DatabaseType dbType) throws SQLException {
+        Map<String, Set<String>> references = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            references.put(tableName, getReferencedTables(conn, tableName, tableNames, dbType));
+        }
+
+        // Kahn's algorithm, picking the first ready table to keep the given order
+        Map<String, List<String>> loadOrder = new LinkedHashMap<>();
+        List<String> pending = new ArrayList<>(tableNames);
+        while (!pending.isEmpty()) {
+            String next = pending.stream()
+                    .filter(table -> loadOrder.keySet().containsAll(references.get(table)))
+                    .findFirst()
+                    .orElse(null);
+            if (next == null) {
+                next = pending.get(0);
+                LoggerHelper.logger.warn("Foreign key cycle found between tables " + pending
+                        + ", loading " + next + " without waiting for " + references.get(next));
+            }
+            List<String> parents = new ArrayList<>(references.get(next));
+            parents.retainAll(loadOrder.keySet());
+            loadOrder.put(next, parents);
+            pending.remove(next);
+        }
+        LoggerHelper.logger.info("Table load order: " + loadOrder);
+        return loadOrder;
+    }
+
+    private static Set<String> getReferencedTables(Connection conn, String tableName, List<String> tableNames,
+            DatabaseType dbType) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        String catalog = dbType == DatabaseType.MYSQL ? conn.getCatalog() : null;
+        String schema = dbType == DatabaseType.POSTGRES ? "public" : null;
+        Set<String> referencedTables = new LinkedHashSet<>();
+        try (ResultSet importedKeys = metaData.getImportedKeys(catalog, schema, tableName)) {
+            while (importedKeys.next()) {
+                String referencedTable = importedKeys.getString("PKTABLE_NAME");
+                for (String candidate : tableNames) {
+                    if (candidate.equalsIgnoreCase(referencedTable) && !candidate.equalsIgnoreCase(tableName)) {
+                        referencedTables.add(candidate);
+                    }
+                }
+            }
+        }
+        return referencedTables;
+    }
+}
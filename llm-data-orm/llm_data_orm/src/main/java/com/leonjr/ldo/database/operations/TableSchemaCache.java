@@ -0,0 +1,176 @@
+package com.leonjr.ldo.database.operations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.enums.DatabaseType;
+import com.leonjr.ldo.app.helper.HashHelper;
+import com.leonjr.ldo.app.helper.JsonHelper;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+
+/**
+ * Local cache of table descriptions, kept between runs.
+ *
+ * Each description is stored in {@code workDirectory/schema-cache} with a
+ * fingerprint of the table columns computed by the database from
+ * information_schema. A run only reads the fingerprint, which is a single cheap
+ * query, and goes through {@link TableSchemaRetriever} only when the table
+ * changed or was never described.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TableSchemaCache {
+
+    private static final String CACHE_FOLDER = "schema-cache";
+    private static final String ENTRY_EXTENSION = ".json";
+
+    private static final String POSTGRES_FINGERPRINT_SQL = "SELECT md5(string_agg(concat_ws(':', ordinal_position, "
+            + "column_name, data_type, character_maximum_length, numeric_precision, numeric_scale, is_nullable, "
+            + "column_default, is_identity), ',' ORDER BY ordinal_position)) "
+            + "FROM information_schema.columns WHERE table_schema = 'public' AND table_name = ?";
+    // GROUP_CONCAT is truncated by group_concat_max_len, so the column hashes are summed instead
+    private static final String MYSQL_FINGERPRINT_SQL = "SELECT CONCAT(COUNT(*), '-', SUM(CRC32(CONCAT_WS(':', "
+            + "ordinal_position, column_name, column_type, is_nullable, IFNULL(column_default, '<null>'), extra)))) "
+            + "FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = ?";
+
+    private TableSchemaCache() {
+    }
+
+    /**
+     * Get table information, from the local cache when the table did not change
+     * since it was cached.
+     *
+     * @param conn      Connection object
+     * @param tableName Table name to retrieve information
+     * @param dbType    Database type (e.g. POSTGRES, MYSQL)
+     * @return TableDescription object containing table information
+     * @throws Exception If an error occurs while retrieving the table information
+     */
+    public static TableDescription getTableInfo(Connection conn, String tableName, DatabaseType dbType)
+            throws Exception {
+        if (!AppStore.getStartConfigs().getApp().isSchemaCache()) {
+            return TableSchemaRetriever.getTableInfo(conn, tableName, dbType);
+        }
+        String fingerprint = fingerprint(conn, tableName, dbType);
+        if (fingerprint == null) {
+            return TableSchemaRetriever.getTableInfo(conn, tableName, dbType);
+        }
+        Path entryPath = entryPath(tableName, dbType);
+        TableDescription cached = read(entryPath, fingerprint);
+        if (cached != null) {
+            LoggerHelper.logger.info("Table description of " + tableName + " loaded from schema cache");
+            return cached;
+        }
+        TableDescription tableDescription = TableSchemaRetriever.getTableInfo(conn, tableName, dbType);
+        write(entryPath, fingerprint, tableDescription);
+        return tableDescription;
+    }
+
+    /**
+     * Computes the fingerprint of the table columns.
+     *
+     * @return the fingerprint, or null if the table has no columns or the
+     *         fingerprint cannot be computed
+     */
+    private static String fingerprint(Connection conn, String tableName, DatabaseType dbType) {
+        String sql = dbType == DatabaseType.POSTGRES ? POSTGRES_FINGERPRINT_SQL : MYSQL_FINGERPRINT_SQL;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getString(1) == null) {
+                    return null;
+                }
+                return rs.getString(1);
+            }
+        } catch (SQLException e) {
+            LoggerHelper.logger.warn("Could not compute the schema fingerprint of " + tableName
+                    + ", the schema cache is skipped: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static TableDescription read(Path entryPath, String fingerprint) {
+        if (!Files.exists(entryPath)) {
+            return null;
+        }
+        try {
+            JsonNode entry = JsonHelper.getObjectMapper().readTree(entryPath.toFile());
+            if (!fingerprint.equals(entry.path("fingerprint").asText())) {
+                LoggerHelper.logger.info("Table " + entry.path("name").asText() + " changed, describing it again");
+                return null;
+            }
+            var columns = new ArrayList<ColumnDescription>();
+            for (JsonNode column : entry.path("columns")) {
+                columns.add(ColumnDescription.builder()
+                        .name(column.path("name").asText())
+                        .type(column.path("type").asText())
+                        .size(column.path("size").asInt())
+                        .nullable(column.path("nullable").asBoolean())
+                        .autoIncrement(column.path("autoIncrement").asText(null))
+                        .defaultValue(column.path("defaultValue").asText(null))
+                        .jdbcType(column.path("jdbcType").asInt())
+                        .build());
+            }
+            if (columns.isEmpty()) {
+                return null;
+            }
+            return TableDescription.builder()
+                    .name(entry.path("name").asText())
+                    .columns(columns)
+                    .build();
+        } catch (IOException e) {
+            LoggerHelper.logger.warn("Could not read schema cache entry " + entryPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void write(Path entryPath, String fingerprint, TableDescription tableDescription) {
+        ObjectNode entry = JsonHelper.getObjectMapper().createObjectNode();
+        entry.put("fingerprint", fingerprint);
+        entry.put("name", tableDescription.getName());
+        ArrayNode columns = entry.putArray("columns");
+        for (ColumnDescription column : tableDescription.getColumns()) {
+            ObjectNode node = columns.addObject();
+            node.put("name", column.getName());
+            node.put("type", column.getType());
+            node.put("size", column.getSize());
+            node.put("nullable", column.isNullable());
+            node.put("autoIncrement", column.getAutoIncrement());
+            node.put("defaultValue", column.getDefaultValue());
+            node.put("jdbcType", column.getJdbcType());
+        }
+        try {
+            Files.createDirectories(entryPath.getParent());
+            Path tempPath = Files.createTempFile(entryPath.getParent(), "schema", ".tmp");
+            Files.writeString(tempPath, entry.toString(), StandardCharsets.UTF_8);
+            Files.move(tempPath, entryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LoggerHelper.logger.warn("Could not write schema cache entry " + entryPath + ": " + e.getMessage());
+        }
+    }
+
+    private static Path entryPath(String tableName, DatabaseType dbType) {
+        var databaseConfig = AppStore.getStartConfigs().getDatabase();
+        // the same table name may exist in different databases
+        String key = HashHelper.sha256(dbType.name(), databaseConfig.getHost(),
+                String.valueOf(databaseConfig.getPort()), databaseConfig.getDatabaseName(), tableName);
+        return Paths.get(AppStore.getStartConfigs().getApp().getWorkDirectory(), CACHE_FOLDER,
+                key + ENTRY_EXTENSION);
+    }
+}
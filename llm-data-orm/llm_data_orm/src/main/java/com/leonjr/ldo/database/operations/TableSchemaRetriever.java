@@ -41,6 +41,7 @@ public class TableSchemaRetriever {
             while (columns.next()) {
                 String columnName = columns.getString("COLUMN_NAME");
                 String columnType = columns.getString("TYPE_NAME");
+                int jdbcType = columns.getInt("DATA_TYPE");
                 int columnSize = columns.getInt("COLUMN_SIZE");
                 boolean isNullable = columns.getInt("NULLABLE") == DatabaseMetaData.columnNullable;
                 String isAutoIncrement = columns.getString("IS_AUTOINCREMENT");
@@ -60,6 +61,7 @@ public class TableSchemaRetriever {
                         .nullable(isNullable)
                         .autoIncrement(isAutoIncrement)
                         .defaultValue(defaultValue)
+                        .jdbcType(jdbcType)
                         .build();
 
                 parsedColumns.add(columnDescription);
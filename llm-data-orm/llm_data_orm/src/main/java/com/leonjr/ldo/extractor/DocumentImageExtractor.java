@@ -1,39 +1,54 @@
 package com.leonjr.ldo.extractor;
 
+import org.apache.poi.ooxml.POIXMLDocumentPart;
 import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.xwpf.usermodel.XWPFPictureData;
 
+import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.extractor.models.DocumentImage;
+
 import dev.langchain4j.data.document.Document;
 
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.apache.poi.xslf.usermodel.XSLFPictureData;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.PDXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.StreamSupport;
+import java.util.Set;
 
 import javax.imageio.ImageIO;
 
 /**
  * Utility class for extracting images from various document formats.
  * 
- * This class provides static methods to extract BufferedImage objects from
- * PDF, DOCX, and PPTX files. It supports reading documents from file paths
- * and can automatically determine the extraction method based on file
- * extension.
+ * This class provides static methods to extract the images embedded in PDF,
+ * DOCX, and PPTX files. It supports reading documents from file paths and can
+ * automatically determine the extraction method based on file extension.
+ * 
+ * The images are kept as their compressed bytes, see {@link DocumentImage}, and
+ * the extraction of a document stops once its images reach the given size, so
+ * large scanned documents do not exhaust the memory.
  * 
  * Supported formats:
- * - PDF files (.pdf) - extracts embedded images from PDF pages
+ * - PDF files (.pdf) - extracts embedded images from PDF pages, JPEG images are
+ * kept as they are stored and the other images are encoded as PNG
  * - Microsoft Word documents (.docx) - extracts all pictures from the document
  * - Microsoft PowerPoint presentations (.pptx) - extracts all picture data from
  * slides
@@ -43,64 +58,149 @@ import javax.imageio.ImageIO;
  */
 public class DocumentImageExtractor {
 
-    public static List<BufferedImage> extractImagesFromPDF(String pdfPath) throws IOException {
-        List<BufferedImage> images = new ArrayList<>();
+    public static List<DocumentImage> extractImagesFromPDF(String pdfPath, long maxBytes) throws IOException {
+        List<DocumentImage> images = new ArrayList<>();
+        long totalBytes = 0;
+        // images repeated on every page, such as logos, are stored once in the PDF
+        Set<COSBase> seenImages = Collections.newSetFromMap(new IdentityHashMap<>());
         try (PDDocument document = Loader.loadPDF(new File(pdfPath))) {
+            int pageNumber = 0;
             for (PDPage page : document.getPages()) {
-                Iterable<PDImageXObject> imageObjects = StreamSupport
-                        .stream(page.getResources().getXObjectNames().spliterator(), false)
-                        .map(name -> {
-                            try {
-                                return (PDImageXObject) page.getResources().getXObject(name);
-                            } catch (IOException | ClassCastException e) {
-                                return null;
-                            }
-                        }).filter(obj -> obj != null).toList();
-
-                for (PDImageXObject imageObject : imageObjects) {
-                    images.add(imageObject.getImage());
+                pageNumber++;
+                PDResources resources = page.getResources();
+                if (resources == null) {
+                    continue;
+                }
+                for (COSName name : resources.getXObjectNames()) {
+                    PDXObject xObject;
+                    try {
+                        xObject = resources.getXObject(name);
+                    } catch (IOException e) {
+                        continue;
+                    }
+                    if (!(xObject instanceof PDImageXObject imageObject) || !seenImages.add(xObject.getCOSObject())) {
+                        continue;
+                    }
+                    if (totalBytes + imageObject.getStream().getLength() > maxBytes) {
+                        return capReached(pdfPath, images, maxBytes);
+                    }
+                    DocumentImage image;
+                    try {
+                        image = toDocumentImage(imageObject, images.size(), "page " + pageNumber);
+                    } catch (IOException | RuntimeException e) {
+                        LoggerHelper.logger.warn("Image skipped on page " + pageNumber + " of " + pdfPath + ": "
+                                + e.getMessage());
+                        continue;
+                    }
+                    if (totalBytes + image.getSize() > maxBytes) {
+                        return capReached(pdfPath, images, maxBytes);
+                    }
+                    totalBytes += image.getSize();
+                    images.add(image);
                 }
             }
         }
         return images;
     }
 
-    public static List<BufferedImage> extractImagesFromDocx(String docxPath) throws Exception {
-        List<BufferedImage> images = new ArrayList<>();
+    public static List<DocumentImage> extractImagesFromDocx(String docxPath, long maxBytes) throws Exception {
         try (FileInputStream fis = new FileInputStream(docxPath);
                 XWPFDocument document = new XWPFDocument(OPCPackage.open(fis))) {
+            List<DocumentImage> images = new ArrayList<>();
+            long totalBytes = 0;
             for (XWPFPictureData picture : document.getAllPictures()) {
-                ByteArrayInputStream bis = new ByteArrayInputStream(picture.getData());
-                BufferedImage img = ImageIO.read(bis);
-                images.add(img);
+                byte[] data = picture.getData();
+                totalBytes += data.length;
+                if (totalBytes > maxBytes) {
+                    return capReached(docxPath, images, maxBytes);
+                }
+                images.add(toDocumentImage(picture, data, picture.suggestFileExtension(), images.size()));
             }
+            return images;
         }
-        return images;
     }
 
-    public static List<BufferedImage> extractImagesFromPptx(String pptxPath) throws Exception {
-        List<BufferedImage> images = new ArrayList<>();
+    public static List<DocumentImage> extractImagesFromPptx(String pptxPath, long maxBytes) throws Exception {
         try (FileInputStream fis = new FileInputStream(pptxPath);
                 XMLSlideShow ppt = new XMLSlideShow(OPCPackage.open(fis))) {
+            List<DocumentImage> images = new ArrayList<>();
+            long totalBytes = 0;
             for (XSLFPictureData picture : ppt.getPictureData()) {
-                ByteArrayInputStream bis = new ByteArrayInputStream(picture.getData());
-                BufferedImage img = ImageIO.read(bis);
-                images.add(img);
+                byte[] data = picture.getData();
+                totalBytes += data.length;
+                if (totalBytes > maxBytes) {
+                    return capReached(pptxPath, images, maxBytes);
+                }
+                images.add(toDocumentImage(picture, data, picture.suggestFileExtension(), images.size()));
             }
+            return images;
         }
-        return images;
     }
 
-    public static List<BufferedImage> extractImages(Document document) throws Exception {
+    /**
+     * Extracts the images embedded in a document.
+     * 
+     * @param document the extracted document
+     * @param maxBytes the max compressed size of the images kept from the
+     *                 document, the following images are dropped
+     * @return the images of the document, or null if its format has no embedded
+     *         images
+     * @throws Exception if the document file cannot be read
+     */
+    public static List<DocumentImage> extractImages(Document document, long maxBytes) throws Exception {
         String filePath = document.metadata().getString(Document.ABSOLUTE_DIRECTORY_PATH) + File.separator
                 + document.metadata().getString(Document.FILE_NAME);
         if (filePath.endsWith(".pdf")) {
-            return extractImagesFromPDF(filePath);
+            return extractImagesFromPDF(filePath, maxBytes);
         } else if (filePath.endsWith(".docx")) {
-            return extractImagesFromDocx(filePath);
+            return extractImagesFromDocx(filePath, maxBytes);
         } else if (filePath.endsWith(".pptx")) {
-            return extractImagesFromPptx(filePath);
+            return extractImagesFromPptx(filePath, maxBytes);
         }
         return null;
     }
+
+    private static DocumentImage toDocumentImage(PDImageXObject imageObject, int index, String source)
+            throws IOException {
+        // a JPEG is kept as stored, unless it is CMYK, which ImageIO cannot decode
+        if ("jpg".equals(imageObject.getSuffix()) && imageObject.getColorSpace().getNumberOfComponents() != 4) {
+            try (InputStream jpeg = imageObject.getStream()
+                    .createInputStream(List.of(COSName.DCT_DECODE.getName()))) {
+                return DocumentImage.builder()
+                        .index(index)
+                        .source(source)
+                        .format("jpg")
+                        .mimeType("image/jpeg")
+                        .data(jpeg.readAllBytes())
+                        .build();
+            }
+        }
+        BufferedImage decoded = imageObject.getImage();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(decoded, "png", png);
+        return DocumentImage.builder()
+                .index(index)
+                .source(source)
+                .format("png")
+                .mimeType("image/png")
+                .data(png.toByteArray())
+                .build();
+    }
+
+    private static DocumentImage toDocumentImage(POIXMLDocumentPart picture, byte[] data, String format,
+            int index) {
+        return DocumentImage.builder()
+                .index(index)
+                .source(picture.getPackagePart().getPartName().getName())
+                .format(format)
+                .mimeType(picture.getPackagePart().getContentType())
+                .data(data)
+                .build();
+    }
+
+    private static List<DocumentImage> capReached(String filePath, List<DocumentImage> images, long maxBytes) {
+        LoggerHelper.logger.warn("Images of " + filePath + " reached " + (maxBytes / (1024 * 1024))
+                + " MB, only the first " + images.size() + " images are kept");
+        return images;
+    }
 }
\ No newline at end of file
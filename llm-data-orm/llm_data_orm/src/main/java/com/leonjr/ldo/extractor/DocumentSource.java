@@ -0,0 +1,199 @@
+package com.leonjr.ldo.extractor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.leonjr.ldo.app.helper.LoggerHelper;
+
+import dev.langchain4j.data.document.BlankDocumentException;
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.DocumentParser;
+import dev.langchain4j.data.document.loader.FileSystemDocumentLoader;
+
+/**
+ * Lazy source of the documents of a file or folder.
+ *
+ * The files of a folder are listed while walking the directory tree and parsed
+ * on demand by a fixed number of workers. Only a few documents are parsed ahead
+ * of the consumer, so the memory used by the source does not grow with the
+ * number of files, and a slow consumer slows down the parsing. The documents
+ * are returned in the order of the directory walk. Files that cannot be parsed
+ * are logged and skipped.
+ *
+ * The extraction time and throughput of every file are logged, and the totals
+ * of the source are logged when it is closed.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class DocumentSource implements Iterator<Document>, AutoCloseable {
+
+    // documents parsed ahead of the consumer by each worker
+    private static final int PREFETCH_PER_WORKER = 2;
+
+    private final Stream<Path> walk;
+    private final Iterator<Path> paths;
+    private final DocumentParser parser;
+    private final ExecutorService workers;
+    private final int workersCount, prefetch;
+    private final Deque<Future<Document>> pending = new ArrayDeque<>();
+    private Document next;
+    private final AtomicLong extractedFiles = new AtomicLong(), extractedBytes = new AtomicLong(),
+            extractionNanos = new AtomicLong();
+    private final long openedAt = System.nanoTime();
+
+    private DocumentSource(Stream<Path> walk, Iterator<Path> paths, DocumentParser parser, int workersCount) {
+        this.walk = walk;
+        this.paths = paths;
+        this.parser = parser;
+        this.workers = parser == null ? null : Executors.newFixedThreadPool(Math.max(1, workersCount));
+        this.workersCount = Math.max(1, workersCount);
+        this.prefetch = this.workersCount * PREFETCH_PER_WORKER;
+    }
+
+    /**
+     * Opens the documents of a folder, walking it recursively.
+     *
+     * @param folder       the folder to walk
+     * @param parser       the parser of the files, shared by the workers
+     * @param workersCount the number of files parsed at the same time
+     * @return the source of the documents of the folder
+     * @throws IOException if the folder cannot be walked
+     */
+    public static DocumentSource ofFolder(Path folder, DocumentParser parser, int workersCount) throws IOException {
+        Stream<Path> walk = Files.walk(folder).filter(Files::isRegularFile);
+        return new DocumentSource(walk, walk.iterator(), parser, workersCount);
+    }
+
+    /**
+     * Wraps documents already loaded, such as a single file.
+     *
+     * @param documents the loaded documents
+     * @return the source of the given documents
+     */
+    public static DocumentSource of(List<Document> documents) {
+        var source = new DocumentSource(null, null, null, 1);
+        documents.forEach(document -> source.pending.add(CompletableFuture.completedFuture(document)));
+        return source;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = fetch();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Document next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Document document = next;
+        next = null;
+        return document;
+    }
+
+    /**
+     * Loads a single file, logging its extraction time and throughput.
+     *
+     * @param path   the file to load
+     * @param parser the parser of the file
+     * @return the loaded document
+     */
+    public static Document load(Path path, DocumentParser parser) {
+        return load(path, parser, null);
+    }
+
+    /**
+     * Stops the workers and the directory walk. The documents not consumed yet
+     * are dropped.
+     */
+    @Override
+    public void close() {
+        if (workers != null) {
+            workers.shutdownNow();
+            long wallNanos = System.nanoTime() - openedAt;
+            LoggerHelper.logger.info("Extracted " + extractedFiles.get() + " files, " + extractedBytes.get()
+                    + " bytes, in " + TimeUnit.NANOSECONDS.toMillis(wallNanos) + " ms ("
+                    + kilobytesPerSecond(extractedBytes.get(), wallNanos) + " KB/s, "
+                    + TimeUnit.NANOSECONDS.toMillis(extractionNanos.get()) + " ms of parsing across "
+                    + workersCount + " workers)");
+        }
+        if (walk != null) {
+            walk.close();
+        }
+    }
+
+    private static Document load(Path path, DocumentParser parser, DocumentSource source) {
+        long startNanos = System.nanoTime();
+        Document document = FileSystemDocumentLoader.loadDocument(path, parser);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long bytes = path.toFile().length();
+        LoggerHelper.logger.info("Extracted " + path.getFileName() + " (" + bytes + " bytes) in "
+                + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms, " + kilobytesPerSecond(bytes, elapsedNanos)
+                + " KB/s");
+        if (source != null) {
+            source.extractedFiles.incrementAndGet();
+            source.extractedBytes.addAndGet(bytes);
+            source.extractionNanos.addAndGet(elapsedNanos);
+        }
+        return document;
+    }
+
+    private static long kilobytesPerSecond(long bytes, long nanos) {
+        return nanos <= 0 ? 0 : bytes * 1_000_000_000L / 1024 / nanos;
+    }
+
+    private Document fetch() {
+        while (true) {
+            fill();
+            Future<Document> future = pending.poll();
+            if (future == null) {
+                return null;
+            }
+            try {
+                Document document = future.get();
+                if (document != null) {
+                    return document;
+                }
+            } catch (ExecutionException e) {
+                LoggerHelper.logger.warn("Document skipped, it cannot be loaded: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while loading documents", e);
+            }
+        }
+    }
+
+    private void fill() {
+        while (paths != null && pending.size() < prefetch && paths.hasNext()) {
+            Path path = paths.next();
+            pending.add(workers.submit(() -> load(path)));
+        }
+    }
+
+    private Document load(Path path) {
+        try {
+            return load(path, parser, this);
+        } catch (BlankDocumentException e) {
+            LoggerHelper.logger.info("Document skipped, it has no text: " + path);
+            return null;
+        }
+    }
+}
@@ -3,15 +3,12 @@ package com.leonjr.ldo.extractor;
 import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentParser;
-import dev.langchain4j.data.document.loader.FileSystemDocumentLoader;
-import dev.langchain4j.data.document.parser.apache.tika.ApacheTikaDocumentParser;
-
-import org.apache.tika.parser.AutoDetectParser;
 
 import com.leonjr.ldo.AppStore;
 import com.leonjr.ldo.extractor.utils.DocumentSegmenter;
@@ -19,6 +16,8 @@ import com.leonjr.ldo.extractor.utils.HtmlCleaner;
 import com.leonjr.ldo.extractor.utils.ImageUtils;
 import com.leonjr.ldo.extractor.utils.PageExtractor;
 import com.leonjr.ldo.extractor.utils.TextCleaner;
+import com.leonjr.ldo.extractor.utils.TikaParsers;
+import com.leonjr.ldo.extractor.utils.TokenBudgetSegmenter;
 import com.leonjr.ldo.parsing.llm.AiHelper;
 
 import dev.langchain4j.data.segment.TextSegment;
@@ -51,7 +50,7 @@ public final class DocumentTextExtractor {
      * 
      * @implNote The method performs the following processing steps:
      *           - For directories: Recursively loads all documents using Apache
-     *           Tika parser
+     *           Tika parser, see {@link #openDocuments(String)}
      *           - For images: Converts to base64, generates AI summary, and creates
      *           document
      *           - For PDFs: Extracts specific pages if page selection is enabled
@@ -60,9 +59,13 @@ public final class DocumentTextExtractor {
      */
     public static List<Document> getDocument(String path) throws Exception {
         boolean isFolder = new File(path).isDirectory();
-        DocumentParser parser = new ApacheTikaDocumentParser(AutoDetectParser::new, null, null, null, true);
+        DocumentParser parser = TikaParsers.getDocumentParser();
         if (isFolder) {
-            return FileSystemDocumentLoader.loadDocumentsRecursively(path, parser);
+            List<Document> documents = new ArrayList<>();
+            try (DocumentSource source = openDocuments(path)) {
+                source.forEachRemaining(documents::add);
+            }
+            return documents;
         } else {
             if (ImageUtils.isImage(path)) {
                 var imageAsBase64 = ImageUtils.imageToBase64(path);
@@ -75,7 +78,7 @@ public final class DocumentTextExtractor {
                 path = tempFilePath.getAbsolutePath();
             }
             String fileType = path.substring(path.lastIndexOf('.') + 1).toLowerCase();
-            var rawDoc = FileSystemDocumentLoader.loadDocument(path, parser);
+            var rawDoc = DocumentSource.load(Paths.get(path), parser);
             String cleanedText = rawDoc.text();
             if (fileType.equals("html") || fileType.equals("htm")) {
                 System.out.println("cleanedText: " + cleanedText);
@@ -90,6 +93,25 @@ public final class DocumentTextExtractor {
         }
     }
 
+    /**
+     * Opens the documents of a file or folder lazily. The files of a folder are
+     * parsed on demand by {@code documentLoaderThreads} workers while the
+     * documents are consumed, instead of being all loaded before the first one is
+     * returned. A single file is loaded as in {@link #getDocument(String)}.
+     * 
+     * @param path The file path or directory path to process
+     * @return the source of the documents, to be closed by the caller
+     * @throws Exception If the folder cannot be walked or the file cannot be
+     *                   loaded
+     */
+    public static DocumentSource openDocuments(String path) throws Exception {
+        if (!new File(path).isDirectory()) {
+            return DocumentSource.of(getDocument(path));
+        }
+        return DocumentSource.ofFolder(Paths.get(path), TikaParsers.getDocumentParser(),
+                AppStore.getStartConfigs().getApp().getDocumentLoaderThreads());
+    }
+
     /**
      * Extracts text segments from a document using the DocumentSegmenter.
      * 
@@ -105,4 +127,20 @@ public final class DocumentTextExtractor {
         return DocumentSegmenter.getSegments(document);
     }
 
+    /**
+     * Extracts text segments from a document, packing them up to the token
+     * budget of a chunk when token budgeted segmentation is enabled.
+     * 
+     * @param document      the Document object to be segmented into text portions
+     * @param promptContext the text sent with every chunk besides the chunk itself
+     * @return a List of TextSegment objects representing the segmented portions of the document
+     * @throws Exception if an error occurs during the document segmentation process
+     */
+    public static List<TextSegment> getSegments(Document document, String promptContext) throws Exception {
+        if (AppStore.getStartConfigs().getApp().isTokenBudgetSegmentation()) {
+            return TokenBudgetSegmenter.getSegments(document, promptContext);
+        }
+        return DocumentSegmenter.getSegments(document);
+    }
+
 }
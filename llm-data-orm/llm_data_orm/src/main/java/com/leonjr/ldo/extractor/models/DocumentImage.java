@@ -0,0 +1,69 @@
+package com.leonjr.ldo.extractor.models;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import com.leonjr.ldo.app.helper.HashHelper;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * Image embedded in a document, kept as its compressed bytes.
+ *
+ * A decoded image takes width x height x 4 bytes, many times its compressed
+ * size, so the image is only decoded when {@link #decode()} is called and the
+ * decoded image is not kept.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString(exclude = "data")
+public class DocumentImage {
+
+    // position of the image in the document
+    private final int index;
+    // where the image was found, such as "page 3"
+    private final String source;
+    // file extension of the compressed bytes, such as "png" or "jpg"
+    private final String format;
+    private final String mimeType;
+    // size in pixels, 0 until the image is decoded by ImageUtils#downscale
+    private final int width, height;
+    @NonNull
+    private final byte[] data;
+
+    /**
+     * @return the size of the compressed image, in bytes
+     */
+    public int getSize() {
+        return data.length;
+    }
+
+    /**
+     * @return the SHA-256 hash of the compressed image, identical images embedded
+     *         several times have the same hash
+     */
+    public String getHash() {
+        return HashHelper.sha256(data);
+    }
+
+    /**
+     * Decodes the image. The decoded image is not cached, callers keep it only
+     * while they use it.
+     *
+     * @return the decoded image, or null if its format cannot be decoded by
+     *         ImageIO
+     * @throws IOException if the image bytes are corrupted
+     */
+    public BufferedImage decode() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(data));
+    }
+}
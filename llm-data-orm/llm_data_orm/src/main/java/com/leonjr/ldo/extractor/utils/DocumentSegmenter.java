@@ -64,6 +64,25 @@ public class DocumentSegmenter {
         return removeEmptyOrNullSegments(segments);
     }
 
+    /**
+     * Copies the segments adding an entry to their metadata. The original
+     * segments are not changed, so they can be shared between tables.
+     *
+     * @param segments the segments of a document
+     * @param key      the metadata key
+     * @param value    the metadata value, the segments are returned as they are
+     *                 when it is null
+     * @return the copied segments with the new metadata entry
+     */
+    public static List<TextSegment> withMetadata(List<TextSegment> segments, String key, String value) {
+        if (value == null) {
+            return segments;
+        }
+        return segments.stream()
+                .map(segment -> TextSegment.from(segment.text(), segment.metadata().copy().put(key, value)))
+                .toList();
+    }
+
     /**
      * Removes empty or null segments from the list of segments.
      *
@@ -2,10 +2,20 @@ package com.leonjr.ldo.extractor.utils;
 
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.Metadata;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Base64;
 
+import javax.imageio.ImageIO;
+
+import com.leonjr.ldo.extractor.models.DocumentImage;
+
 public class ImageUtils {
 
     public static final String[] imageExtensions = new String[] { "jpg", "jpeg", "png", "gif", "webp" };
@@ -99,4 +109,54 @@ public class ImageUtils {
         return Base64.getEncoder().encodeToString(imageBytes);
     }
 
+    /**
+     * Downscales an embedded image so its longest side fits the detail budget of
+     * the vision model. Images already within the budget keep their bytes;
+     * larger images are scaled down and encoded as JPEG, or as PNG when they
+     * have transparency. The returned image carries its size in pixels.
+     * 
+     * @param image   the embedded image
+     * @param maxSide the max width and height of the image, in pixels
+     * @param minSide images smaller than this in both dimensions, such as icons
+     *                and bullets, are dropped
+     * @return the image within the budget, or null if it cannot be decoded or is
+     *         smaller than {@code minSide} in both dimensions
+     * @throws IOException if the image bytes are corrupted
+     */
+    public static DocumentImage downscale(DocumentImage image, int maxSide, int minSide) throws IOException {
+        BufferedImage decoded = image.decode();
+        if (decoded == null || (decoded.getWidth() < minSide && decoded.getHeight() < minSide)) {
+            return null;
+        }
+        int longestSide = Math.max(decoded.getWidth(), decoded.getHeight());
+        if (longestSide <= maxSide && ("jpg".equals(image.getFormat()) || "png".equals(image.getFormat()))) {
+            return image.toBuilder().width(decoded.getWidth()).height(decoded.getHeight()).build();
+        }
+        double scale = Math.min(1d, (double) maxSide / longestSide);
+        int width = Math.max(1, (int) Math.round(decoded.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(decoded.getHeight() * scale));
+        boolean alpha = decoded.getColorModel().hasAlpha();
+        BufferedImage scaled = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(decoded, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        String format = alpha ? "png" : "jpg";
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageIO.write(scaled, format, encoded);
+        return DocumentImage.builder()
+                .index(image.getIndex())
+                .source(image.getSource())
+                .format(format)
+                .mimeType(alpha ? "image/png" : "image/jpeg")
+                .width(width)
+                .height(height)
+                .data(encoded.toByteArray())
+                .build();
+    }
+
 }
@@ -0,0 +1,241 @@
+package com.leonjr.ldo.extractor.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.tika.exception.TikaException;
+import org.apache.tika.metadata.Metadata;
+import org.apache.tika.parser.ParseContext;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import dev.langchain4j.data.document.Document;
+
+/**
+ * Reads the rows of a tabular document (CSV, TSV or XLSX) from its source
+ * file, keeping the cells apart instead of the flattened text of the document.
+ *
+ * CSV and TSV files are streamed row by row. XLSX files are read through the
+ * table events of Tika, and only workbooks with a single sheet are read, since
+ * every sheet would need its own header. The first non-empty row is the header.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TabularReader implements Closeable {
+
+    private final List<String> header;
+    private final Iterator<List<String>> rows;
+    private final Closeable source;
+    private int rowIndex;
+
+    private TabularReader(List<String> header, Iterator<List<String>> rows, Closeable source) {
+        this.header = header;
+        this.rows = rows;
+        this.source = source;
+    }
+
+    /**
+     * Checks if a document is read as a table.
+     *
+     * @param document the extracted document
+     * @return true for CSV, TSV and XLSX files
+     */
+    public static boolean isTabular(Document document) {
+        String fileType = getFileType(document);
+        return fileType.equals("csv") || fileType.equals("tsv") || fileType.equals("xlsx");
+    }
+
+    /**
+     * Opens the rows of a tabular document.
+     *
+     * @param document the extracted document
+     * @return the reader positioned after the header, or null if the document is
+     *         not tabular, has no header or has several sheets
+     * @throws IOException if the source file cannot be read
+     */
+    public static TabularReader open(Document document) throws IOException {
+        if (!isTabular(document)) {
+            return null;
+        }
+        Path sourceFile = getSourceFile(document);
+        if (getFileType(document).equals("xlsx")) {
+            return sourceFile == null ? null : openSpreadsheet(sourceFile);
+        }
+        Reader reader = sourceFile != null ? Files.newBufferedReader(sourceFile, StandardCharsets.UTF_8)
+                : new StringReader(document.text());
+        try {
+            CSVFormat format = getFileType(document).equals("tsv") ? CSVFormat.TDF : CSVFormat.DEFAULT;
+            if (sourceFile != null && format == CSVFormat.DEFAULT && isSemicolonSeparated(sourceFile)) {
+                format = CSVFormat.DEFAULT.builder().setDelimiter(';').build();
+            }
+            CSVParser parser = CSVParser.parse(reader, format);
+            Iterator<List<String>> rows = new Iterator<>() {
+                private final Iterator<CSVRecord> records = parser.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return records.hasNext();
+                }
+
+                @Override
+                public List<String> next() {
+                    return records.next().toList();
+                }
+            };
+            if (!rows.hasNext()) {
+                parser.close();
+                return null;
+            }
+            List<String> header = rows.next().stream()
+                    .map(cell -> cell.replace("\uFEFF", "").trim())
+                    .toList();
+            return new TabularReader(header, rows, parser);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the cells of the header row
+     */
+    public List<String> getHeader() {
+        return header;
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the cells of the row, or null after the last row
+     * @throws IOException if the source file cannot be read
+     */
+    public List<String> nextRow() throws IOException {
+        try {
+            if (!rows.hasNext()) {
+                return null;
+            }
+            rowIndex++;
+            return rows.next();
+        } catch (IllegalStateException | UncheckedIOException e) {
+            throw new IOException("Invalid row " + rowIndex + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the number of rows read after the header
+     */
+    public int getRowIndex() {
+        return rowIndex;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (source != null) {
+            source.close();
+        }
+    }
+
+    private static TabularReader openSpreadsheet(Path sourceFile) throws IOException {
+        var handler = new TableRowsHandler();
+        try (InputStream in = Files.newInputStream(sourceFile)) {
+            TikaParsers.getParser().parse(in, handler, new Metadata(), new ParseContext());
+        } catch (TikaException | SAXException e) {
+            throw new IOException("Spreadsheet cannot be read: " + e.getMessage(), e);
+        }
+        if (handler.tables != 1 || handler.rows.isEmpty()) {
+            return null;
+        }
+        Iterator<List<String>> rows = handler.rows.iterator();
+        return new TabularReader(rows.next(), rows, null);
+    }
+
+    private static boolean isSemicolonSeparated(Path sourceFile) throws IOException {
+        try (var lines = Files.lines(sourceFile, StandardCharsets.UTF_8)) {
+            String firstLine = lines.filter(line -> !line.isBlank()).findFirst().orElse("");
+            return firstLine.chars().filter(ch -> ch == ';').count() > firstLine.chars().filter(ch -> ch == ',')
+                    .count();
+        }
+    }
+
+    private static Path getSourceFile(Document document) {
+        String directory = document.metadata().getString("absolute_directory_path");
+        String fileName = document.metadata().getString("file_name");
+        if (directory == null || fileName == null) {
+            return null;
+        }
+        Path sourceFile = Path.of(directory, fileName);
+        return Files.isRegularFile(sourceFile) ? sourceFile : null;
+    }
+
+    private static String getFileType(Document document) {
+        String fileName = document.metadata().getString("file_name");
+        return fileName == null ? "" : fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
+    }
+
+    /**
+     * Collects the non-empty rows of the tables of the XHTML produced by Tika.
+     */
+    private static final class TableRowsHandler extends DefaultHandler {
+        private final List<List<String>> rows = new ArrayList<>();
+        private final StringBuilder cell = new StringBuilder();
+        private List<String> row;
+        private boolean inCell;
+        private int tables;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "table" -> tables++;
+                case "tr" -> row = new ArrayList<>();
+                case "td", "th" -> {
+                    inCell = true;
+                    cell.setLength(0);
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "td", "th" -> {
+                    if (row != null) {
+                        row.add(cell.toString().trim());
+                    }
+                    inCell = false;
+                }
+                case "tr" -> {
+                    if (row != null && row.stream().anyMatch(value -> !value.isEmpty())) {
+                        rows.add(row);
+                    }
+                    row = null;
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inCell) {
+                cell.append(ch, start, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.leonjr.ldo.extractor.utils;
+
+import org.apache.tika.parser.AutoDetectParser;
+
+import dev.langchain4j.data.document.DocumentParser;
+import dev.langchain4j.data.document.parser.apache.tika.ApacheTikaDocumentParser;
+
+/**
+ * Keeps warmed Tika parsers, one per thread.
+ *
+ * Building an {@link AutoDetectParser} loads the Tika configuration and looks
+ * up every available parser, which costs more than parsing a small file. The
+ * parsers are built once per extraction thread and reused for every file it
+ * parses, instead of building a new one per file.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TikaParsers {
+
+    private static final ThreadLocal<AutoDetectParser> parsers = ThreadLocal.withInitial(AutoDetectParser::new);
+
+    private static final DocumentParser documentParser = new ApacheTikaDocumentParser(parsers::get, null, null,
+            null, true);
+
+    private TikaParsers() {
+    }
+
+    /**
+     * Returns the Tika parser of the current thread.
+     *
+     * @return the warmed parser, built on the first call of the thread
+     */
+    public static AutoDetectParser getParser() {
+        return parsers.get();
+    }
+
+    /**
+     * Returns the shared document parser, which parses with the Tika parser of
+     * the calling thread.
+     *
+     * @return the document parser
+     */
+    public static DocumentParser getDocumentParser() {
+        return documentParser;
+    }
+}
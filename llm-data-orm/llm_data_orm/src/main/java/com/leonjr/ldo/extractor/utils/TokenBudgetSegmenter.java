@@ -0,0 +1,154 @@
+package com.leonjr.ldo.extractor.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.parsing.llm.TokenCounter;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.segment.TextSegment;
+
+/**
+ * Splits a document into segments packed up to a token budget.
+ *
+ * The budget is a fraction of the model context, minus the prompt sent with
+ * every chunk (system prompt, table description, summary and document
+ * metadata). The document is cut into structural units first - table rows for
+ * CSV, TSV and XLSX files, blocks for Markdown and paragraphs for everything
+ * else - and the units are packed in order until the next one does not fit. A
+ * CSV or TSV header is repeated at the top of every segment, and a Markdown
+ * heading starts a new segment once the current one is half full. Only a unit
+ * larger than the budget is split inside, by the recursive splitter.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TokenBudgetSegmenter {
+
+    private static final int MIN_SEGMENT_TOKENS = 256;
+    private static final String PARAGRAPH_SEPARATOR = "\n\n", ROW_SEPARATOR = "\n";
+
+    private TokenBudgetSegmenter() {
+    }
+
+    /**
+     * Splits a document into segments that fit the token budget of a chunk.
+     *
+     * @param document      the document to be split
+     * @param promptContext the text sent with every chunk besides the chunk
+     *                      itself
+     * @return a list of text segments
+     */
+    public static List<TextSegment> getSegments(Document document, String promptContext) {
+        String fileName = document.metadata().getString("file_name");
+        String fileType = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
+        String text = document.text();
+        int budget = getSegmentBudget(document, promptContext);
+
+        List<String> chunks;
+        switch (fileType) {
+            case "csv":
+            case "tsv":
+                chunks = packRows(text, true, budget);
+                break;
+            case "xlsx":
+                chunks = packRows(text, false, budget);
+                break;
+            case "md":
+                chunks = pack(List.of(text.split("\\n\\s*\\n")), "", PARAGRAPH_SEPARATOR, budget, true);
+                break;
+            case "jpg":
+            case "jpeg":
+            case "png":
+            case "gif":
+            case "webp":
+                return List.of(TextSegment.from(text));
+            default:
+                chunks = pack(List.of(text.split("\\n\\s*\\n")), "", PARAGRAPH_SEPARATOR, budget, false);
+                break;
+        }
+
+        List<TextSegment> segments = new ArrayList<>();
+        for (String chunk : chunks) {
+            segments.add(TextSegment.from(chunk,
+                    document.metadata().copy().put("index", String.valueOf(segments.size()))));
+        }
+        return DocumentSegmenter.removeEmptyOrNullSegments(segments);
+    }
+
+    /**
+     * Gets the tokens left for the text of each segment.
+     */
+    private static int getSegmentBudget(Document document, String promptContext) {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        int chunkTokens = (int) (appConfig.getModelContextTokens() * appConfig.getSegmentContextFraction());
+        int overhead = TokenCounter.count(promptContext) + TokenCounter.count(document.metadata().toString());
+        return Math.max(MIN_SEGMENT_TOKENS, chunkTokens - overhead);
+    }
+
+    /**
+     * Packs the rows of a table, optionally repeating its header line on every
+     * segment.
+     */
+    private static List<String> packRows(String text, boolean hasHeader, int budget) {
+        List<String> rows = new ArrayList<>(Arrays.asList(text.split("\\r?\\n")));
+        rows.removeIf(String::isBlank);
+        if (!hasHeader || rows.size() < 2) {
+            return pack(rows, "", ROW_SEPARATOR, budget, false);
+        }
+        String header = rows.remove(0) + ROW_SEPARATOR;
+        return pack(rows, header, ROW_SEPARATOR, budget, false);
+    }
+
+    /**
+     * Packs the units in order into chunks that fit the budget, each chunk
+     * starting with the prefix.
+     */
+    static List<String> pack(List<String> units, String prefix, String separator, int budget,
+            boolean breakOnHeadings) {
+        int unitBudget = Math.max(MIN_SEGMENT_TOKENS, budget - TokenCounter.count(prefix));
+        int separatorTokens = TokenCounter.count(separator);
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        int currentTokens = 0;
+        for (String unit : units) {
+            if (unit.isBlank()) {
+                continue;
+            }
+            int unitTokens = TokenCounter.count(unit);
+            if (unitTokens > unitBudget) {
+                flush(chunks, prefix, current);
+                currentTokens = 0;
+                for (TextSegment piece : DocumentSplitters.recursive(unitBudget, 0, TokenCounter.getTokenizer())
+                        .split(Document.from(unit))) {
+                    chunks.add(prefix + piece.text());
+                }
+                continue;
+            }
+            boolean headingBreak = breakOnHeadings && unit.stripLeading().startsWith("#")
+                    && currentTokens >= unitBudget / 2;
+            if (current.length() > 0 && (currentTokens + separatorTokens + unitTokens > unitBudget || headingBreak)) {
+                flush(chunks, prefix, current);
+                currentTokens = 0;
+            }
+            if (current.length() > 0) {
+                current.append(separator);
+                currentTokens += separatorTokens;
+            }
+            current.append(unit);
+            currentTokens += unitTokens;
+        }
+        flush(chunks, prefix, current);
+        return chunks;
+    }
+
+    private static void flush(List<String> chunks, String prefix, StringBuilder current) {
+        if (current.length() > 0) {
+            chunks.add(prefix + current);
+            current.setLength(0);
+        }
+    }
+}
@@ -1,25 +1,53 @@
 package com.leonjr.ldo.parsing.etl;
 
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
 
-import com.google.common.util.concurrent.RateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.enums.LLMProfile;
+import com.leonjr.ldo.app.helper.ExecutorHelper;
+import com.leonjr.ldo.app.helper.HashHelper;
 import com.leonjr.ldo.app.helper.JsonHelper;
 import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.extractor.models.DocumentImage;
 import com.leonjr.ldo.extractor.utils.DocumentContext;
+import com.leonjr.ldo.extractor.utils.ImageUtils;
 import com.leonjr.ldo.parsing.llm.AiHelper;
+import com.leonjr.ldo.parsing.llm.TokenCounter;
+import com.leonjr.ldo.parsing.llm.TokenUsageStats;
+import com.leonjr.ldo.parsing.llm.cache.LLMResponseCache;
+import com.leonjr.ldo.parsing.llm.prompts.PromptTexts;
+import com.leonjr.ldo.parsing.llm.scheduler.LLMRequestScheduler;
+import com.leonjr.ldo.pipeline.RunJournal;
 
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.document.splitter.DocumentSplitters;
+import dev.langchain4j.data.message.Content;
+import dev.langchain4j.data.message.ImageContent;
+import dev.langchain4j.data.message.ImageContent.DetailLevel;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
 import dev.langchain4j.data.message.UserMessage;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.chat.request.ChatRequest;
-import dev.langchain4j.model.chat.request.ResponseFormat;
-import dev.langchain4j.model.chat.request.ResponseFormatType;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.openai.OpenAiChatRequestParameters;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NonNull;
@@ -28,11 +56,58 @@ import lombok.NonNull;
 @Builder
 public class ETLParser {
 
-    private static final int REQUESTS_PER_SECOND = 7;
-    private static final RateLimiter agentRateLimiter = RateLimiter.create(REQUESTS_PER_SECOND);
+    /**
+     * Receives the rows of a parsed chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkRowsConsumer {
+        /**
+         * @param chunkKey the key of the chunk, see {@link RunJournal#chunkKey(String)}
+         * @param rows     the rows parsed from the chunk
+         * @throws Exception if the rows cannot be consumed, parsing is stopped
+         */
+        void accept(String chunkKey, ArrayNode rows) throws Exception;
+    }
+
+    private record ChunkRows(String chunkKey, ArrayNode rows) {
+    }
+
+    private record PendingChunk(String chunkKey, String chunkText, TextSegment segment) {
+    }
+
+    // input tokens of an image sent with low detail, and with high detail within 768x768 pixels
+    private static final int LOW_DETAIL_IMAGE_TOKENS = 85, HIGH_DETAIL_IMAGE_TOKENS = 765;
+    // longest side of an image sent with low detail, larger images are sent with high detail
+    private static final int LOW_DETAIL_MAX_SIDE = 512;
+    // images smaller than this in both dimensions, such as icons and bullets, hold no rows
+    private static final int MIN_IMAGE_SIDE = 32;
+    // prefix of the user sent as prompt cache hint, followed by the hash of the prompt prefix
+    private static final String PROMPT_CACHE_USER_PREFIX = "ldo-";
+    // metadata key of the document summary, sent once per batch of chunks
+    private static final String SUMMARY_METADATA_KEY = "summarized";
 
     @NonNull
     private String tableDescription;
+    // optional, records the rows of every parsed chunk so a resumed run skips them
+    private RunJournal runJournal;
+    // optional, shares one LLM call per document and per chunk with the parsers of other tables
+    private MultiTableExtraction multiTableExtraction;
+    // the table parsed by this parser, required with a multi-table extraction
+    private String tableName;
+
+    /**
+     * Returns the text sent with every chunk besides the chunk itself: the system
+     * prompt and the table description, or the descriptions of every table with a
+     * multi-table extraction.
+     * 
+     * @return the prompt context of a chunk
+     */
+    public String getChunkPromptContext() {
+        if (multiTableExtraction != null) {
+            return multiTableExtraction.getChunkPromptContext();
+        }
+        return PromptTexts.ETL_PROCESS_TEXT + tableDescription;
+    }
 
     /**
      * Pre-processes and summarizes document data using AI assistance.
@@ -43,23 +118,92 @@ public class ETLParser {
      * for processing.
      * The response is formatted as JSON according to the specified response format.
      * 
+     * @param documentKey  the key of the document, which groups the summary
+     *                     shared by a multi-table extraction
      * @param documentData the raw text data from the document to be summarized
      * @return a string containing the AI-generated pre-summary of the document data
      * @throws Exception if there's an error during AI processing, message creation,
      *                   or communication with the language model
      */
-    public String preSummarize(String documentData) throws Exception {
-        UserMessage systemMessage = UserMessage.from(
-                "Table description" + tableDescription + "\n Text: "
-                        + documentData);
-        ResponseFormat jsonFormat = getJsonResponseFormat();
-        ChatRequest chatRequest = ChatRequest.builder()
-                .responseFormat(jsonFormat)
-                .messages(systemMessage)
-                .build();
-        var etlSummaryProcessor = AiHelper.buildNewAssistent(AiHelper.getAiSummaryLanguageModel());
-        var response = etlSummaryProcessor.preSummarize(chatRequest);
-        return response;
+    public String preSummarize(String documentKey, String documentData) throws Exception {
+        if (multiTableExtraction != null) {
+            return multiTableExtraction.summarize(documentKey, documentData);
+        }
+        var appConfig = AppStore.getStartConfigs().getApp();
+        if (appConfig.isSampledSummarization()
+                && TokenCounter.count(documentData) > appConfig.getSummaryMaxTokens()) {
+            return sampledSummarize(documentData, appConfig.getSummaryMaxTokens(),
+                    appConfig.getSummarySampleSegments());
+        }
+        return summarize(documentData);
+    }
+
+    /**
+     * Summarizes a document with a single LLM call.
+     */
+    private String summarize(String documentData) throws Exception {
+        return cachedCall(PromptTexts.PRE_SUMMARIZE, documentData,
+                () -> chat(LLMProfile.SUMMARY, PromptTexts.PRE_SUMMARIZE, "Table description",
+                        List.of(TextContent.from("Text: " + documentData)),
+                        LLMRequestScheduler.estimateTokens(PromptTexts.PRE_SUMMARIZE, tableDescription,
+                                documentData)));
+    }
+
+    /**
+     * Summarizes a document too large for a single call (map-reduce). The
+     * document is split into segments of {@code segmentTokens} tokens, and only a
+     * sample of them is summarized, in parallel: the first and the last segments
+     * and segments evenly spaced in between. The summaries are then merged with
+     * a last call, so the cost of the summary does not grow with the size of the
+     * document.
+     * 
+     * @param documentData   the raw text data from the document to be summarized
+     * @param segmentTokens  the max tokens of each summarized segment
+     * @param sampleSegments the max number of segments summarized
+     * @return the merged summary, or INVALID_PARSING if no segment is related to
+     *         the table
+     * @throws Exception if an LLM call fails
+     */
+    private String sampledSummarize(String documentData, int segmentTokens, int sampleSegments) throws Exception {
+        List<TextSegment> segments = DocumentSplitters.recursive(segmentTokens, 0, TokenCounter.getTokenizer())
+                .split(Document.from(documentData));
+        // first, last and evenly spaced segments, in document order
+        Set<Integer> sampledIndexes = new TreeSet<>();
+        int samples = Math.max(2, sampleSegments);
+        for (int i = 0; i < samples; i++) {
+            sampledIndexes.add((int) Math.round((double) i * (segments.size() - 1) / (samples - 1)));
+        }
+        LoggerHelper.logger.info("Summarizing " + sampledIndexes.size() + " of " + segments.size()
+                + " segments of a large document");
+        ExecutorService executor = ExecutorHelper.getLLMExecutor();
+        List<Future<String>> futures = new ArrayList<>();
+        List<String> parts = new ArrayList<>();
+        try {
+            for (int index : sampledIndexes) {
+                String segmentText = segments.get(index).text();
+                futures.add(executor.submit(() -> summarize(segmentText)));
+            }
+            int i = 0;
+            for (int index : sampledIndexes) {
+                String partSummary = futures.get(i++).get();
+                if (partSummary != null && !partSummary.isBlank()
+                        && !partSummary.trim().replace("\n", "").equalsIgnoreCase("INVALID_PARSING")) {
+                    parts.add("Part " + (index + 1) + " of " + segments.size() + ": " + partSummary.trim());
+                }
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            ExecutorHelper.release(executor);
+        }
+        if (parts.isEmpty()) {
+            return "INVALID_PARSING";
+        }
+        String summaries = String.join("\n", parts);
+        return cachedCall(PromptTexts.MERGE_SUMMARIES, summaries,
+                () -> chat(LLMProfile.SUMMARY, PromptTexts.MERGE_SUMMARIES, "Table description",
+                        List.of(TextContent.from("Summaries:\n" + summaries)),
+                        LLMRequestScheduler.estimateTokens(PromptTexts.MERGE_SUMMARIES, tableDescription,
+                                summaries)));
     }
 
     /**
@@ -67,9 +211,9 @@ public class ETLParser {
      * table structure.
      * 
      * <p>
-     * This method applies rate limiting before processing and includes retry logic
-     * with exponential
-     * backoff to handle potential failures. The AI service receives both the table
+     * The request goes through the shared {@link LLMRequestScheduler}, which
+     * applies the request and token budgets and retries failures adapting the
+     * request rate to the provider limits. The AI service receives both the table
      * structure description
      * and the data chunk to perform intelligent data transformation.
      * </p>
@@ -79,48 +223,175 @@ public class ETLParser {
      * @throws Exception if the processing fails after all retry attempts or if rate
      *                   limiting fails
      * 
-     * @see #retryWithBackoff(Supplier, int, int)
-     * @see AiHelper#buildNewAssistent()
+     * @see LLMRequestScheduler#execute(int, Callable)
+     * @see #chat(LLMProfile, String, String, List, int)
      */
     public String processChunkWithAiService(String chunk) throws Exception {
-        agentRateLimiter.acquire();
-        return retryWithBackoff(() -> {
-            var etlParserProcessor = AiHelper.buildNewAssistent();
-            UserMessage userMessage = UserMessage.from(
-                    "\"table_structure\":" + tableDescription + "\nchunk:" + chunk);
-            ChatRequest chatRequest = ChatRequest.builder()
-                    .messages(userMessage)
-                    .responseFormat(getJsonResponseFormat())
-                    .build();
-            return etlParserProcessor.process(chatRequest);
-        }, 5, 600);
-    }
-
-    /**
-     * Tenta executar a callable; em caso de exceção, faz retry com backoff
-     * exponencial.
-     *
-     * @param action       a chamada que pode falhar
-     * @param maxRetries   número máximo de tentativas
-     * @param initialDelay atraso inicial em ms
-     */
-    private <T> T retryWithBackoff(Callable<T> action, int maxRetries, long initialDelay) throws Exception {
-        long delay = initialDelay;
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                return action.call();
-            } catch (Exception e) {
-                if (attempt == maxRetries) {
-                    throw e;
-                }
-                // opcional: logar e aguardar antes de tentar de novo
-                LoggerHelper.logger.warn("Attempt " + attempt + " falhou: " + e.getMessage()
-                        + ". Retrying in " + delay + "ms...");
-                Thread.sleep(delay);
-                delay *= 2; // backoff exponencial
+        return cachedCall(PromptTexts.ETL_PROCESS_TEXT, chunk,
+                () -> chat(LLMProfile.ETL, PromptTexts.ETL_PROCESS_TEXT, "\"table_structure\"",
+                        List.of(TextContent.from("chunk:" + chunk)),
+                        LLMRequestScheduler.estimateTokens(PromptTexts.ETL_PROCESS_TEXT, tableDescription, chunk)));
+    }
+
+    /**
+     * Processes a data chunk extracting the rows of every table of the
+     * description at once. Used when the description holds several tables, the
+     * response is a JSON object keyed by table name.
+     * 
+     * @param chunk the data chunk to be processed by the AI service
+     * @return the raw response of the AI service
+     * @throws Exception if the processing fails after all retry attempts
+     */
+    public String processMultiTableChunkWithAiService(String chunk) throws Exception {
+        return cachedCall(PromptTexts.ETL_MULTI_TABLE_PROCESS_TEXT, chunk,
+                () -> chat(LLMProfile.ETL, PromptTexts.ETL_MULTI_TABLE_PROCESS_TEXT, "\"tables\"",
+                        List.of(TextContent.from("chunk:" + chunk)),
+                        LLMRequestScheduler.estimateTokens(PromptTexts.ETL_MULTI_TABLE_PROCESS_TEXT,
+                                tableDescription, chunk)));
+    }
+
+    /**
+     * Processes several chunks of a document with a single call to the AI
+     * service. The summary of the document is sent once, followed by each chunk
+     * delimited by its id, and the response is a JSON object with the rows of
+     * each chunk keyed by its id.
+     * 
+     * @param summary the summary of the document the chunks come from
+     * @param chunks  the chunk texts without the summary, keyed by chunk id
+     * @return the raw response of the AI service
+     * @throws Exception if the processing fails after all retry attempts
+     */
+    public String processChunkBatchWithAiService(String summary, Map<String, String> chunks) throws Exception {
+        StringBuilder input = new StringBuilder("summarized:").append(summary == null ? "" : summary);
+        chunks.forEach((chunkId, chunk) -> input.append("\n<chunk id=\"").append(chunkId).append("\">\n")
+                .append(chunk).append("\n</chunk>"));
+        String batch = input.toString();
+        return cachedCall(PromptTexts.ETL_PROCESS_BATCH_TEXT, batch,
+                () -> chat(LLMProfile.ETL, PromptTexts.ETL_PROCESS_BATCH_TEXT, "\"table_structure\"",
+                        List.of(TextContent.from(batch)),
+                        LLMRequestScheduler.estimateTokens(PromptTexts.ETL_PROCESS_BATCH_TEXT, tableDescription,
+                                batch)));
+    }
+
+    /**
+     * Extracts the rows of the table from several images of a document with a
+     * single call to the vision model.
+     * 
+     * @param summary     the summary of the document the images come from
+     * @param images      the images, already downscaled to the detail budget
+     * @param detailLevel the detail level requested for every image
+     * @return the raw response of the AI service, the rows of every image in a
+     *         single JSON array
+     * @throws Exception if the processing fails after all retry attempts
+     */
+    public String processImagesWithAiService(String summary, List<DocumentImage> images, DetailLevel detailLevel)
+            throws Exception {
+        StringBuilder input = new StringBuilder(summary == null ? "" : summary);
+        images.forEach(image -> input.append('\n').append(image.getHash()));
+        return cachedCall(PromptTexts.ETL_PROCESS_IMAGE, input.toString(), () -> {
+            List<Content> contents = new ArrayList<>();
+            contents.add(TextContent.from("\"document_summary\":" + summary + "\n\"images\": " + images.size()));
+            for (DocumentImage image : images) {
+                contents.add(TextContent.from("image " + image.getIndex() + " (" + image.getSource() + "):"));
+                contents.add(ImageContent.from(Base64.getEncoder().encodeToString(image.getData()),
+                        image.getMimeType(), detailLevel));
             }
+            int imageTokens = images.size()
+                    * (detailLevel == DetailLevel.LOW ? LOW_DETAIL_IMAGE_TOKENS : HIGH_DETAIL_IMAGE_TOKENS);
+            return chat(LLMProfile.IMAGE, PromptTexts.ETL_PROCESS_IMAGE, "\"table_structure\"", contents,
+                    LLMRequestScheduler.estimateTokens(PromptTexts.ETL_PROCESS_IMAGE, tableDescription, summary)
+                            + imageTokens);
+        });
+    }
+
+    /**
+     * Maps the columns of a tabular file to the columns of the table, from its
+     * header and a few sample rows. The rows of the file are then converted
+     * without calling the LLM.
+     * 
+     * @param sample the JSON with the header and the sample rows of the file
+     * @return the raw mapping response, a JSON object with the source column of
+     *         each table column
+     * @throws Exception if the LLM call fails
+     */
+    public String mapTabularColumns(String sample) throws Exception {
+        return cachedCall(PromptTexts.TABULAR_MAPPING_TEXT, sample,
+                () -> chat(LLMProfile.ETL, PromptTexts.TABULAR_MAPPING_TEXT, "\"table_structure\"",
+                        List.of(TextContent.from(sample)),
+                        LLMRequestScheduler.estimateTokens(PromptTexts.TABULAR_MAPPING_TEXT, tableDescription,
+                                sample)));
+    }
+
+    /**
+     * Sends a request to the shared chat model of a profile, laid out for the
+     * prompt-prefix caching of the provider.
+     * 
+     * The system message holds the system prompt followed by the table
+     * description, which are byte-identical in every request of the table, and
+     * the text that changes between requests goes last, in the user message. The
+     * provider then serves the tokens of the shared prefix from its cache after
+     * the first requests. With {@code promptCacheHint} the requests sharing a
+     * prefix also carry the same {@code user} value, derived from the hash of
+     * the prefix, which OpenAI uses to route them to the same cache.
+     * 
+     * The request goes through the shared {@link LLMRequestScheduler}, and the
+     * tokens of the response are counted by {@link TokenUsageStats}.
+     * 
+     * @param profile         the parameter profile of the chat model
+     * @param systemPrompt    the system prompt of the request
+     * @param schemaLabel     the label of the table description in the prompt
+     * @param contents        the contents that change between requests
+     * @param estimatedTokens the estimated tokens of the request
+     * @return the text of the response
+     * @throws Exception if the request fails after all retry attempts
+     */
+    private String chat(LLMProfile profile, String systemPrompt, String schemaLabel, List<Content> contents,
+            int estimatedTokens) throws Exception {
+        String promptPrefix = systemPrompt + "\n" + schemaLabel + ":" + tableDescription;
+        var chatRequestBuilder = ChatRequest.builder()
+                .messages(SystemMessage.from(promptPrefix), UserMessage.from(contents));
+        if (AppStore.getStartConfigs().getApp().isPromptCacheHint()) {
+            chatRequestBuilder.parameters(OpenAiChatRequestParameters.builder()
+                    .user(PROMPT_CACHE_USER_PREFIX + HashHelper.sha256(promptPrefix).substring(0, 16))
+                    .build());
         }
-        throw new IllegalStateException("Não deveria chegar aqui");
+        ChatRequest chatRequest = chatRequestBuilder.build();
+        var chatModel = AiHelper.getSharedChatModel(profile);
+        return LLMRequestScheduler.getInstance().execute(estimatedTokens, () -> {
+            ChatResponse chatResponse = chatModel.chat(chatRequest);
+            TokenUsageStats.record(chatResponse.tokenUsage());
+            return chatResponse.aiMessage().text();
+        });
+    }
+
+    /**
+     * Runs an LLM call through the local response cache, when it is enabled.
+     * 
+     * The cache key is the hash of the model name, the system prompt, the table
+     * description and the input text, so any change in one of them results in a
+     * new call. Empty responses are never cached.
+     * 
+     * @param systemPrompt the system prompt used by the call
+     * @param input        the document or chunk text sent to the model
+     * @param llmCall      the LLM call to run on a cache miss
+     * @return the cached or the new raw response
+     * @throws Exception if the LLM call fails
+     */
+    private String cachedCall(String systemPrompt, String input, Callable<String> llmCall) throws Exception {
+        var cache = LLMResponseCache.getInstance();
+        if (cache == null) {
+            return llmCall.call();
+        }
+        String key = LLMResponseCache.buildKey(AiHelper.getModelName(), systemPrompt, tableDescription, input);
+        String cachedResponse = cache.get(key);
+        if (cachedResponse != null) {
+            return cachedResponse;
+        }
+        String response = llmCall.call();
+        if (response != null && !response.isBlank()) {
+            cache.put(key, response);
+        }
+        return response;
     }
 
     /**
@@ -132,113 +403,472 @@ public class ETLParser {
      * for AI-based parsing. The results are then cleaned, validated, and combined
      * into a unified JSON array.
      * 
-     * @param chunks List of TextSegment objects to be processed and parsed
-     * @return A JSON string containing an array of all successfully parsed and
-     *         validated chunks
+     * @param documentKey the key of the document in the run journal, or null to
+     *                    skip the journal
+     * @param chunks      List of TextSegment objects to be processed and parsed
+     * @return An array with the rows of all successfully parsed and validated
+     *         chunks
      * @throws Exception if any error occurs during chunk processing or if executor
      *                   termination fails
      * 
      * @implNote The method performs the following operations:
      *           <ul>
-     *           <li>Creates a fixed thread pool using configured maximum executor
-     *           threads</li>
+     *           <li>Gets the LLM executor for the configured executor mode</li>
      *           <li>Submits each chunk for processing with AI service using
-     *           document context</li>
+     *           document context, reusing the rows already recorded in the run
+     *           journal</li>
      *           <li>Cleans JSON responses by removing markdown formatting (```json,
      *           ```, `[]`)</li>
      *           <li>Extracts valid JSON arrays by trimming content outside bracket
      *           boundaries</li>
-     *           <li>Validates each JSON chunk and skips invalid or non-array
+     *           <li>Parses each JSON chunk once and skips invalid or non-array
      *           responses</li>
-     *           <li>Concatenates all valid JSON arrays into a single result
+     *           <li>Appends the rows of every valid chunk to a single result
      *           array</li>
-     *           <li>Ensures proper executor shutdown with 1-minute timeout</li>
+     *           <li>Gives the executor back once every chunk is processed</li>
      *           </ul>
      * 
      *           Invalid chunks are logged and skipped rather than causing method
      *           failure.
      *           Debug information is logged when debug mode is enabled in AppStore.
      */
-    public String executeParsing(List<TextSegment> chunks) throws Exception {
-        ExecutorService executor = Executors.newFixedThreadPool(
-                AppStore.getStartConfigs().getApp().getMaxExecutorsThreads());
-        List<Future<String>> futures = new ArrayList<>();
-        for (TextSegment chunk : chunks) {
-            futures.add(executor.submit(
-                    () -> processChunkWithAiService(
-                            DocumentContext.getAllAvailableContextFromSegment(chunk))));
-        }
-        StringBuilder finalJson = new StringBuilder("[");
-        for (Future<String> f : futures) {
-            try {
-                String jsonParsed = f.get().replace("```json", "").replace("```", "").replace("`[]`", "[]");
-                if (jsonParsed == null || jsonParsed.isEmpty()) {
-                    continue;
+    public ArrayNode executeParsing(String documentKey, List<TextSegment> chunks) throws Exception {
+        ExecutorService executor = ExecutorHelper.getLLMExecutor();
+        List<Future<List<ChunkRows>>> futures = new ArrayList<>();
+        ArrayNode rows = JsonHelper.getObjectMapper().createArrayNode();
+        try {
+            for (List<PendingChunk> batch : packChunks(documentKey, chunks, false)) {
+                futures.add(executor.submit(() -> parseBatch(documentKey, batch)));
+            }
+            for (Future<List<ChunkRows>> f : futures) {
+                try {
+                    for (ChunkRows chunkRows : f.get()) {
+                        if (chunkRows.rows() != null) {
+                            rows.addAll(chunkRows.rows());
+                        }
+                    }
+                } catch (Exception e) {
+                    LoggerHelper.logger.error(
+                            "Error while processing chunk: " + e.getMessage());
+                    throw e;
                 }
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            ExecutorHelper.release(executor);
+        }
+        if (AppStore.getInstance().isDebugAll()) {
+            LoggerHelper.logger.info("Final JSON:\n" + rows.toPrettyString());
+        }
+        return rows;
+    }
 
-                // remove any text after last ] char
-                int lastBracketIndex = jsonParsed.lastIndexOf(']');
-                if (lastBracketIndex != -1) {
-                    jsonParsed = jsonParsed.substring(0, lastBracketIndex + 1);
+    /**
+     * Executes parallel parsing of text segments, handing the rows of each chunk
+     * to the consumer as soon as the chunk is parsed, in completion order.
+     * 
+     * The rows are not accumulated, so the memory used does not grow with the
+     * size of the document. Chunks whose rows were already committed by a
+     * resumed run are skipped.
+     * 
+     * @param documentKey the key of the document in the run journal, or null to
+     *                    skip the journal
+     * @param chunks      List of TextSegment objects to be processed and parsed
+     * @param consumer    receives the rows of each parsed chunk, always from the
+     *                    calling thread
+     * @return the number of rows handed to the consumer
+     * @throws Exception if any error occurs during chunk processing or if the
+     *                   consumer fails
+     */
+    public int executeParsing(String documentKey, List<TextSegment> chunks, ChunkRowsConsumer consumer)
+            throws Exception {
+        ExecutorService executor = ExecutorHelper.getLLMExecutor();
+        CompletionService<List<ChunkRows>> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<List<ChunkRows>>> futures = new ArrayList<>();
+        int rowsCount = 0;
+        try {
+            for (List<PendingChunk> batch : packChunks(documentKey, chunks, true)) {
+                futures.add(completionService.submit(() -> parseBatch(documentKey, batch)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                List<ChunkRows> batchRows;
+                try {
+                    batchRows = completionService.take().get();
+                } catch (Exception e) {
+                    LoggerHelper.logger.error(
+                            "Error while processing chunk: " + e.getMessage());
+                    throw e;
                 }
-                // remove any text before first [ char
-                int firstBracketIndex = jsonParsed.indexOf('[');
-                if (firstBracketIndex != -1) {
-                    jsonParsed = jsonParsed.substring(firstBracketIndex);
+                for (ChunkRows chunkRows : batchRows) {
+                    if (chunkRows.rows() != null) {
+                        consumer.accept(chunkRows.chunkKey(), chunkRows.rows());
+                        rowsCount += chunkRows.rows().size();
+                    }
                 }
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            ExecutorHelper.release(executor);
+        }
+        return rowsCount;
+    }
 
-                int arrayStart = jsonParsed.indexOf('[');
-                if (arrayStart == -1) {
+    /**
+     * Parses the images embedded in a document with the vision model, handing the
+     * rows of each batch of images to the consumer as soon as it is parsed, in
+     * completion order.
+     * 
+     * Identical images are parsed once, images too small to hold data are
+     * dropped, and the others are downscaled to {@code visionImageMaxSide} and
+     * sent {@code visionImagesPerRequest} per request, with low detail when they
+     * fit within {@value #LOW_DETAIL_MAX_SIDE} pixels. Batches whose rows were
+     * already committed by a resumed run are skipped.
+     * 
+     * @param documentKey the key of the document in the run journal, or null to
+     *                    skip the journal
+     * @param summary     the summary of the document, sent with every batch
+     * @param images      the images embedded in the document
+     * @param consumer    receives the rows of each parsed batch, always from the
+     *                    calling thread
+     * @return the number of rows handed to the consumer
+     * @throws Exception if any error occurs during image processing or if the
+     *                   consumer fails
+     */
+    public int executeImageParsing(String documentKey, String summary, List<DocumentImage> images,
+            ChunkRowsConsumer consumer) throws Exception {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        int maxSide = appConfig.getVisionImageMaxSide();
+        List<DocumentImage> preparedImages = prepareImages(images, maxSide);
+        if (preparedImages.isEmpty()) {
+            return 0;
+        }
+        int batchSize = Math.max(1, appConfig.getVisionImagesPerRequest());
+        // small images are sent with low detail, so each request holds images of a single detail level
+        List<List<DocumentImage>> batches = new ArrayList<>();
+        for (DetailLevel detailLevel : List.of(DetailLevel.LOW, DetailLevel.HIGH)) {
+            List<DocumentImage> levelImages = preparedImages.stream()
+                    .filter(image -> detailLevel(image) == detailLevel)
+                    .toList();
+            for (int from = 0; from < levelImages.size(); from += batchSize) {
+                batches.add(levelImages.subList(from, Math.min(from + batchSize, levelImages.size())));
+            }
+        }
+        ExecutorService executor = ExecutorHelper.getLLMExecutor();
+        CompletionService<ChunkRows> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<ChunkRows>> futures = new ArrayList<>();
+        int rowsCount = 0;
+        try {
+            for (List<DocumentImage> batch : batches) {
+                DetailLevel detailLevel = detailLevel(batch.get(0));
+                StringBuilder batchHashes = new StringBuilder("images");
+                batch.forEach(image -> batchHashes.append(':').append(image.getHash()));
+                String chunkKey = RunJournal.chunkKey(batchHashes.toString());
+                if (runJournal != null && documentKey != null && runJournal.isChunkInserted(documentKey, chunkKey)) {
                     continue;
                 }
-
-                jsonParsed = jsonParsed.substring(arrayStart);
-
+                futures.add(completionService.submit(() -> new ChunkRows(chunkKey,
+                        parseImages(documentKey, chunkKey, summary, batch, detailLevel))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                ChunkRows chunkRows;
                 try {
-                    var testJson = JsonHelper.convertJsonStringToJsonNode(jsonParsed);
-                    if (testJson != null && !jsonParsed.trim().startsWith("[") && testJson.isArray()) {
-                        System.out.println("CHUNK NOT ARRAY: " + jsonParsed);
-                        continue;
-                    }
+                    chunkRows = completionService.take().get();
                 } catch (Exception e) {
                     LoggerHelper.logger.error(
-                            "JSON CHUNK INVALID: " + e.getMessage());
-                    continue;
+                            "Error while processing images: " + e.getMessage());
+                    throw e;
+                }
+                if (chunkRows.rows() != null) {
+                    consumer.accept(chunkRows.chunkKey(), chunkRows.rows());
+                    rowsCount += chunkRows.rows().size();
                 }
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            ExecutorHelper.release(executor);
+        }
+        LoggerHelper.logger.info(preparedImages.size() + " images parsed in " + futures.size() + " requests, "
+                + rowsCount + " rows found");
+        return rowsCount;
+    }
+
+    /**
+     * Chooses the detail level of a prepared image: low detail when it fits
+     * within {@value #LOW_DETAIL_MAX_SIDE} pixels, high detail otherwise.
+     */
+    private static DetailLevel detailLevel(DocumentImage image) {
+        return Math.max(image.getWidth(), image.getHeight()) <= LOW_DETAIL_MAX_SIDE ? DetailLevel.LOW
+                : DetailLevel.HIGH;
+    }
 
-                finalJson.append(jsonParsed).append(",");
+    /**
+     * Drops the duplicated and the tiny images and downscales the others to the
+     * detail budget of the vision model.
+     */
+    private List<DocumentImage> prepareImages(List<DocumentImage> images, int maxSide) {
+        List<DocumentImage> preparedImages = new ArrayList<>();
+        Set<String> seenHashes = new HashSet<>();
+        for (DocumentImage image : images) {
+            if (!seenHashes.add(image.getHash())) {
+                continue;
+            }
+            try {
+                DocumentImage preparedImage = ImageUtils.downscale(image, maxSide, MIN_IMAGE_SIDE);
+                if (preparedImage != null) {
+                    preparedImages.add(preparedImage);
+                }
             } catch (Exception e) {
-                LoggerHelper.logger.error(
-                        "Error while processing chunk: " + e.getMessage());
-                throw e;
+                LoggerHelper.logger.warn("Image " + image.getIndex() + " skipped, it cannot be decoded: "
+                        + e.getMessage());
             }
         }
-        if (finalJson.charAt(finalJson.length() - 1) == ',') {
-            finalJson.deleteCharAt(finalJson.length() - 1);
+        return preparedImages;
+    }
+
+    /**
+     * Parses a batch of images, reusing the rows recorded in the run journal when
+     * the batch was already parsed.
+     */
+    private ArrayNode parseImages(String documentKey, String chunkKey, String summary, List<DocumentImage> images,
+            DetailLevel detailLevel) throws Exception {
+        boolean journaled = runJournal != null && documentKey != null;
+        ArrayNode journaledRows = journaled ? runJournal.getChunkRows(documentKey, chunkKey) : null;
+        if (journaledRows != null) {
+            return journaledRows;
         }
-        finalJson.append("]");
-        executor.shutdown();
-        executor.awaitTermination(1, TimeUnit.MINUTES);
-        if (AppStore.getInstance().isDebugAll()) {
-            LoggerHelper.logger.info("Final JSON:\n"
-                    + finalJson.toString().replace("```json", "").replace("```", "").replace("`[]`", "[]"));
+        ArrayNode imageRows = toChunkRows(processImagesWithAiService(summary, images, detailLevel));
+        if (journaled && imageRows != null) {
+            runJournal.recordChunkRows(documentKey, chunkKey, imageRows);
         }
-        return finalJson.toString().replace("```json", "").replace("```", "").replace("`[]`", "[]");
+        return imageRows;
     }
 
     /**
-     * Creates and returns a JSON response format configuration.
+     * Groups the chunks of a document into the batches sent per request. Without
+     * {@code chunkBatching}, or with a multi-table extraction, every chunk is a
+     * batch of its own. Otherwise consecutive chunks sharing the same summary
+     * are packed up to {@code chunkBatchSize} chunks and
+     * {@code chunkBatchMaxTokens} tokens, and larger chunks go alone.
      * 
-     * This method constructs a ResponseFormat object configured for JSON output
-     * using the builder pattern. The response format is set to JSON type.
+     * @param documentKey  the key of the document in the run journal, or null to
+     *                     skip the journal
+     * @param chunks       the chunks of the document
+     * @param skipInserted whether the chunks already inserted by a resumed run
+     *                     are left out
+     * @return the batches of chunks, in document order
+     */
+    private List<List<PendingChunk>> packChunks(String documentKey, List<TextSegment> chunks, boolean skipInserted) {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        boolean batching = appConfig.isChunkBatching() && multiTableExtraction == null;
+        int maxChunks = batching ? Math.max(1, appConfig.getChunkBatchSize()) : 1;
+        int maxTokens = appConfig.getChunkBatchMaxTokens();
+        List<List<PendingChunk>> batches = new ArrayList<>();
+        List<PendingChunk> batch = new ArrayList<>();
+        int batchTokens = 0;
+        String batchSummary = null;
+        for (TextSegment chunk : chunks) {
+            String chunkText = DocumentContext.getAllAvailableContextFromSegment(chunk);
+            String chunkKey = RunJournal.chunkKey(chunkText);
+            if (skipInserted && runJournal != null && documentKey != null
+                    && runJournal.isChunkInserted(documentKey, chunkKey)) {
+                if (multiTableExtraction != null) {
+                    multiTableExtraction.skipChunk(documentKey, chunkText);
+                }
+                continue;
+            }
+            int chunkTokens = maxChunks > 1 ? TokenCounter.count(chunk.text()) : 0;
+            String summary = chunk.metadata().getString(SUMMARY_METADATA_KEY);
+            if (!batch.isEmpty() && (batch.size() >= maxChunks || batchTokens + chunkTokens > maxTokens
+                    || !Objects.equals(summary, batchSummary))) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                batchTokens = 0;
+            }
+            batch.add(new PendingChunk(chunkKey, chunkText, chunk));
+            batchTokens += chunkTokens;
+            batchSummary = summary;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        if (batching) {
+            LoggerHelper.logger.info(batches.stream().mapToInt(List::size).sum() + " chunks packed into "
+                    + batches.size() + " requests");
+        }
+        return batches;
+    }
+
+    /**
+     * Parses a batch of chunks with a single call, reusing the rows recorded in
+     * the run journal for the chunks already parsed. When the response is not a
+     * JSON object with an array for every chunk id, the chunks are parsed again
+     * one by one.
+     * 
+     * @param documentKey the key of the document in the run journal, or null to
+     *                    skip the journal
+     * @param batch       the chunks of the batch
+     * @return the rows of every chunk of the batch, in batch order
+     * @throws Exception if the LLM call fails
+     */
+    private List<ChunkRows> parseBatch(String documentKey, List<PendingChunk> batch) throws Exception {
+        boolean journaled = runJournal != null && documentKey != null;
+        List<ChunkRows> batchRows = new ArrayList<>();
+        Map<String, String> pendingChunks = new LinkedHashMap<>();
+        for (PendingChunk chunk : batch) {
+            ArrayNode journaledRows = journaled && batch.size() > 1
+                    ? runJournal.getChunkRows(documentKey, chunk.chunkKey())
+                    : null;
+            batchRows.add(new ChunkRows(chunk.chunkKey(), journaledRows));
+            if (journaledRows == null) {
+                Metadata metadata = chunk.segment().metadata().copy();
+                metadata.remove(SUMMARY_METADATA_KEY);
+                pendingChunks.put("c" + batchRows.size(),
+                        metadata + System.lineSeparator() + chunk.segment().text());
+            }
+        }
+        if (pendingChunks.size() <= 1) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (batchRows.get(i).rows() == null) {
+                    PendingChunk chunk = batch.get(i);
+                    batchRows.set(i, new ChunkRows(chunk.chunkKey(),
+                            parseChunk(documentKey, chunk.chunkKey(), chunk.chunkText())));
+                }
+            }
+            return batchRows;
+        }
+        String summary = batch.get(0).segment().metadata().getString(SUMMARY_METADATA_KEY);
+        Map<String, ArrayNode> rowsByChunkId = toBatchRows(processChunkBatchWithAiService(summary, pendingChunks),
+                pendingChunks.keySet());
+        if (rowsByChunkId == null) {
+            LoggerHelper.logger.warn("Invalid response for a batch of " + pendingChunks.size()
+                    + " chunks, parsing them one by one");
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String chunkId = "c" + (i + 1);
+            if (!pendingChunks.containsKey(chunkId)) {
+                continue;
+            }
+            PendingChunk chunk = batch.get(i);
+            ArrayNode chunkRows;
+            if (rowsByChunkId == null) {
+                chunkRows = parseChunk(documentKey, chunk.chunkKey(), chunk.chunkText());
+            } else {
+                chunkRows = rowsByChunkId.get(chunkId);
+                if (journaled) {
+                    runJournal.recordChunkRows(documentKey, chunk.chunkKey(), chunkRows);
+                }
+            }
+            batchRows.set(i, new ChunkRows(chunk.chunkKey(), chunkRows));
+        }
+        return batchRows;
+    }
+
+    /**
+     * Cleans the raw response of a batch of chunks and parses it into the rows of
+     * each chunk.
+     * 
+     * @param jsonParsed the raw response returned by the LLM for the batch
+     * @param chunkIds   the ids of the chunks sent in the batch
+     * @return the rows keyed by chunk id, or null if the response is not a JSON
+     *         object holding an array for every chunk id
+     */
+    static Map<String, ArrayNode> toBatchRows(String jsonParsed, Set<String> chunkIds) {
+        if (jsonParsed == null || jsonParsed.isEmpty()) {
+            return null;
+        }
+        jsonParsed = jsonParsed.replace("```json", "").replace("```", "");
+
+        // keep only the text between the first { and the last } chars
+        int firstBraceIndex = jsonParsed.indexOf('{');
+        int lastBraceIndex = jsonParsed.lastIndexOf('}');
+        if (firstBraceIndex == -1 || lastBraceIndex < firstBraceIndex) {
+            return null;
+        }
+        JsonNode batchRows;
+        try {
+            batchRows = JsonHelper.getObjectMapper()
+                    .readTree(jsonParsed.substring(firstBraceIndex, lastBraceIndex + 1));
+        } catch (Exception e) {
+            LoggerHelper.logger.error("JSON BATCH INVALID: " + e.getMessage());
+            return null;
+        }
+        if (batchRows == null || !batchRows.isObject()) {
+            return null;
+        }
+        Map<String, ArrayNode> rowsByChunkId = new HashMap<>();
+        for (String chunkId : chunkIds) {
+            JsonNode chunkRows = batchRows.get(chunkId);
+            if (chunkRows == null || !chunkRows.isArray()) {
+                LoggerHelper.logger.warn("CHUNK " + chunkId + " MISSING FROM BATCH RESPONSE");
+                return null;
+            }
+            rowsByChunkId.put(chunkId, (ArrayNode) chunkRows);
+        }
+        return rowsByChunkId;
+    }
+
+    /**
+     * Parses a single chunk, reusing the rows recorded in the run journal when
+     * the chunk was already parsed.
      * 
-     * @return ResponseFormat configured for JSON response type
-     * @throws Exception if there's an error during ResponseFormat creation
+     * @param documentKey the key of the document in the run journal, or null to
+     *                    skip the journal
+     * @param chunkKey    the key of the chunk in the run journal
+     * @param chunkText   the chunk text with its metadata
+     * @return the rows of the chunk, or null if the response is not a valid array
+     * @throws Exception if the LLM call fails
      */
-    public ResponseFormat getJsonResponseFormat() throws Exception {
-        ResponseFormat responseFormat = ResponseFormat.builder()
-                .type(ResponseFormatType.JSON)
-                .build();
-        return responseFormat;
+    private ArrayNode parseChunk(String documentKey, String chunkKey, String chunkText) throws Exception {
+        boolean journaled = runJournal != null && documentKey != null;
+        ArrayNode journaledRows = journaled ? runJournal.getChunkRows(documentKey, chunkKey) : null;
+        if (journaledRows != null) {
+            if (multiTableExtraction != null) {
+                multiTableExtraction.skipChunk(documentKey, chunkText);
+            }
+            return journaledRows;
+        }
+        ArrayNode chunkRows = multiTableExtraction != null
+                ? multiTableExtraction.getChunkRows(documentKey, tableName, chunkText)
+                : toChunkRows(processChunkWithAiService(chunkText));
+        if (journaled && chunkRows != null) {
+            runJournal.recordChunkRows(documentKey, chunkKey, chunkRows);
+        }
+        return chunkRows;
+    }
+
+    /**
+     * Cleans the raw response of a chunk and parses it into an array of rows.
+     * 
+     * @param jsonParsed the raw response returned by the LLM for a chunk
+     * @return the rows of the chunk, or null if the response is empty, invalid or
+     *         not an array
+     */
+    private ArrayNode toChunkRows(String jsonParsed) {
+        if (jsonParsed == null || jsonParsed.isEmpty()) {
+            return null;
+        }
+        jsonParsed = jsonParsed.replace("```json", "").replace("```", "").replace("`[]`", "[]");
+
+        // keep only the text between the first [ and the last ] chars
+        int firstBracketIndex = jsonParsed.indexOf('[');
+        int lastBracketIndex = jsonParsed.lastIndexOf(']');
+        if (firstBracketIndex == -1 || lastBracketIndex < firstBracketIndex) {
+            return null;
+        }
+        jsonParsed = jsonParsed.substring(firstBracketIndex, lastBracketIndex + 1);
+
+        JsonNode chunkRows;
+        try {
+            chunkRows = JsonHelper.getObjectMapper().readTree(jsonParsed);
+        } catch (Exception e) {
+            LoggerHelper.logger.error(
+                    "JSON CHUNK INVALID: " + e.getMessage());
+            return null;
+        }
+        if (chunkRows == null || !chunkRows.isArray()) {
+            LoggerHelper.logger.warn("CHUNK NOT ARRAY: " + jsonParsed);
+            return null;
+        }
+        return (ArrayNode) chunkRows;
     }
 }
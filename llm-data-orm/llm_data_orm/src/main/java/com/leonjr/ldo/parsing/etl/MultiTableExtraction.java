@@ -0,0 +1,268 @@
+package com.leonjr.ldo.parsing.etl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.helper.HashHelper;
+import com.leonjr.ldo.app.helper.JsonHelper;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.database.models.TableDescription;
+import com.leonjr.ldo.parsing.llm.prompts.PromptSchema;
+import com.leonjr.ldo.parsing.llm.prompts.PromptTexts;
+import com.leonjr.ldo.pipeline.RunJournal;
+
+/**
+ * Extracts the rows of several tables with a single LLM call per chunk.
+ *
+ * The prompt carries the descriptions of every table and the model answers
+ * with a JSON object keyed by table name. The parsers of each table share this
+ * extraction: the first parser asking for a document summary or for the rows
+ * of a chunk makes the call, and the other parsers wait for and reuse its
+ * result. A result is dropped once every table has read or skipped it.
+ *
+ * The results are grouped by document. A table that leaves a document without
+ * reading all of its results, such as a document already inserted by a resumed
+ * run or a document that failed for that table, releases the document, and its
+ * results are dropped once every table has released it.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class MultiTableExtraction {
+
+    /**
+     * A result shared between the parsers of the tables. The call is started by
+     * the first reader, a table skipping the result only counts as a reader.
+     */
+    private record SharedResult<T>(CompletableFuture<T> future, AtomicBoolean started,
+            AtomicInteger remainingReaders) {
+    }
+
+    /**
+     * The results shared for a document, and the tables done with it.
+     */
+    private record DocumentResults(Map<String, SharedResult<String>> summaries,
+            Map<String, SharedResult<ObjectNode>> chunks, Set<String> releasedTables) {
+    }
+
+    private final ETLParser parser;
+    private final int tablesCount;
+    private final Set<String> tableNames = ConcurrentHashMap.newKeySet();
+    private final Set<String> finishedTables = ConcurrentHashMap.newKeySet();
+    private final Map<String, DocumentResults> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the extraction for the given tables.
+     *
+     * @param tableDescriptions the descriptions of every table loaded by the run
+     */
+    public MultiTableExtraction(List<TableDescription> tableDescriptions) {
+        this.parser = ETLParser.builder()
+                .tableDescription(describeTables(tableDescriptions))
+                .build();
+        this.tablesCount = tableDescriptions.size();
+        tableDescriptions.forEach(tableDescription -> tableNames.add(tableDescription.getName()));
+    }
+
+    /**
+     * Describes the tables for the prompts: with {@code compactPromptSchema} the
+     * compact schemas of their columns to fill, otherwise a JSON object with the
+     * schemas of every table.
+     */
+    private static String describeTables(List<TableDescription> tableDescriptions) {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        if (appConfig.isCompactPromptSchema()) {
+            return PromptSchema.render(tableDescriptions, appConfig.getColumnHints());
+        }
+        ObjectNode description = JsonHelper.getObjectMapper().createObjectNode();
+        ArrayNode tables = description.putArray("tables");
+        for (TableDescription tableDescription : tableDescriptions) {
+            try {
+                tables.add(tableDescription.getFullJsonSchemaFromToJson());
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Invalid description of table " + tableDescription.getName(), e);
+            }
+        }
+        return description.toString();
+    }
+
+    /**
+     * Returns the text sent with every chunk besides the chunk itself: the system
+     * prompt and the descriptions of every table.
+     *
+     * @return the prompt context of a chunk
+     */
+    public String getChunkPromptContext() {
+        return PromptTexts.ETL_MULTI_TABLE_PROCESS_TEXT + parser.getTableDescription();
+    }
+
+    /**
+     * Summarizes a document against every table, calling the LLM once for all
+     * the tables.
+     *
+     * @param documentKey  the key of the document
+     * @param documentData the raw text data from the document to be summarized
+     * @return the summary of the document
+     * @throws Exception if the LLM call fails
+     */
+    public String summarize(String documentKey, String documentData) throws Exception {
+        return shared(resultsOf(documentKey).summaries(), HashHelper.sha256(documentData),
+                () -> parser.preSummarize(documentKey, documentData));
+    }
+
+    /**
+     * Gets the rows of one table parsed from a chunk, calling the LLM once for all
+     * the tables.
+     *
+     * @param documentKey the key of the document of the chunk
+     * @param tableName   the table of the rows
+     * @param chunkText   the chunk text with its metadata
+     * @return the rows of the table, empty if the response has no rows for it, or
+     *         null if the response is not a valid JSON object
+     * @throws Exception if the LLM call fails
+     */
+    public ArrayNode getChunkRows(String documentKey, String tableName, String chunkText) throws Exception {
+        ObjectNode tableRows = shared(resultsOf(documentKey).chunks(), RunJournal.chunkKey(chunkText),
+                () -> toTableRows(parser.processMultiTableChunkWithAiService(chunkText)));
+        if (tableRows == null) {
+            return null;
+        }
+        var fields = tableRows.fields();
+        while (fields.hasNext()) {
+            var field = fields.next();
+            if (field.getKey().equalsIgnoreCase(tableName) && field.getValue().isArray()) {
+                return (ArrayNode) field.getValue();
+            }
+        }
+        return JsonHelper.getObjectMapper().createArrayNode();
+    }
+
+    /**
+     * Counts a table that will not read the rows of a chunk, such as a chunk
+     * whose rows the table reuses from its run journal.
+     *
+     * @param documentKey the key of the document of the chunk
+     * @param chunkText   the chunk text with its metadata
+     */
+    public void skipChunk(String documentKey, String chunkText) {
+        Map<String, SharedResult<ObjectNode>> chunks = resultsOf(documentKey).chunks();
+        String key = RunJournal.chunkKey(chunkText);
+        release(chunks, key, chunks.computeIfAbsent(key, k -> newResult()));
+    }
+
+    /**
+     * Releases a document for a table, which will not read any other result of
+     * the document. The results of the document are dropped once every table
+     * has released it.
+     *
+     * @param documentKey the key of the document
+     * @param tableName   the table done with the document
+     */
+    public void releaseDocument(String documentKey, String tableName) {
+        documents.compute(documentKey, (key, results) -> {
+            // a table may be done with a document before any table reads it
+            results = results != null ? results : newDocumentResults();
+            results.releasedTables().add(tableName);
+            return isReleased(results) ? null : results;
+        });
+    }
+
+    /**
+     * Releases every document for a table whose pipeline is over, including the
+     * documents it left behind on failure.
+     *
+     * @param tableName the table done with every document
+     */
+    public void releaseTable(String tableName) {
+        finishedTables.add(tableName);
+        documents.values().removeIf(this::isReleased);
+    }
+
+    private boolean isReleased(DocumentResults results) {
+        for (String tableName : tableNames) {
+            if (!results.releasedTables().contains(tableName) && !finishedTables.contains(tableName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private DocumentResults resultsOf(String documentKey) {
+        return documents.computeIfAbsent(documentKey, key -> newDocumentResults());
+    }
+
+    private static DocumentResults newDocumentResults() {
+        return new DocumentResults(new ConcurrentHashMap<>(), new ConcurrentHashMap<>(),
+                ConcurrentHashMap.newKeySet());
+    }
+
+    private <T> SharedResult<T> newResult() {
+        return new SharedResult<>(new CompletableFuture<>(), new AtomicBoolean(), new AtomicInteger(tablesCount));
+    }
+
+    /**
+     * Runs a call once for every table: the first caller runs it, the others wait
+     * for its result. A failed call is not shared, the next caller tries again.
+     */
+    private <T> T shared(Map<String, SharedResult<T>> results, String key, Callable<T> call) throws Exception {
+        var result = results.computeIfAbsent(key, k -> newResult());
+        if (result.started().compareAndSet(false, true)) {
+            try {
+                result.future().complete(call.call());
+            } catch (Exception e) {
+                results.remove(key, result);
+                result.future().completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return result.future().get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            release(results, key, result);
+        }
+    }
+
+    private static <T> void release(Map<String, SharedResult<T>> results, String key, SharedResult<T> result) {
+        if (result.remainingReaders().decrementAndGet() <= 0) {
+            results.remove(key, result);
+        }
+    }
+
+    /**
+     * Cleans the raw response of a chunk and parses it into an object keyed by
+     * table name.
+     */
+    private static ObjectNode toTableRows(String response) {
+        if (response == null || response.isEmpty()) {
+            return null;
+        }
+        response = response.replace("```json", "").replace("```", "");
+        int firstBraceIndex = response.indexOf('{');
+        int lastBraceIndex = response.lastIndexOf('}');
+        if (firstBraceIndex == -1 || lastBraceIndex < firstBraceIndex) {
+            LoggerHelper.logger.warn("CHUNK NOT OBJECT: " + response);
+            return null;
+        }
+        try {
+            JsonNode tableRows = JsonHelper.getObjectMapper()
+                    .readTree(response.substring(firstBraceIndex, lastBraceIndex + 1));
+            return tableRows.isObject() ? (ObjectNode) tableRows : null;
+        } catch (Exception e) {
+            LoggerHelper.logger.error("JSON CHUNK INVALID: " + e.getMessage());
+            return null;
+        }
+    }
+}
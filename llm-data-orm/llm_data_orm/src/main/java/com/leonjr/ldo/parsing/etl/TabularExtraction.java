@@ -0,0 +1,118 @@
+package com.leonjr.ldo.parsing.etl;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leonjr.ldo.app.helper.JsonHelper;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.database.models.TableDescription;
+import com.leonjr.ldo.extractor.utils.TabularReader;
+import com.leonjr.ldo.parsing.etl.models.TabularMapping;
+
+import dev.langchain4j.data.document.Document;
+
+/**
+ * Extracts the rows of tabular documents (CSV, TSV and XLSX) without sending
+ * them to the LLM.
+ *
+ * The header and a few sample rows of the file are sent to the LLM once, to
+ * map the columns of the file to the columns of the table. Every row of the
+ * file is then converted with that mapping and handed over in batches.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TabularExtraction {
+
+    private static final int SAMPLE_ROWS = 5;
+
+    private TabularExtraction() {
+    }
+
+    /**
+     * Maps the columns of a tabular document to the columns of the table, with a
+     * single LLM call.
+     *
+     * @param parser           the parser of the table
+     * @param tableDescription the description of the table
+     * @param document         the extracted document
+     * @return the mapping, or null if the document is not a table or its columns
+     *         do not match the table
+     * @throws Exception if the file cannot be read or the LLM call fails
+     */
+    public static TabularMapping mapColumns(ETLParser parser, TableDescription tableDescription, Document document)
+            throws Exception {
+        try (TabularReader reader = TabularReader.open(document)) {
+            if (reader == null) {
+                return null;
+            }
+            var objectMapper = JsonHelper.getObjectMapper();
+            ArrayNode sampleRows = objectMapper.createArrayNode();
+            List<String> row;
+            while (sampleRows.size() < SAMPLE_ROWS && (row = reader.nextRow()) != null) {
+                sampleRows.add(objectMapper.valueToTree(row));
+            }
+            String sample = "\"header\":" + objectMapper.valueToTree(reader.getHeader()) + "\n\"sample_rows\":"
+                    + sampleRows;
+            return TabularMapping.fromResponse(parser.mapTabularColumns(sample), tableDescription,
+                    reader.getHeader());
+        }
+    }
+
+    /**
+     * Converts every row of a tabular document and hands them to the consumer in
+     * batches, in file order. A row whose cells cannot be converted to the types
+     * of their columns is skipped.
+     *
+     * @param document  the extracted document
+     * @param mapping   the mapping of its columns
+     * @param batchSize the max rows of each batch
+     * @param consumer  receives each batch, keyed by the index of its first row
+     * @return the number of rows handed to the consumer
+     * @throws Exception if the file cannot be read or the consumer fails
+     */
+    public static int extractRows(Document document, TabularMapping mapping, int batchSize,
+            ETLParser.ChunkRowsConsumer consumer) throws Exception {
+        int rowsCount = 0, skippedRows = 0;
+        try (TabularReader reader = TabularReader.open(document)) {
+            if (reader == null) {
+                return 0;
+            }
+            ArrayNode batch = JsonHelper.getObjectMapper().createArrayNode();
+            int batchStart = 1;
+            List<String> cells;
+            while ((cells = reader.nextRow()) != null) {
+                ObjectNode row = mapping.toRow(cells);
+                if (row == null) {
+                    skippedRows++;
+                } else {
+                    batch.add(row);
+                }
+                if (batch.size() >= Math.max(1, batchSize)) {
+                    consumer.accept(batchKey(batchStart), batch);
+                    rowsCount += batch.size();
+                    batch = JsonHelper.getObjectMapper().createArrayNode();
+                    batchStart = reader.getRowIndex() + 1;
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batchKey(batchStart), batch);
+                rowsCount += batch.size();
+            }
+        }
+        if (skippedRows > 0) {
+            LoggerHelper.logger.warn(skippedRows + " rows skipped, their cells do not match the types of columns "
+                    + mapping.getColumnNames());
+        }
+        return rowsCount;
+    }
+
+    /**
+     * Key of a batch in the run journal. The rows of a file are read in the same
+     * order on every run, so a resumed run finds the same keys.
+     */
+    private static String batchKey(int firstRow) {
+        return "rows-" + firstRow;
+    }
+}
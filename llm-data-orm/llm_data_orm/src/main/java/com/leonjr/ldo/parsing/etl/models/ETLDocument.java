@@ -1,10 +1,10 @@
 package com.leonjr.ldo.parsing.etl.models;
 
-import java.awt.image.BufferedImage;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.leonjr.ldo.extractor.models.DocumentImage;
 
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.segment.TextSegment;
@@ -15,30 +15,76 @@ import lombok.ToString;
 
 @Data
 @Builder
-@ToString(exclude = { "images", "segments", "document" })
+@ToString(exclude = { "images", "segments", "document", "tabularMapping" })
 public class ETLDocument {
 
     @NonNull
     private Document document;
-    private List<BufferedImage> images;
+    // position of the document in the extraction order, used in the logs
+    private int index;
+    // identifies the document in the run journal
+    private String documentKey;
+    // compressed images embedded in the document, decoded on demand
+    private List<DocumentImage> images;
     private List<TextSegment> segments;
-    private String parsedResponse;
+    // summary of the document for the target table, kept out of the shared document metadata
+    private String summary;
+    private ArrayNode parsedRows;
+    // set when the rows of a tabular document are converted without the LLM
+    private TabularMapping tabularMapping;
 
     /**
-     * Parses the stored response string into a JsonNode representation.
+     * Creates a copy of the extracted document for the pipeline of another table.
+     * The document, images and segments are shared, the summary and the parsed
+     * rows are not.
      * 
-     * This method takes the parsedResponse field (assumed to be a JSON string)
-     * and converts it into a JsonNode object using Jackson's ObjectMapper.
+     * @return a new ETLDocument with the extracted data of this document
+     */
+    public ETLDocument copyForTable() {
+        return ETLDocument.builder()
+                .document(document)
+                .index(index)
+                .documentKey(documentKey)
+                .images(images)
+                .segments(segments)
+                .build();
+    }
+
+    /**
+     * Drops the extracted content of a document that left the pipeline, keeping
+     * its key and metadata, so a streaming run over a large folder does not hold
+     * every document until the end.
+     */
+    public void release() {
+        String fileName = document.metadata().getString("file_name");
+        document = Document.from(fileName != null ? fileName : documentKey, document.metadata());
+        images = null;
+        segments = null;
+        parsedRows = null;
+    }
+
+    /**
+     * Returns the rows parsed from the document.
+     * 
+     * The rows are parsed once from the chunk responses and shared by the
+     * validation and insertion steps, so no further JSON parsing is needed.
+     * 
+     * @return JsonNode representation of the parsed rows, or null if the document
+     *         was not parsed yet
+     */
+    public JsonNode getJsonSchema() {
+        return parsedRows;
+    }
+
+    /**
+     * Serializes the parsed rows into a JSON string. Only used where the rows
+     * must be sent as text, such as the LLM validation prompt.
      * 
-     * @return JsonNode representation of the parsed response
-     * @throws Exception if the parsedResponse contains invalid JSON or if parsing
-     *                   fails
+     * @return the JSON string of the parsed rows, or null if the document was not
+     *         parsed yet
      */
-    public JsonNode getJsonSchema() throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode parsedResponseJson = null;
-        parsedResponseJson = mapper.readTree(parsedResponse);
-        return parsedResponseJson;
+    public String getParsedResponse() {
+        return parsedRows == null ? null : parsedRows.toString();
     }
 
 }
@@ -0,0 +1,317 @@
+package com.leonjr.ldo.parsing.etl.models;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leonjr.ldo.app.helper.JsonHelper;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+
+/**
+ * Maps the columns of a tabular file to the columns of a table, so its rows
+ * are converted into JSON rows without calling the LLM.
+ *
+ * The mapping comes from a single LLM response, see
+ * {@link com.leonjr.ldo.parsing.llm.prompts.PromptTexts#TABULAR_MAPPING_TEXT}.
+ * The cells are converted to the JSON type of their column: numbers, booleans,
+ * and ISO 8601 date-times for temporal columns, parsed with the pattern given by
+ * the mapping when the file does not use ISO 8601.
+ *
+ * The decimal separator of a numeric column comes from the mapping, or else
+ * from the last of "." and "," in the cell, such as "1.234,56" or "1,234.56".
+ * A cell with a single separator followed by three digits, such as "1.234", is
+ * ambiguous without the mapping and is rejected instead of guessed.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TabularMapping {
+
+    private enum ValueType {
+        TEXT, INTEGER, DECIMAL, BOOLEAN, DATE, TIME, TIMESTAMP
+    }
+
+    private record ColumnMapping(String column, int sourceIndex, ValueType valueType, DateTimeFormatter format,
+            Character decimalSeparator) {
+    }
+
+    private static final Pattern ISO_OFFSET_SUFFIX = Pattern.compile("(Z|[+-]\\d{2}:\\d{2})$");
+    // a separator followed by three digits reads as thousands or as decimals, such as "1.234"
+    private static final Pattern AMBIGUOUS_NUMBER = Pattern.compile("[+-]?[1-9]\\d{0,2}[.,]\\d{3}");
+
+    private final List<ColumnMapping> columns;
+
+    private TabularMapping(List<ColumnMapping> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Builds the mapping from the raw LLM response.
+     *
+     * @param response         the raw mapping response
+     * @param tableDescription the description of the target table
+     * @param header           the header of the file
+     * @return the mapping, or null if the response is invalid or maps no column
+     */
+    public static TabularMapping fromResponse(String response, TableDescription tableDescription,
+            List<String> header) {
+        if (response == null || response.isBlank()) {
+            return null;
+        }
+        response = response.replace("```json", "").replace("```", "");
+        int firstBraceIndex = response.indexOf('{');
+        int lastBraceIndex = response.lastIndexOf('}');
+        if (firstBraceIndex == -1 || lastBraceIndex < firstBraceIndex) {
+            LoggerHelper.logger.warn("TABULAR MAPPING NOT OBJECT: " + response);
+            return null;
+        }
+        JsonNode mappedColumns;
+        try {
+            mappedColumns = JsonHelper.getObjectMapper()
+                    .readTree(response.substring(firstBraceIndex, lastBraceIndex + 1))
+                    .path("columns");
+        } catch (Exception e) {
+            LoggerHelper.logger.error("TABULAR MAPPING INVALID: " + e.getMessage());
+            return null;
+        }
+        List<ColumnMapping> columns = new ArrayList<>();
+        for (ColumnDescription column : tableDescription.getColumns()) {
+            JsonNode mapped = findIgnoreCase(mappedColumns, column.getName());
+            if (column.isPrimaryKey() || mapped == null || !mapped.path("source").canConvertToInt()) {
+                continue;
+            }
+            int sourceIndex = mapped.path("source").asInt();
+            if (sourceIndex < 0 || sourceIndex >= header.size()) {
+                continue;
+            }
+            columns.add(new ColumnMapping(column.getName(), sourceIndex, valueType(column),
+                    formatter(mapped.path("format").textValue()),
+                    decimalSeparator(mapped.path("decimal").textValue())));
+        }
+        return columns.isEmpty() ? null : new TabularMapping(columns);
+    }
+
+    /**
+     * Converts a row of the file into a JSON row of the table. Empty cells become
+     * nulls.
+     *
+     * @param cells the cells of the row
+     * @return the JSON row, or null if a cell cannot be converted to the type of
+     *         its column
+     */
+    public ObjectNode toRow(List<String> cells) {
+        ObjectNode row = JsonHelper.getObjectMapper().createObjectNode();
+        for (ColumnMapping mapping : columns) {
+            String cell = mapping.sourceIndex() < cells.size() ? cells.get(mapping.sourceIndex()).trim() : "";
+            if (cell.isEmpty()) {
+                row.putNull(mapping.column());
+                continue;
+            }
+            try {
+                putValue(row, mapping, cell);
+            } catch (NumberFormatException | ArithmeticException | DateTimeParseException e) {
+                return null;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * @return the names of the mapped table columns
+     */
+    public List<String> getColumnNames() {
+        return columns.stream().map(ColumnMapping::column).toList();
+    }
+
+    private static void putValue(ObjectNode row, ColumnMapping mapping, String cell) {
+        switch (mapping.valueType()) {
+            case INTEGER -> {
+                long value = new BigDecimal(normalizeNumber(cell, mapping.decimalSeparator())).longValueExact();
+                if (value == (int) value) {
+                    row.put(mapping.column(), (int) value);
+                } else {
+                    row.put(mapping.column(), value);
+                }
+            }
+            case DECIMAL -> row.put(mapping.column(),
+                    new BigDecimal(normalizeNumber(cell, mapping.decimalSeparator())));
+            case BOOLEAN -> row.put(mapping.column(), parseBoolean(cell));
+            case DATE -> {
+                LocalDate date = mapping.format() != null ? LocalDate.parse(cell, mapping.format())
+                        : LocalDate.parse(cell.length() > 10 ? cell.substring(0, 10) : cell);
+                row.put(mapping.column(), date.atStartOfDay().atOffset(ZoneOffset.UTC).toString());
+            }
+            case TIME -> {
+                LocalTime time = mapping.format() != null ? LocalTime.parse(cell, mapping.format())
+                        : LocalTime.parse(cell);
+                row.put(mapping.column(), time.atDate(LocalDate.EPOCH).atOffset(ZoneOffset.UTC).toString());
+            }
+            case TIMESTAMP -> {
+                String isoCell = cell.replace(' ', 'T');
+                if (mapping.format() == null && ISO_OFFSET_SUFFIX.matcher(isoCell).find()) {
+                    row.put(mapping.column(), OffsetDateTime.parse(isoCell).toString());
+                    return;
+                }
+                LocalDateTime dateTime = mapping.format() != null ? LocalDateTime.parse(cell, mapping.format())
+                        : LocalDateTime.parse(isoCell);
+                row.put(mapping.column(), dateTime.atZone(ZoneId.systemDefault()).toOffsetDateTime().toString());
+            }
+            default -> row.put(mapping.column(), cell);
+        }
+    }
+
+    /**
+     * Converts a number with thousands and decimal separators into the plain
+     * notation of {@link BigDecimal}.
+     *
+     * @param cell             the cell holding the number
+     * @param decimalSeparator the decimal separator given by the mapping, or null
+     *                         to detect it from the cell
+     * @return the number with "." as decimal separator and no thousands separator
+     * @throws NumberFormatException if the separators are misplaced, or the cell
+     *                               is ambiguous without the decimal separator
+     */
+    private static String normalizeNumber(String cell, Character decimalSeparator) {
+        String number = cell.replace(" ", "").replace("\u00A0", "");
+        char decimal;
+        if (decimalSeparator != null) {
+            decimal = decimalSeparator;
+        } else {
+            int lastPoint = number.lastIndexOf('.');
+            int lastComma = number.lastIndexOf(',');
+            if (lastPoint < 0 && lastComma < 0) {
+                return number;
+            }
+            if (lastPoint >= 0 && lastComma >= 0) {
+                decimal = lastPoint > lastComma ? '.' : ',';
+            } else {
+                char separator = lastPoint >= 0 ? '.' : ',';
+                if (number.indexOf(separator) != number.lastIndexOf(separator)) {
+                    // a repeated separator only groups thousands, such as "1.234.567"
+                    decimal = separator == '.' ? ',' : '.';
+                } else if (AMBIGUOUS_NUMBER.matcher(number).matches()) {
+                    throw new NumberFormatException("Ambiguous decimal separator: " + cell);
+                } else {
+                    decimal = separator;
+                }
+            }
+        }
+        char grouping = decimal == '.' ? ',' : '.';
+        int decimalIndex = number.indexOf(decimal);
+        if (decimalIndex != number.lastIndexOf(decimal)) {
+            throw new NumberFormatException("Repeated decimal separator: " + cell);
+        }
+        String integerPart = decimalIndex < 0 ? number : number.substring(0, decimalIndex);
+        String fractionPart = decimalIndex < 0 ? "" : number.substring(decimalIndex + 1);
+        if (fractionPart.indexOf(grouping) >= 0) {
+            throw new NumberFormatException("Thousands separator after the decimal separator: " + cell);
+        }
+        if (integerPart.indexOf(grouping) >= 0) {
+            // thousands are grouped by three digits, such as "1.234.567"
+            String unsigned = integerPart.startsWith("-") || integerPart.startsWith("+") ? integerPart.substring(1)
+                    : integerPart;
+            String[] groups = unsigned.split(Pattern.quote(String.valueOf(grouping)), -1);
+            for (int i = 0; i < groups.length; i++) {
+                if (i == 0 ? groups[i].isEmpty() || groups[i].length() > 3 : groups[i].length() != 3) {
+                    throw new NumberFormatException("Misplaced thousands separator: " + cell);
+                }
+            }
+            integerPart = integerPart.replace(String.valueOf(grouping), "");
+        }
+        return decimalIndex < 0 ? integerPart : integerPart + "." + fractionPart;
+    }
+
+    private static Character decimalSeparator(String separator) {
+        if (separator == null || separator.isBlank()) {
+            return null;
+        }
+        if (!separator.equals(".") && !separator.equals(",")) {
+            LoggerHelper.logger.warn("Invalid decimal separator in tabular mapping: " + separator);
+            return null;
+        }
+        return separator.charAt(0);
+    }
+
+    private static boolean parseBoolean(String cell) {
+        return switch (cell.toLowerCase(Locale.ROOT)) {
+            case "true", "t", "yes", "y", "sim", "s", "1" -> true;
+            case "false", "f", "no", "n", "não", "nao", "0" -> false;
+            default -> throw new NumberFormatException("Invalid boolean: " + cell);
+        };
+    }
+
+    private static ValueType valueType(ColumnDescription column) {
+        switch (column.getJdbcType()) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT:
+                return ValueType.INTEGER;
+            case Types.DECIMAL, Types.NUMERIC, Types.FLOAT, Types.REAL, Types.DOUBLE:
+                return ValueType.DECIMAL;
+            case Types.BIT, Types.BOOLEAN:
+                return ValueType.BOOLEAN;
+            case Types.DATE:
+                return ValueType.DATE;
+            case Types.TIME, Types.TIME_WITH_TIMEZONE:
+                return ValueType.TIME;
+            case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE:
+                return ValueType.TIMESTAMP;
+            default:
+                break;
+        }
+        // descriptions without the JDBC type fall back to the type name
+        String typeName = column.getType() == null ? "" : column.getType().toUpperCase(Locale.ROOT);
+        if (typeName.contains("INT") || typeName.equals("SERIAL") || typeName.equals("BIGSERIAL")) {
+            return ValueType.INTEGER;
+        }
+        if (typeName.startsWith("DECIMAL") || typeName.startsWith("NUMERIC") || typeName.startsWith("FLOAT")
+                || typeName.startsWith("DOUBLE") || typeName.equals("REAL")) {
+            return ValueType.DECIMAL;
+        }
+        if (typeName.startsWith("BOOL")) {
+            return ValueType.BOOLEAN;
+        }
+        return switch (typeName) {
+            case "DATE" -> ValueType.DATE;
+            case "TIME" -> ValueType.TIME;
+            case "TIMESTAMP", "DATETIME" -> ValueType.TIMESTAMP;
+            default -> ValueType.TEXT;
+        };
+    }
+
+    private static DateTimeFormatter formatter(String pattern) {
+        if (pattern == null || pattern.isBlank()) {
+            return null;
+        }
+        try {
+            return DateTimeFormatter.ofPattern(pattern, Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            LoggerHelper.logger.warn("Invalid date pattern in tabular mapping: " + pattern);
+            return null;
+        }
+    }
+
+    private static JsonNode findIgnoreCase(JsonNode node, String fieldName) {
+        var fields = node.fields();
+        while (fields.hasNext()) {
+            var field = fields.next();
+            if (field.getKey().equalsIgnoreCase(fieldName)) {
+                return field.getValue();
+            }
+        }
+        return null;
+    }
+}
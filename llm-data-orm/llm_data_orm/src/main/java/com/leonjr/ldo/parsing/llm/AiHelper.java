@@ -1,11 +1,18 @@
 package com.leonjr.ldo.parsing.llm;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.enums.LLMProfile;
 import com.leonjr.ldo.app.helper.LoggerHelper;
 import com.leonjr.ldo.parsing.etl.interfaces.ETLProcessor;
 import com.leonjr.ldo.parsing.etl.interfaces.LLMValidation;
+import com.leonjr.ldo.parsing.llm.prompts.PromptTexts;
+import com.leonjr.ldo.parsing.llm.scheduler.LLMRequestScheduler;
+import com.leonjr.ldo.parsing.llm.scheduler.RetryAfterHttpClientBuilder;
 
 import dev.langchain4j.data.message.ImageContent;
 import dev.langchain4j.data.message.TextContent;
@@ -34,6 +41,106 @@ public class AiHelper {
     private static final double SUMMARY_MODEL_PRESENCE_PENALTY = 0.4;
     private static final int SUMMARY_MODEL_MAX_TOKENS = 12000;
     private static final int SUMMARY_MODEL_TIMEOUT_MINUTES = 10;
+    private static final double IMAGE_MODEL_TEMPERATURE = 0.8;
+    private static final int IMAGE_MODEL_MAX_TOKENS = 10000;
+    private static final int IMAGE_MODEL_TIMEOUT_MINUTES = 10;
+
+    private static final Map<String, ChatLanguageModel> chatModels = new ConcurrentHashMap<>();
+    private static final Map<String, ETLProcessor> assistants = new ConcurrentHashMap<>();
+    private static final Map<String, LLMValidation> validators = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the shared chat language model for the given profile.
+     * 
+     * The model is built once per LLM type and profile and then reused by every
+     * thread, so its HTTP client and connection pool are shared across requests.
+     * 
+     * @param profile the parameter profile of the model (ETL, summary, image or
+     *                validator)
+     * @return the shared ChatLanguageModel instance for the profile
+     * @throws Exception if there's an error during the model creation
+     */
+    public static ChatLanguageModel getSharedChatModel(LLMProfile profile) throws Exception {
+        return getOrBuild(chatModels, registryKey(profile) + " chat model", () -> {
+            switch (profile) {
+                case SUMMARY:
+                    return getAiSummaryLanguageModel();
+                case IMAGE:
+                    return getImageLanguageModel();
+                case ETL:
+                case VALIDATOR:
+                default:
+                    return getChatModel();
+            }
+        });
+    }
+
+    /**
+     * Returns the shared ETL assistant for the given profile.
+     * 
+     * The AiServices proxy is built once per LLM type and profile on top of the
+     * shared chat model and reused across chunks, retries and threads.
+     * 
+     * @param profile the parameter profile of the assistant (ETL, summary or image)
+     * @return the shared ETLProcessor instance for the profile
+     * @throws Exception if there's an error during the assistant creation
+     */
+    public static ETLProcessor getSharedAssistent(LLMProfile profile) throws Exception {
+        return getOrBuild(assistants, registryKey(profile) + " assistant",
+                () -> buildNewAssistent(getSharedChatModel(profile)));
+    }
+
+    /**
+     * Returns the shared LLM validator, built once on top of the shared validator
+     * chat model.
+     * 
+     * @return the shared LLMValidation instance
+     * @throws Exception if there's an error during the validator creation
+     */
+    public static LLMValidation getSharedValidator() throws Exception {
+        return getOrBuild(validators, registryKey(LLMProfile.VALIDATOR) + " validator",
+                () -> AiServices.builder(LLMValidation.class)
+                        .chatLanguageModel(getSharedChatModel(LLMProfile.VALIDATOR)).build());
+    }
+
+    /**
+     * Returns the registry key of a profile for the configured LLM type.
+     * 
+     * @param profile the parameter profile
+     * @return the registry key
+     */
+    private static String registryKey(LLMProfile profile) {
+        return AppStore.getStartConfigs().getApp().getLlmType() + ":" + profile;
+    }
+
+    /**
+     * Gets an instance from the registry, building it only once when it is
+     * missing. The build time is logged so the cost saved by the reuse is
+     * visible in the execution logs.
+     * 
+     * @param registry the registry holding the shared instances
+     * @param key      the registry key
+     * @param builder  the builder used when the instance is missing
+     * @return the shared instance
+     * @throws Exception if there's an error during the instance creation
+     */
+    private static <T> T getOrBuild(Map<String, T> registry, String key, Callable<T> builder) throws Exception {
+        T instance = registry.get(key);
+        if (instance != null) {
+            return instance;
+        }
+        synchronized (registry) {
+            instance = registry.get(key);
+            if (instance == null) {
+                long startTime = System.nanoTime();
+                instance = builder.call();
+                registry.put(key, instance);
+                LoggerHelper.logger.info("Built " + key + " in " + (System.nanoTime() - startTime) / 1_000_000
+                        + " ms, sharing it with the next requests");
+            }
+        }
+        return instance;
+    }
 
     /**
      * Builds a new AI assistant instance for ETL (Extract, Transform, Load)
@@ -120,6 +227,24 @@ public class AiHelper {
         }
     }
 
+    /**
+     * Returns the name of the model configured for the current LLM type.
+     * 
+     * @return the configured model name
+     * @throws IllegalArgumentException if the configured LLM type is not supported
+     */
+    public static String getModelName() throws IllegalArgumentException {
+        var type = AppStore.getStartConfigs().getApp().getLlmType();
+        switch (type) {
+            case OPENAI:
+                return AppStore.getInstance().getLlmConfig().getOpenai().getModelName().getModelName();
+            case GENERIC:
+                return AppStore.getInstance().getLlmConfig().getGenericAi().getModelName();
+            default:
+                throw new IllegalArgumentException("Unsupported LLM type: " + type);
+        }
+    }
+
     /**
      * Creates and configures an OpenAI chat language model with ETL processing
      * parameters.
@@ -147,6 +272,8 @@ public class AiHelper {
                 .frequencyPenalty(ETL_PROCESSING_FREQUENCY_PENALTY)
                 .presencePenalty(ETL_PROCESSING_PRESENCE_PENALTY)
                 .maxTokens(ETL_PROCESSING_MAX_TOKENS)
+                .httpClientBuilder(new RetryAfterHttpClientBuilder())
+                .maxRetries(0) // retries are handled by LLMRequestScheduler
                 .build();
     }
 
@@ -176,6 +303,8 @@ public class AiHelper {
                 .frequencyPenalty(ETL_PROCESSING_FREQUENCY_PENALTY)
                 .presencePenalty(ETL_PROCESSING_PRESENCE_PENALTY)
                 .maxTokens(ETL_PROCESSING_MAX_TOKENS)
+                .httpClientBuilder(new RetryAfterHttpClientBuilder())
+                .maxRetries(0) // retries are handled by LLMRequestScheduler
                 .build();
     }
 
@@ -230,6 +359,8 @@ public class AiHelper {
                 .frequencyPenalty(SUMMARY_MODEL_FREQUENCY_PENALTY)
                 .presencePenalty(SUMMARY_MODEL_PRESENCE_PENALTY)
                 .maxTokens(SUMMARY_MODEL_MAX_TOKENS)
+                .httpClientBuilder(new RetryAfterHttpClientBuilder())
+                .maxRetries(0) // retries are handled by LLMRequestScheduler
                 .build();
     }
 
@@ -275,9 +406,52 @@ public class AiHelper {
                 .frequencyPenalty(SUMMARY_MODEL_FREQUENCY_PENALTY)
                 .presencePenalty(SUMMARY_MODEL_PRESENCE_PENALTY)
                 .maxTokens(SUMMARY_MODEL_MAX_TOKENS)
+                .httpClientBuilder(new RetryAfterHttpClientBuilder())
+                .maxRetries(0) // retries are handled by LLMRequestScheduler
                 .build();
     }
 
+    /**
+     * Creates and configures the chat language model used to summarize images,
+     * based on the configured LLM type.
+     * 
+     * @return a ChatLanguageModel instance configured for image operations
+     * @throws Exception                if there's an error creating the language
+     *                                  model
+     * @throws IllegalArgumentException if the LLM type specified in configuration
+     *                                  is not supported
+     */
+    public static ChatLanguageModel getImageLanguageModel() throws Exception {
+        var llmType = AppStore.getStartConfigs().getApp().getLlmType();
+        var llmConfig = AppStore.getInstance().getLlmConfig();
+        switch (llmType) {
+            case OPENAI:
+                return OpenAiChatModel.builder()
+                        .baseUrl(llmConfig.getOpenai().getCustomUrl())
+                        .apiKey(llmConfig.getOpenai().getApiKey())
+                        .modelName(llmConfig.getOpenai().getModelName().getModelName())
+                        .timeout(Duration.ofMinutes(IMAGE_MODEL_TIMEOUT_MINUTES))
+                        .temperature(IMAGE_MODEL_TEMPERATURE)
+                        .maxTokens(IMAGE_MODEL_MAX_TOKENS)
+                        .httpClientBuilder(new RetryAfterHttpClientBuilder())
+                        .maxRetries(0) // retries are handled by LLMRequestScheduler
+                        .build();
+            case GENERIC:
+                return OpenAiChatModel.builder() // Generic LLM must use OpenAiChatModel api models
+                        .baseUrl(llmConfig.getGenericAi().getCustomUrl())
+                        .apiKey(llmConfig.getGenericAi().getApiKey())
+                        .modelName(llmConfig.getGenericAi().getModelName())
+                        .timeout(Duration.ofMinutes(IMAGE_MODEL_TIMEOUT_MINUTES))
+                        .temperature(IMAGE_MODEL_TEMPERATURE)
+                        .maxTokens(IMAGE_MODEL_MAX_TOKENS)
+                        .httpClientBuilder(new RetryAfterHttpClientBuilder())
+                        .maxRetries(0) // retries are handled by LLMRequestScheduler
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unsupported LLM type: " + llmType);
+        }
+    }
+
     /**
      * Generates a generic summary of an image using OpenAI's vision model.
      * 
@@ -303,15 +477,7 @@ public class AiHelper {
         if (base64Image == null || mimeType == null) {
             throw new IllegalArgumentException("base64Image and imageExtension must not be null");
         }
-        var chatModel = OpenAiChatModel.builder()
-                .baseUrl(AppStore.getInstance().getLlmConfig().getOpenai().getCustomUrl())
-                .apiKey(AppStore.getInstance().getLlmConfig().getOpenai().getApiKey())
-                .modelName(AppStore.getInstance().getLlmConfig().getOpenai().getModelName().getModelName())
-                .timeout(Duration.ofMinutes(10))
-                .temperature(0.8)
-                .maxTokens(10000)
-                .build();
-        var etlProcessor = buildNewAssistent(chatModel);
+        var etlProcessor = getSharedAssistent(LLMProfile.IMAGE);
         UserMessage userMessage = UserMessage.from(
                 TextContent.from("Image to summarize: "),
                 ImageContent.from(base64Image, mimeType, DetailLevel.LOW));
@@ -322,7 +488,9 @@ public class AiHelper {
                 .responseFormat(responseFormat)
                 .messages(userMessage)
                 .build();
-        var response = etlProcessor.imageSummary(chatRequest);
+        var response = LLMRequestScheduler.getInstance().execute(
+                LLMRequestScheduler.estimateTokens(PromptTexts.IMAGE_SUMMARY_PROMPT),
+                () -> etlProcessor.imageSummary(chatRequest));
         LoggerHelper.logger.info("Image summary response: " + response);
         return response;
     }
@@ -0,0 +1,67 @@
+package com.leonjr.ldo.parsing.llm;
+
+import com.leonjr.ldo.app.helper.LoggerHelper;
+
+import dev.langchain4j.model.Tokenizer;
+import dev.langchain4j.model.openai.OpenAiTokenizer;
+
+/**
+ * Counts tokens locally, without calling the LLM.
+ *
+ * The tokenizer of the configured model is used when it is known, otherwise
+ * the tokenizer of {@value #FALLBACK_MODEL_NAME} is used as an estimate, which
+ * is close enough for the models served through the generic API.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TokenCounter {
+
+    private static final String FALLBACK_MODEL_NAME = "gpt-4o";
+
+    private static volatile Tokenizer tokenizer;
+
+    private TokenCounter() {
+    }
+
+    /**
+     * Returns the shared tokenizer of the configured model.
+     *
+     * @return the tokenizer
+     */
+    public static Tokenizer getTokenizer() {
+        if (tokenizer == null) {
+            synchronized (TokenCounter.class) {
+                if (tokenizer == null) {
+                    tokenizer = buildTokenizer();
+                }
+            }
+        }
+        return tokenizer;
+    }
+
+    /**
+     * Counts the tokens of a text with the tokenizer of the configured model.
+     *
+     * @param text the text to count, may be null
+     * @return the number of tokens of the text
+     */
+    public static int count(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return getTokenizer().estimateTokenCountInText(text);
+    }
+
+    private static Tokenizer buildTokenizer() {
+        String modelName = FALLBACK_MODEL_NAME;
+        try {
+            modelName = AiHelper.getModelName();
+            return new OpenAiTokenizer(modelName);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            LoggerHelper.logger.info("No local tokenizer for model " + modelName + ", counting tokens as "
+                    + FALLBACK_MODEL_NAME);
+            return new OpenAiTokenizer(FALLBACK_MODEL_NAME);
+        }
+    }
+}
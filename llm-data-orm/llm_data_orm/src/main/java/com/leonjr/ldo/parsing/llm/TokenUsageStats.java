@@ -0,0 +1,61 @@
+package com.leonjr.ldo.parsing.llm;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.leonjr.ldo.app.helper.LoggerHelper;
+
+import dev.langchain4j.model.openai.OpenAiTokenUsage;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * Counts the tokens reported by the LLM provider for the requests of the run.
+ *
+ * The input tokens served from the prompt-prefix cache of the provider are
+ * counted apart, so the share of the prompts reused between requests is
+ * visible in the execution logs. Only providers that report them, such as
+ * OpenAI, have cached tokens.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class TokenUsageStats {
+
+    private static final AtomicLong requests = new AtomicLong(), inputTokens = new AtomicLong(),
+            cachedInputTokens = new AtomicLong(), outputTokens = new AtomicLong();
+
+    private TokenUsageStats() {
+    }
+
+    /**
+     * Records the token usage of a response.
+     *
+     * @param tokenUsage the token usage reported by the provider, may be null
+     */
+    public static void record(TokenUsage tokenUsage) {
+        requests.incrementAndGet();
+        if (tokenUsage == null) {
+            return;
+        }
+        if (tokenUsage.inputTokenCount() != null) {
+            inputTokens.addAndGet(tokenUsage.inputTokenCount());
+        }
+        if (tokenUsage.outputTokenCount() != null) {
+            outputTokens.addAndGet(tokenUsage.outputTokenCount());
+        }
+        if (tokenUsage instanceof OpenAiTokenUsage openAiTokenUsage && openAiTokenUsage.inputTokensDetails() != null
+                && openAiTokenUsage.inputTokensDetails().cachedTokens() != null) {
+            cachedInputTokens.addAndGet(openAiTokenUsage.inputTokensDetails().cachedTokens());
+        }
+    }
+
+    /**
+     * Logs the tokens counted since the start of the application.
+     */
+    public static void logStatistics() {
+        long input = inputTokens.get(), cached = cachedInputTokens.get();
+        double cachedRate = input == 0 ? 0 : (double) cached / input;
+        LoggerHelper.logger.info(String.format(
+                "LLM token usage - requests: %d | input tokens: %d | cached input tokens: %d | uncached input tokens: %d | cached rate: %.2f | output tokens: %d",
+                requests.get(), input, cached, input - cached, cachedRate, outputTokens.get()));
+    }
+}
@@ -0,0 +1,211 @@
+package com.leonjr.ldo.parsing.llm.cache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.helper.HashHelper;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+
+/**
+ * Persistent, content-addressed cache of raw LLM responses.
+ *
+ * Each response is stored in its own file named by the SHA-256 hash of
+ * everything that determines the response (model name, system prompt, table
+ * description and input text), so a re-run over the same documents finds the
+ * responses it already paid for. The cache is bounded by size: when it grows
+ * past the configured limit the least recently used entries are deleted. The
+ * file modification time keeps the LRU order between runs.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class LLMResponseCache {
+
+    private static final String CACHE_FOLDER = "llm-cache";
+    private static final String ENTRY_EXTENSION = ".txt";
+    private static LLMResponseCache instance;
+
+    private final Path directory;
+    private final long maxSizeBytes;
+    // key -> entry size in bytes, kept in access order (eldest first)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long currentSizeBytes;
+
+    private LLMResponseCache(Path directory, long maxSizeBytes) throws IOException {
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+        Files.createDirectories(directory);
+        loadEntries();
+    }
+
+    /**
+     * Returns the response cache configured for the application.
+     *
+     * @return the response cache, or null when the cache is disabled
+     * @throws IOException if the cache directory cannot be created or read
+     */
+    public static synchronized LLMResponseCache getInstance() throws IOException {
+        var appConfig = AppStore.getStartConfigs().getApp();
+        if (!appConfig.isLlmResponseCache()) {
+            return null;
+        }
+        if (instance == null) {
+            instance = new LLMResponseCache(Paths.get(appConfig.getWorkDirectory(), CACHE_FOLDER),
+                    appConfig.getLlmResponseCacheMaxSizeMb() * 1024L * 1024L);
+            LoggerHelper.logger.info("LLM response cache loaded from " + instance.directory + " with "
+                    + instance.entries.size() + " entries (" + instance.currentSizeBytes / 1024 + " KB)");
+        }
+        return instance;
+    }
+
+    /**
+     * Builds a cache key by hashing every part that determines an LLM response.
+     *
+     * @param parts the model name, prompts and inputs of the request
+     * @return the hexadecimal SHA-256 hash of the parts
+     */
+    public static String buildKey(String... parts) {
+        return HashHelper.sha256(parts);
+    }
+
+    /**
+     * Gets a cached response.
+     *
+     * @param key the cache key built with {@link #buildKey(String...)}
+     * @return the cached raw response, or null on a cache miss
+     */
+    public String get(String key) {
+        synchronized (entries) {
+            if (entries.get(key) == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        Path entryPath = entryPath(key);
+        try {
+            String response = Files.readString(entryPath, StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(entryPath, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return response;
+        } catch (IOException e) {
+            LoggerHelper.logger.warn("Could not read LLM cache entry " + key + ": " + e.getMessage());
+            synchronized (entries) {
+                Long size = entries.remove(key);
+                if (size != null) {
+                    currentSizeBytes -= size;
+                }
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Stores a response, evicting the least recently used entries when the cache
+     * grows past its size limit.
+     *
+     * @param key      the cache key built with {@link #buildKey(String...)}
+     * @param response the raw response to store
+     */
+    public void put(String key, String response) {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxSizeBytes) {
+            return;
+        }
+        Path entryPath = entryPath(key);
+        try {
+            Files.createDirectories(entryPath.getParent());
+            Path tempPath = Files.createTempFile(entryPath.getParent(), key, ".tmp");
+            Files.write(tempPath, bytes);
+            Files.move(tempPath, entryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LoggerHelper.logger.warn("Could not write LLM cache entry " + key + ": " + e.getMessage());
+            return;
+        }
+        synchronized (entries) {
+            Long previousSize = entries.put(key, (long) bytes.length);
+            currentSizeBytes += bytes.length - (previousSize == null ? 0 : previousSize);
+            evictEldestEntries();
+        }
+    }
+
+    /**
+     * Logs the hit, miss and eviction counters of the cache.
+     */
+    public void logStatistics() {
+        long totalRequests = hits.get() + misses.get();
+        double hitRate = totalRequests == 0 ? 0 : (double) hits.get() / totalRequests;
+        LoggerHelper.logger.info(String.format(
+                "LLM response cache - hits: %d | misses: %d | hit rate: %.2f | evictions: %d | entries: %d | size: %d KB",
+                hits.get(), misses.get(), hitRate, evictions.get(), entries.size(), currentSizeBytes / 1024));
+    }
+
+    private void evictEldestEntries() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (currentSizeBytes > maxSizeBytes && iterator.hasNext()) {
+            var eldest = iterator.next();
+            try {
+                Files.deleteIfExists(entryPath(eldest.getKey()));
+            } catch (IOException e) {
+                LoggerHelper.logger.warn("Could not delete LLM cache entry " + eldest.getKey() + ": " + e.getMessage());
+            }
+            currentSizeBytes -= eldest.getValue();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void loadEntries() throws IOException {
+        Map<Path, FileTime> modifiedTimes = new HashMap<>();
+        Set<Path> stalePaths = new HashSet<>();
+        List<Path> entryPaths;
+        try (Stream<Path> files = Files.walk(directory)) {
+            entryPaths = files.filter(Files::isRegularFile).toList();
+        }
+        for (Path path : entryPaths) {
+            if (!path.getFileName().toString().endsWith(ENTRY_EXTENSION)) {
+                stalePaths.add(path);
+                continue;
+            }
+            modifiedTimes.put(path, Files.getLastModifiedTime(path));
+        }
+        for (Path stalePath : stalePaths) {
+            Files.deleteIfExists(stalePath);
+        }
+        var sortedPaths = modifiedTimes.keySet().stream()
+                .sorted(Comparator.comparing(modifiedTimes::get))
+                .toList();
+        synchronized (entries) {
+            for (Path path : sortedPaths) {
+                String fileName = path.getFileName().toString();
+                long size = Files.size(path);
+                entries.put(fileName.substring(0, fileName.length() - ENTRY_EXTENSION.length()), size);
+                currentSizeBytes += size;
+            }
+            evictEldestEntries();
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key.substring(0, 2)).resolve(key + ENTRY_EXTENSION);
+    }
+}
@@ -0,0 +1,74 @@
+package com.leonjr.ldo.parsing.llm.prompts;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+
+/**
+ * Renders table descriptions for the prompts in a compact notation, instead
+ * of the JSON of {@link TableDescription#toJson()}.
+ *
+ * Only the columns the LLM must fill are rendered: auto incremental columns
+ * and columns with a default value are left out, unless a hint is given for
+ * them. Each column takes a single line with its name, its type, its size for
+ * character types, "required" when it is not nullable and its hint:
+ *
+ * <pre>
+ * table my_store_table
+ * customer_name varchar(100) required
+ * total_price decimal -- total of the order, without the currency symbol
+ * </pre>
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class PromptSchema {
+
+    private PromptSchema() {
+    }
+
+    /**
+     * Renders a table description.
+     *
+     * @param tableDescription the description of the table
+     * @param columnHints      hints keyed by "table.column", may be null
+     * @return the compact schema of the table
+     */
+    public static String render(TableDescription tableDescription, Map<String, String> columnHints) {
+        StringBuilder schema = new StringBuilder("table ").append(tableDescription.getName());
+        for (ColumnDescription column : tableDescription.getColumns()) {
+            String hint = columnHints == null ? null
+                    : columnHints.get(tableDescription.getName() + "." + column.getName());
+            if (hint == null && (column.isPrimaryKey() || column.getDefaultValue() != null)) {
+                continue;
+            }
+            String type = column.getType() == null ? "" : column.getType().toLowerCase(Locale.ROOT);
+            schema.append('\n').append(column.getName()).append(' ').append(type);
+            if (type.contains("char") && column.getSize() > 0) {
+                schema.append('(').append(column.getSize()).append(')');
+            }
+            if (!column.isNullable()) {
+                schema.append(" required");
+            }
+            if (hint != null && !hint.isBlank()) {
+                schema.append(" -- ").append(hint.trim());
+            }
+        }
+        return schema.toString();
+    }
+
+    /**
+     * Renders the descriptions of several tables, separated by blank lines.
+     *
+     * @param tableDescriptions the descriptions of the tables
+     * @param columnHints       hints keyed by "table.column", may be null
+     * @return the compact schemas of the tables
+     */
+    public static String render(List<TableDescription> tableDescriptions, Map<String, String> columnHints) {
+        return String.join("\n\n",
+                tableDescriptions.stream().map(tableDescription -> render(tableDescription, columnHints)).toList());
+    }
+}
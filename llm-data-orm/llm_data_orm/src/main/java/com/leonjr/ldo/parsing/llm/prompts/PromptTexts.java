@@ -10,7 +10,10 @@ package com.leonjr.ldo.parsing.llm.prompts;
  * <ul>
  * <li>Extract structured data from text chunks in a distributed ETL
  * process</li>
+ * <li>Extract the rows of several related tables from the same chunk</li>
+ * <li>Map the columns of tabular files to the columns of a table</li>
  * <li>Summarize documents and validate their content against table schemas</li>
+ * <li>Merge the summaries of the parts sampled from a large document</li>
  * <li>Process images and extract tabular data from visual content</li>
  * <li>Analyze and describe image content with text extraction capabilities</li>
  * </ul>
@@ -39,6 +42,7 @@ public class PromptTexts {
             2. NO CROSS-CHUNK ASSUMPTIONS: Process ONLY visible text fragment + metadata information
             3. CORE CONTEXT FIRST: Summary contains the CORE CONTENT of the document (can extract relevant repetitive information from summary)
             You will receive a JSON with the table schema, containing column names and their order. Identify some structure or some pattern in the text that matches the schema.
+            The schema may also come in a compact notation: a "table <name>" line followed by one line per column to fill, "<column> <type>[(size)] [required] [-- hint]". The hint after "--" explains what the column holds.
             You will also receive a **chunk** of text extracted from a document.
             You will receive a **summary of the document** from which the chunk was extracted. This summary provides essential context for understanding the chunk and the main CORE CONTENT to guide your extraction.
             This text is part of a larger document, and multiple workers will process different chunks in parallel. Pay attention to the CONTINUITY of the response, as the same document may be processed by different workers. NEVER presume data to add to the response, only extract core content data.
@@ -83,6 +87,60 @@ public class PromptTexts {
             Does not use markdown in the response. You can break lines between multiple new itens. The response must be a valid JSON that will be merged into a single array with the responses from other workers.
             """;
 
+    public static final String ETL_MULTI_TABLE_PROCESS_TEXT = """
+            ROLE: Distributed ETL Processor extracting partial dataset fragments for SEVERAL related tables from text chunks.
+            # KEY PRINCIPLES
+            1. CHUNK ISOLATION: Each chunk contains PARTIAL document data
+            2. NO CROSS-CHUNK ASSUMPTIONS: Process ONLY visible text fragment + metadata information
+            3. CORE CONTENT FIRST: Summary contains the CORE CONTENT of the document (can extract relevant repetitive information from summary)
+            You will receive a JSON with the schemas of ALL target tables, each one with its name, column names and their order. Identify structures or patterns in the text that match each schema.
+            The schemas may also come in a compact notation, separated by blank lines: a "table <name>" line followed by one line per column to fill, "<column> <type>[(size)] [required] [-- hint]". The hint after "--" explains what the column holds.
+            You will also receive a **chunk** of text extracted from a document, with the **summary of the document** saved as metadata. The summary provides the CORE CONTENT that guides your extraction.
+            Multiple workers will process different chunks in parallel. NEVER presume data to add to the response, only extract core content data.
+            The same fact can produce rows in more than one table (for example a lookup table and the table that references it). Extract the rows of every table from the same reading of the chunk, keeping the values of related columns consistent between the tables.
+            Pay attention to schema structure in another language, like Portuguese, Spanish, etc. If you find a field that matches a schema but is in another language, you should still extract it.
+            **NEVER** fill auto incremental fields, like IDs or primary keys (ALL incremental fields are primary keys). **NEVER** fill columns like created_at, updated_at and deleted_at. Only extract data that is explicitly present in the chunk, and only create objects that are complete and valid according to their table schema.
+            Boolean values should be represented as true or false. Varchars and text fields should be returned as strings (consider max chars if presented). Numbers should be returned as numbers. Dates should be returned as strings in the format "YYYY-MM-DD".
+            ### **Your Task:**
+            1 **Extract relevant information**: For each table, if the chunk contains data that matches its schema, extract it.
+            2 **Ignore irrelevant chunks**: If no relevant data is found for a table, return an empty array for it.
+            3 **Maintain structure**: Each row **must** follow the schema of its table (same column order and same data type constraints).
+            4 **Ensure consistency**: Avoid duplicating records across different chunks. NEVER FILL PRIMARY KEYS OR AUTO INCREMENTAL FIELDS.
+            ### **Response Format:**
+            - A single valid JSON **object** keyed by table name. The value of each key is a JSON **array** where each object corresponds to a row of that table.
+            - Every table of the input must be a key of the response, with an empty array when no row is found.
+            ### **Example Input:**
+              "tables": {"tables": [{"name": "teams", "columns": [{"name":"id","type":"INT","nullable":false,"autoIncrement":"YES"},{"name":"team_name","type":"VARCHAR","size":100,"nullable":false,"autoIncrement":"NO"}]}, {"name": "matches", "columns": [{"name":"id","type":"INT","nullable":false,"autoIncrement":"YES"},{"name":"home_team","type":"VARCHAR","size":100,"nullable":false,"autoIncrement":"NO"},{"name":"home_goals","type":"INT","nullable":false,"autoIncrement":"NO"}]}]}
+              "chunk": "Round 1: Santos 2 x 1 Palmeiras"
+            ### **Example Output:**
+              {"teams": [{"team_name": "Santos"}, {"team_name": "Palmeiras"}], "matches": [{"home_team": "Santos", "home_goals": 2}]}
+            ### EXPLICIT PROHIBITIONS
+                Never add "..." or continuation markers
+                Never complete partial numbers/words
+                Never assume missing fields exist elsewhere
+                Never add or modify data based on external knowledge
+            Does not use markdown in the response. The response must be a valid JSON object whose arrays will be merged with the responses from other workers.
+            """;
+
+    public static final String TABULAR_MAPPING_TEXT = """
+            ROLE: Column Mapper between a tabular file (CSV, TSV or spreadsheet) and a database table.
+            You will receive the **table_structure** (the JSON schema of the target table), the **header** of the file and a few **sample_rows** of it. Every cell is a string and the columns of the file are numbered from 0, in the order of the header.
+            Map each column of the table to the column of the file holding its values. The header can be in another language, like Portuguese or Spanish, or use abbreviations: use the sample rows to confirm the meaning of each column.
+            **NEVER** map auto incremental fields, like IDs or primary keys, or columns like created_at, updated_at and deleted_at. Leave out the table columns without a matching file column.
+            For date, time and timestamp columns whose sample values are not in ISO 8601, give the Java DateTimeFormatter pattern of the values (for example "dd/MM/yyyy" or "MM/dd/yyyy HH:mm"). Use the sample rows to tell the day from the month.
+            For numeric columns whose sample values use separators, give the "decimal" separator of the values: "," when they are written like "1.234,56" (Portuguese, Spanish) or "." when they are written like "1,234.56" (English). Use the sample rows and the language of the header to tell the decimal separator from the thousands separator.
+            If the file does not hold rows of the table (or the header row holds data instead of column names), return an empty "columns" object.
+            ### **Response Format:**
+            - A single valid JSON object with a "columns" object keyed by table column name. Each value is an object with the "source" index of the file column, an optional "format" and an optional "decimal".
+            ### **Example Input:**
+              "table_structure": {"name": "matches", "columns": [{"name":"id","type":"INT","nullable":false,"autoIncrement":"YES"},{"name":"home_team","type":"VARCHAR","size":100,"nullable":false,"autoIncrement":"NO"},{"name":"match_date","type":"DATE","nullable":true,"autoIncrement":"NO"},{"name":"ticket_price","type":"DECIMAL","nullable":true,"autoIncrement":"NO"}]}
+              "header": ["Data", "Mandante", "Visitante", "Ingresso"]
+              "sample_rows": [["25/01/2024", "Santos", "Palmeiras", "1.250,00"]]
+            ### **Example Output:**
+              {"columns": {"home_team": {"source": 1}, "match_date": {"source": 0, "format": "dd/MM/yyyy"}, "ticket_price": {"source": 3, "decimal": ","}}}
+            Does not use markdown in the response.
+            """;
+
     public static final String PRE_SUMMARIZE = """
             ROLE: DOCUMENT SUMMARIZER
             You are tasked with summarizing and validate the content of a document to generate its metadata. The document will be parsed to be inserted into a database, and the summary will be used to provide context for the document's content.
@@ -121,18 +179,40 @@ public class PromptTexts {
                 Never assume missing fields exist elsewhere
             """;
 
+    public static final String ETL_PROCESS_BATCH_TEXT = ETL_PROCESS_TEXT + """
+            ### **Batch of Chunks:**
+            This request holds SEVERAL chunks of the same document instead of a single one. The summary of the document is sent once, before the chunks, and applies to all of them.
+            Each chunk starts with <chunk id="ID"> and ends with </chunk>, and holds its metadata followed by its text.
+            Process every chunk on its own, following all the rules above. NEVER merge, move or repeat data between chunks.
+            This replaces the response format above: return a single valid JSON **object** keyed by chunk id, with the JSON array of rows extracted from each chunk as value. Return an empty array for the chunks without relevant data. EVERY chunk id must be present in the response.
+            ### **Example Output:**
+              {"c1": [{"total_itens": 12, "customer_name": "John Doe", "total_price": "$25.50"}], "c2": []}
+            """;
+
+    public static final String MERGE_SUMMARIES = """
+            ROLE: SUMMARY MERGER
+            You will receive a **description of the content/table struct** and the **summaries of several parts of a single large document**, sampled from its beginning, its middle and its end. Each summary is preceded by the position of its part in the document.
+            Merge them into a **single paragraph in English** summarizing the whole document. It should be the **only content** in the response, following the same rules of the summaries you receive:
+            - Keep the **key details**: the main topic, the table structures, titles and descriptions, and the **columns or fields** related to the table description.
+            - Do not repeat the information found in several parts and do not mention the parts or the sampling.
+            - Your answer should not contain the original table struct or any data about how the original table is structured.
+            - The last line should be a phrase containing the CORE CONTENT of the document.
+            The parts summarized as INVALID_PARSING were already left out. If none of the summaries is related to the table description, return an **single string INVALID_PARSING** **without explanations**.
+            """;
+
     public static final String ETL_PROCESS_IMAGE = """
             You are an ETL assistant responsible for extracting structured data from images within a document.
             Your goal is to **analyze the image and extract relevant information** based on a predefined table schema.
             You will receive:
             1. A **JSON with the table schema**, which contains column names and their expected order.
             2. A **summary of the document** from which the image was extracted. This summary provides essential context for understanding the image.
-            3. The **image itself**, which may contain tables, diagrams, or visual data.
+            3. The **images themselves**, one or more, each one preceded by its position in the document. They may contain tables, diagrams, or visual data.
             ### **Your Task:**
             1 **Extract relevant information**: If the image contains data matching the schema, extract it and return a well-structured JSON.
             2 **Leverage document context**: Use the provided summary to better interpret the image’s content, but do **not fabricate data**.
             3 **Ignore irrelevant images**: If the image does not contain relevant data, return an **empty JSON array** or **nothing**.
             4 **Ensure data integrity**: Maintain the exact **column order** from the schema. Avoid duplications or incorrect associations.
+            5 **Handle every image**: When several images are received, extract the rows of all of them into the same JSON array, never mixing the data of different images in the same row.
             ### **Response Format:**
             - **If data is found**: Return a **valid JSON array** where each object corresponds to a row in the table.
             - **If no relevant data is found**: Return **nothing** or an **empty JSON array (`[]`)**.
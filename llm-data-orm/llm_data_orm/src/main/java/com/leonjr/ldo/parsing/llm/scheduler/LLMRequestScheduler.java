@@ -0,0 +1,222 @@
+package com.leonjr.ldo.parsing.llm.scheduler;
+
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.util.concurrent.RateLimiter;
+import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+import com.leonjr.ldo.app.models.AppConfig;
+
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.exception.NonRetriableException;
+import dev.langchain4j.exception.RateLimitException;
+import dev.langchain4j.exception.TimeoutException;
+
+/**
+ * Single scheduler for every request sent to the LLM provider.
+ *
+ * <p>
+ * All parsers, summarizers and validators share the same request and token
+ * budgets, no matter how many threads are calling the model. The request rate
+ * adapts with AIMD (additive increase, multiplicative decrease): each
+ * successful request raises the rate a little up to the configured limit, and
+ * a 429 or timeout cuts it in half. The requests that were already running
+ * when the rate was cut belong to the same window, so their failures do not
+ * cut it again. When the provider sends a Retry-After header every request
+ * waits the requested delay before going out again.
+ * The number of requests running at the same time is bounded by a semaphore,
+ * so the concurrency follows the LLM budget instead of the number of threads.
+ * </p>
+ *
+ * <p>
+ * Failed requests are retried with exponential backoff and jitter, except for
+ * errors that will not change on retry (authentication, invalid request,
+ * unknown model).
+ * </p>
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class LLMRequestScheduler {
+
+    private static final double MIN_REQUESTS_PER_SECOND = 0.1;
+    private static final double RATE_DECREASE_FACTOR = 0.5;
+    private static final double RATE_INCREASE_FRACTION = 0.05;
+    private static final long INITIAL_BACKOFF_MS = 600;
+    private static final long MAX_BACKOFF_MS = 60000;
+    private static final int CHARS_PER_TOKEN = 4;
+    private static LLMRequestScheduler instance;
+
+    private final double maxRequestsPerSecond;
+    private final int maxRetries;
+    private final Semaphore concurrentRequests;
+    private final RateLimiter requestLimiter;
+    private final RateLimiter tokenLimiter;
+    private final int maxTokensPerAcquire;
+    private volatile long pausedUntilMillis;
+    private boolean rateDecreased;
+    private long lastDecreaseNanos;
+
+    LLMRequestScheduler(AppConfig appConfig) {
+        this.maxRequestsPerSecond = Math.max(MIN_REQUESTS_PER_SECOND, appConfig.getLlmRequestsPerSecond());
+        this.maxRetries = Math.max(1, appConfig.getLlmMaxRetries());
+        this.concurrentRequests = new Semaphore(Math.max(1, appConfig.getLlmMaxConcurrentRequests()), true);
+        this.requestLimiter = RateLimiter.create(maxRequestsPerSecond);
+        int tokensPerMinute = appConfig.getLlmTokensPerMinute();
+        this.tokenLimiter = tokensPerMinute > 0 ? RateLimiter.create(tokensPerMinute / 60d) : null;
+        this.maxTokensPerAcquire = Math.max(1, tokensPerMinute);
+    }
+
+    /**
+     * Returns the scheduler configured for the application.
+     *
+     * @return the shared LLMRequestScheduler instance
+     */
+    public static synchronized LLMRequestScheduler getInstance() {
+        if (instance == null) {
+            instance = new LLMRequestScheduler(AppStore.getStartConfigs().getApp());
+        }
+        return instance;
+    }
+
+    /**
+     * Estimates the number of tokens of a request from its text size.
+     *
+     * @param texts the texts sent in the request
+     * @return the estimated number of tokens
+     */
+    public static int estimateTokens(String... texts) {
+        long chars = 0;
+        for (String text : texts) {
+            chars += text == null ? 0 : text.length();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, chars / CHARS_PER_TOKEN + 1);
+    }
+
+    /**
+     * Runs an LLM request inside the request and token budgets, retrying it when
+     * it fails with a retriable error.
+     *
+     * @param estimatedTokens the estimated number of tokens of the request
+     * @param request         the LLM request
+     * @return the result of the request
+     * @throws Exception if the request fails with a non retriable error or after
+     *                   all retry attempts
+     */
+    public <T> T execute(int estimatedTokens, Callable<T> request) throws Exception {
+        long backoff = INITIAL_BACKOFF_MS;
+        for (int attempt = 1;; attempt++) {
+            long delay;
+            long startNanos = 0;
+            concurrentRequests.acquire();
+            try {
+                awaitPermits(estimatedTokens);
+                startNanos = System.nanoTime();
+                T result = request.call();
+                onSuccess();
+                return result;
+            } catch (Exception e) {
+                if (isNonRetriable(e) || attempt >= maxRetries) {
+                    throw e;
+                }
+                Duration retryAfter = findRetryAfter(e);
+                if (isThrottling(e)) {
+                    onThrottling(startNanos, retryAfter);
+                }
+                delay = retryAfter != null ? retryAfter.toMillis()
+                        : backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                LoggerHelper.logger.warn("LLM request attempt " + attempt + " failed: " + e.getMessage()
+                        + ". Retrying in " + delay + "ms (rate: " + String.format("%.2f", getCurrentRate())
+                        + " req/s)...");
+            } finally {
+                // the slot is given back while waiting, so retries do not hold it
+                concurrentRequests.release();
+            }
+            Thread.sleep(delay);
+            backoff = Math.min(MAX_BACKOFF_MS, backoff * 2);
+        }
+    }
+
+    /**
+     * @return the current request rate in requests per second
+     */
+    public double getCurrentRate() {
+        return requestLimiter.getRate();
+    }
+
+    private void awaitPermits(int estimatedTokens) throws InterruptedException {
+        long pause = pausedUntilMillis - System.currentTimeMillis();
+        if (pause > 0) {
+            Thread.sleep(pause);
+        }
+        requestLimiter.acquire();
+        if (tokenLimiter != null) {
+            tokenLimiter.acquire(Math.max(1, Math.min(estimatedTokens, maxTokensPerAcquire)));
+        }
+    }
+
+    private synchronized void onSuccess() {
+        double rate = requestLimiter.getRate();
+        if (rate < maxRequestsPerSecond) {
+            requestLimiter.setRate(Math.min(maxRequestsPerSecond, rate + maxRequestsPerSecond * RATE_INCREASE_FRACTION));
+        }
+    }
+
+    private synchronized void onThrottling(long startNanos, Duration retryAfter) {
+        if (retryAfter != null) {
+            pausedUntilMillis = Math.max(pausedUntilMillis, System.currentTimeMillis() + retryAfter.toMillis());
+        }
+        // requests sent before the last decrease were throttled by the old rate
+        if (rateDecreased && startNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        double rate = Math.max(MIN_REQUESTS_PER_SECOND, requestLimiter.getRate() * RATE_DECREASE_FACTOR);
+        requestLimiter.setRate(rate);
+        rateDecreased = true;
+        lastDecreaseNanos = System.nanoTime();
+        LoggerHelper.logger.warn("LLM provider is throttling requests, request rate lowered to "
+                + String.format("%.2f", rate) + " req/s");
+    }
+
+    private static boolean isNonRetriable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof NonRetriableException || cause instanceof InterruptedException) {
+                return true;
+            }
+            if (cause instanceof HttpException httpException) {
+                int status = httpException.statusCode();
+                return status >= 400 && status < 500 && status != 408 && status != 409 && status != 429;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isThrottling(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RateLimitException || cause instanceof TimeoutException
+                    || cause instanceof HttpTimeoutException || cause instanceof SocketTimeoutException
+                    || cause instanceof java.util.concurrent.TimeoutException) {
+                return true;
+            }
+            if (cause instanceof HttpException httpException
+                    && (httpException.statusCode() == 429 || httpException.statusCode() == 408)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Duration findRetryAfter(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetryAfterHttpException retryAfterException) {
+                return retryAfterException.retryAfter();
+            }
+        }
+        return null;
+    }
+}
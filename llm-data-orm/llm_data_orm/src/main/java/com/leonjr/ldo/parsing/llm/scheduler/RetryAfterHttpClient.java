@@ -0,0 +1,107 @@
+package com.leonjr.ldo.parsing.llm.scheduler;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.http.client.HttpClient;
+import dev.langchain4j.http.client.HttpRequest;
+import dev.langchain4j.http.client.SuccessfulHttpResponse;
+import dev.langchain4j.http.client.sse.ServerSentEventListener;
+import dev.langchain4j.http.client.sse.ServerSentEventParser;
+
+/**
+ * HTTP client used by the chat models that behaves like the default JDK client
+ * but keeps the Retry-After headers of failed responses, so the
+ * {@link LLMRequestScheduler} can wait exactly what the provider asked for.
+ */
+public class RetryAfterHttpClient implements HttpClient {
+
+    private final java.net.http.HttpClient delegate;
+    private final HttpClient streamingDelegate;
+    private final Duration readTimeout;
+
+    RetryAfterHttpClient(java.net.http.HttpClient delegate, HttpClient streamingDelegate, Duration readTimeout) {
+        this.delegate = delegate;
+        this.streamingDelegate = streamingDelegate;
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public SuccessfulHttpResponse execute(HttpRequest request) throws HttpException, RuntimeException {
+        try {
+            HttpResponse<String> response = delegate.send(toJdkRequest(request),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() < 200 || response.statusCode() >= 300) {
+                throw new RetryAfterHttpException(response.statusCode(), response.body(), parseRetryAfter(response));
+            }
+            return SuccessfulHttpResponse.builder()
+                    .statusCode(response.statusCode())
+                    .headers(response.headers().map())
+                    .body(response.body())
+                    .build();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void execute(HttpRequest request, ServerSentEventParser parser, ServerSentEventListener listener) {
+        streamingDelegate.execute(request, parser, listener);
+    }
+
+    private java.net.http.HttpRequest toJdkRequest(HttpRequest request) {
+        var builder = java.net.http.HttpRequest.newBuilder().uri(URI.create(request.url()));
+        request.headers().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        builder.method(request.method().name(), request.body() != null
+                ? java.net.http.HttpRequest.BodyPublishers.ofString(request.body())
+                : java.net.http.HttpRequest.BodyPublishers.noBody());
+        if (readTimeout != null) {
+            builder.timeout(readTimeout);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the delay requested by the provider. The retry-after-ms header is
+     * preferred since it is more precise, then Retry-After in seconds or as an
+     * HTTP date.
+     *
+     * @param response the failed response
+     * @return the requested delay, or null if the provider did not send one
+     */
+    private static Duration parseRetryAfter(HttpResponse<String> response) {
+        Optional<String> retryAfterMs = response.headers().firstValue("retry-after-ms");
+        if (retryAfterMs.isPresent()) {
+            try {
+                return Duration.ofMillis((long) Double.parseDouble(retryAfterMs.get().trim()));
+            } catch (NumberFormatException e) {
+                // falls back to Retry-After
+            }
+        }
+        Optional<String> retryAfter = response.headers().firstValue("retry-after");
+        if (retryAfter.isEmpty()) {
+            return null;
+        }
+        String value = retryAfter.get().trim();
+        try {
+            return Duration.ofMillis((long) (Double.parseDouble(value) * 1000));
+        } catch (NumberFormatException e) {
+            try {
+                var retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                var delay = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            } catch (Exception dateException) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.leonjr.ldo.parsing.llm.scheduler;
+
+import java.time.Duration;
+
+import dev.langchain4j.http.client.HttpClient;
+import dev.langchain4j.http.client.HttpClientBuilder;
+import dev.langchain4j.http.client.jdk.JdkHttpClientBuilder;
+
+/**
+ * Builds the {@link RetryAfterHttpClient} used by the chat models.
+ */
+public class RetryAfterHttpClientBuilder implements HttpClientBuilder {
+
+    private Duration connectTimeout;
+    private Duration readTimeout;
+
+    @Override
+    public Duration connectTimeout() {
+        return connectTimeout;
+    }
+
+    @Override
+    public HttpClientBuilder connectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    @Override
+    public Duration readTimeout() {
+        return readTimeout;
+    }
+
+    @Override
+    public HttpClientBuilder readTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    @Override
+    public HttpClient build() {
+        var jdkClientBuilder = java.net.http.HttpClient.newBuilder();
+        if (connectTimeout != null) {
+            jdkClientBuilder.connectTimeout(connectTimeout);
+        }
+        var streamingDelegate = new JdkHttpClientBuilder()
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .build();
+        return new RetryAfterHttpClient(jdkClientBuilder.build(), streamingDelegate, readTimeout);
+    }
+}
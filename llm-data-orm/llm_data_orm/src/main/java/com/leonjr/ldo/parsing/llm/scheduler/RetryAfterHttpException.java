@@ -0,0 +1,26 @@
+package com.leonjr.ldo.parsing.llm.scheduler;
+
+import java.time.Duration;
+
+import dev.langchain4j.exception.HttpException;
+
+/**
+ * HTTP error returned by the LLM provider that keeps the delay requested by
+ * the provider in the Retry-After headers, when it was sent.
+ */
+public class RetryAfterHttpException extends HttpException {
+
+    private final Duration retryAfter;
+
+    public RetryAfterHttpException(int statusCode, String message, Duration retryAfter) {
+        super(statusCode, message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return the delay requested by the provider, or null if none was sent
+     */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,383 @@
+package com.leonjr.ldo.pipeline;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leonjr.ldo.AppStore;
+import com.leonjr.ldo.app.helper.HashHelper;
+import com.leonjr.ldo.app.helper.JsonHelper;
+import com.leonjr.ldo.app.helper.LoggerHelper;
+
+import dev.langchain4j.data.document.Document;
+
+/**
+ * Append-only journal of an ETL run.
+ *
+ * Every finished step is written as one JSON line in
+ * {@code workDirectory/runs/<runId>.jsonl}: the summary of each document, the
+ * rows parsed from each chunk, the chunks committed by a streaming insert and
+ * the documents inserted into the database.
+ * When a run is resumed the journal is read back and the finished steps are
+ * skipped, so a run that died halfway does not pay again for the LLM calls it
+ * already made. A line cut by a crash is ignored on resume.
+ *
+ * The parsed rows are only written to the file. They are kept in memory only
+ * when read back by a resume, and dropped once their document is inserted, so
+ * the journal does not hold the rows of a run on the heap.
+ *
+ * Documents are identified by the hash of their file name, folder and text, so
+ * the journal stays valid when the documents are loaded in a different order.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class RunJournal {
+
+    private static final String RUNS_FOLDER = "runs";
+    private static final String JOURNAL_EXTENSION = ".jsonl";
+    private static final DateTimeFormatter RUN_ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final String EVENT_RUN = "run";
+    private static final String EVENT_SUMMARIZED = "summarized";
+    private static final String EVENT_CHUNK = "chunk";
+    private static final String EVENT_CHUNKS_INSERTED = "chunksInserted";
+    private static final String EVENT_INSERTED = "inserted";
+
+    private final String runId;
+    private final Path path;
+    private final BufferedWriter writer;
+    private final Map<String, String> summaries = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, ArrayNode>> chunkRows = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> insertedChunks = new ConcurrentHashMap<>();
+    private final Map<String, Integer> insertedDocuments = new ConcurrentHashMap<>();
+
+    private RunJournal(String runId, Path path) throws IOException {
+        this.runId = runId;
+        this.path = path;
+        Files.createDirectories(path.getParent());
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Starts the journal of a new run.
+     *
+     * @param tableName the table loaded by the run
+     * @param source    the file or folder processed by the run
+     * @return the journal of the new run
+     * @throws IOException if the journal file cannot be created
+     */
+    public static RunJournal start(String tableName, String source) throws IOException {
+        return start(newRunId(), tableName, source);
+    }
+
+    /**
+     * Starts the journal of a new run with the given id.
+     *
+     * @param runId     the id of the run, see {@link #newRunId()}
+     * @param tableName the table loaded by the run
+     * @param source    the file or folder processed by the run
+     * @return the journal of the new run
+     * @throws IOException if the journal file cannot be created
+     */
+    public static RunJournal start(String runId, String tableName, String source) throws IOException {
+        var journal = new RunJournal(runId, journalPath(runId));
+        ObjectNode event = journal.newEvent(EVENT_RUN);
+        event.put("runId", runId);
+        event.put("table", tableName);
+        event.put("source", source);
+        event.put("startedAt", LocalDateTime.now().toString());
+        journal.append(event);
+        LoggerHelper.logger.info("Run journal started at " + journal.path + ". Use --resume " + runId
+                + " to continue this run if it stops.");
+        return journal;
+    }
+
+    /**
+     * Resumes the journal of a previous run, loading every step it recorded.
+     *
+     * @param runId     the id of the run to resume
+     * @param tableName the table loaded by the current execution, must be the
+     *                  same of the resumed run
+     * @return the journal of the resumed run
+     * @throws IOException if the journal does not exist, cannot be read or
+     *                     belongs to another table
+     */
+    public static RunJournal resume(String runId, String tableName) throws IOException {
+        if (!runId.matches("[A-Za-z0-9_-]+")) {
+            throw new IOException("Invalid run id: " + runId);
+        }
+        Path path = journalPath(runId);
+        if (!Files.exists(path)) {
+            throw new IOException("Run journal not found for run " + runId + ": " + path);
+        }
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        var journal = new RunJournal(runId, path);
+        for (int i = 0; i < lines.size(); i++) {
+            if (lines.get(i).isBlank()) {
+                continue;
+            }
+            JsonNode event;
+            try {
+                event = JsonHelper.getObjectMapper().readTree(lines.get(i));
+            } catch (IOException e) {
+                LoggerHelper.logger.warn("Ignoring unreadable line " + (i + 1) + " of run journal " + path);
+                continue;
+            }
+            journal.load(event, tableName);
+        }
+        LoggerHelper.logger.info("Resuming run " + runId + ": " + journal.summaries.size()
+                + " documents summarized, " + journal.chunkRows.values().stream().mapToInt(Map::size).sum()
+                + " chunks parsed, " + journal.insertedDocuments.size() + " documents inserted");
+        return journal;
+    }
+
+    /**
+     * Creates the id of a new run, made of the start time and a random suffix.
+     *
+     * @return the new run id
+     */
+    public static String newRunId() {
+        return LocalDateTime.now().format(RUN_ID_FORMAT) + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Builds the id of the journal of one table of a run that loads several
+     * tables. Each table keeps its own journal, all of them resumed with the id
+     * of the run.
+     *
+     * @param runId     the id of the run
+     * @param tableName the table loaded by the journal
+     * @return the id of the journal of the table
+     */
+    public static String tableRunId(String runId, String tableName) {
+        return runId + "-" + tableName.replaceAll("[^A-Za-z0-9_-]", "_");
+    }
+
+    /**
+     * Builds the key that identifies a document in the journal.
+     *
+     * @param document the extracted document
+     * @return the hash of the document file name, folder and text
+     */
+    public static String documentKey(Document document) {
+        return HashHelper.sha256(document.metadata().getString("file_name"),
+                document.metadata().getString("absolute_directory_path"), document.text());
+    }
+
+    /**
+     * Builds the key that identifies a chunk in the journal. Chunks are keyed by
+     * their text, so a change in the segmentation only parses the chunks that
+     * actually changed.
+     *
+     * @param chunkText the text sent to the LLM for the chunk
+     * @return the hash of the chunk text
+     */
+    public static String chunkKey(String chunkText) {
+        return HashHelper.sha256(chunkText);
+    }
+
+    /**
+     * Builds the key that identifies a partition of the rows of a document,
+     * inserted in its own transaction, in the journal. Partitions are recorded
+     * as inserted chunks and keyed by their rows, so a resumed run skips the
+     * partitions that were committed.
+     *
+     * @param rows      the rows of the document
+     * @param fromIndex the index of the first row of the partition, inclusive
+     * @param toIndex   the index of the last row of the partition, exclusive
+     * @return the hash of the rows of the partition
+     */
+    public static String partitionKey(JsonNode rows, int fromIndex, int toIndex) {
+        StringBuilder partitionRows = new StringBuilder("rows");
+        for (int i = fromIndex; i < toIndex; i++) {
+            partitionRows.append('\n').append(rows.get(i));
+        }
+        return chunkKey(partitionRows.toString());
+    }
+
+    /**
+     * @return the id of the run
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * @param documentKey the key of the document
+     * @return the summary recorded for the document, or null if it was not
+     *         summarized yet
+     */
+    public String getSummary(String documentKey) {
+        return summaries.get(documentKey);
+    }
+
+    /**
+     * @param documentKey the key of the document
+     * @param chunkKey    the key of the chunk, see {@link #chunkKey(String)}
+     * @return the rows recorded for the chunk, or null if it was not parsed yet
+     */
+    public ArrayNode getChunkRows(String documentKey, String chunkKey) {
+        var rows = chunkRows.get(documentKey);
+        return rows == null ? null : rows.get(chunkKey);
+    }
+
+    /**
+     * @param documentKey the key of the document
+     * @param chunkKey    the key of the chunk
+     * @return true if the rows of the chunk were already committed by a streaming
+     *         insert
+     */
+    public boolean isChunkInserted(String documentKey, String chunkKey) {
+        var chunks = insertedChunks.get(documentKey);
+        return chunks != null && chunks.contains(chunkKey);
+    }
+
+    /**
+     * @param documentKey the key of the document
+     * @return true if the document was already inserted into the database
+     */
+    public boolean isInserted(String documentKey) {
+        return insertedDocuments.containsKey(documentKey);
+    }
+
+    /**
+     * Records the summary of a document.
+     *
+     * @param documentKey the key of the document
+     * @param summary     the summary returned by the LLM
+     */
+    public void recordSummary(String documentKey, String summary) {
+        summaries.put(documentKey, summary);
+        ObjectNode event = newEvent(EVENT_SUMMARIZED);
+        event.put("document", documentKey);
+        event.put("summary", summary);
+        append(event);
+    }
+
+    /**
+     * Records the rows parsed from a chunk. The rows are written to the journal
+     * file only, a resumed run reads them back.
+     *
+     * @param documentKey the key of the document
+     * @param chunkKey    the key of the chunk, see {@link #chunkKey(String)}
+     * @param rows        the rows parsed from the chunk
+     */
+    public void recordChunkRows(String documentKey, String chunkKey, ArrayNode rows) {
+        ObjectNode event = newEvent(EVENT_CHUNK);
+        event.put("document", documentKey);
+        event.put("chunk", chunkKey);
+        event.set("rows", rows);
+        append(event);
+    }
+
+    /**
+     * Records the chunks committed by a transaction of a streaming insert.
+     *
+     * @param documentKey the key of the document
+     * @param chunkKeys   the keys of the committed chunks
+     */
+    public void recordChunksInserted(String documentKey, List<String> chunkKeys) {
+        insertedChunks.computeIfAbsent(documentKey, key -> ConcurrentHashMap.newKeySet()).addAll(chunkKeys);
+        ObjectNode event = newEvent(EVENT_CHUNKS_INSERTED);
+        event.put("document", documentKey);
+        ArrayNode chunks = event.putArray("chunks");
+        chunkKeys.forEach(chunks::add);
+        append(event);
+    }
+
+    /**
+     * Records that a document was inserted into the database. The rows of its
+     * chunks read back by a resume are dropped.
+     *
+     * @param documentKey the key of the document
+     * @param rows        the number of rows inserted
+     */
+    public void recordInserted(String documentKey, int rows) {
+        insertedDocuments.put(documentKey, rows);
+        chunkRows.remove(documentKey);
+        insertedChunks.remove(documentKey);
+        ObjectNode event = newEvent(EVENT_INSERTED);
+        event.put("document", documentKey);
+        event.put("rows", rows);
+        append(event);
+    }
+
+    /**
+     * Closes the journal file.
+     */
+    public synchronized void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            LoggerHelper.logger.warn("Could not close run journal " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void load(JsonNode event, String tableName) throws IOException {
+        String documentKey = event.path("document").asText();
+        switch (event.path("event").asText()) {
+            case EVENT_RUN -> {
+                String journalTable = event.path("table").asText();
+                if (!journalTable.equalsIgnoreCase(tableName)) {
+                    throw new IOException("Run " + runId + " was started for table " + journalTable
+                            + " and cannot be resumed for table " + tableName);
+                }
+            }
+            case EVENT_SUMMARIZED -> summaries.put(documentKey, event.path("summary").asText());
+            case EVENT_CHUNK -> {
+                if (event.path("rows").isArray()) {
+                    chunkRows.computeIfAbsent(documentKey, key -> new ConcurrentHashMap<>())
+                            .put(event.path("chunk").asText(), (ArrayNode) event.get("rows"));
+                }
+            }
+            case EVENT_CHUNKS_INSERTED -> {
+                var chunks = insertedChunks.computeIfAbsent(documentKey, key -> ConcurrentHashMap.newKeySet());
+                event.path("chunks").forEach(chunk -> chunks.add(chunk.asText()));
+            }
+            case EVENT_INSERTED -> {
+                insertedDocuments.put(documentKey, event.path("rows").asInt());
+                chunkRows.remove(documentKey);
+                insertedChunks.remove(documentKey);
+            }
+            default -> LoggerHelper.logger.warn("Ignoring unknown event in run journal " + path + ": " + event);
+        }
+    }
+
+    private ObjectNode newEvent(String type) {
+        ObjectNode event = JsonHelper.getObjectMapper().createObjectNode();
+        event.put("event", type);
+        return event;
+    }
+
+    private synchronized void append(ObjectNode event) {
+        try {
+            writer.write(event.toString());
+            writer.newLine();
+            // each step is flushed so it survives a crash of the process
+            writer.flush();
+        } catch (IOException e) {
+            LoggerHelper.logger.error("Could not write to run journal " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static Path journalPath(String runId) {
+        return Paths.get(AppStore.getStartConfigs().getApp().getWorkDirectory(), RUNS_FOLDER,
+                runId + JOURNAL_EXTENSION);
+    }
+}
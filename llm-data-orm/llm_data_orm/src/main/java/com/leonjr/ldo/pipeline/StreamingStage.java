@@ -0,0 +1,155 @@
+package com.leonjr.ldo.pipeline;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.leonjr.ldo.app.helper.LoggerHelper;
+
+/**
+ * A single stage of the streaming ETL pipeline.
+ *
+ * Each stage owns a bounded input queue and a fixed number of workers. Items
+ * are handed to the next stage as soon as they are processed, so consecutive
+ * stages overlap instead of waiting for each other. A full queue blocks the
+ * producer, which keeps the number of in-flight documents bounded.
+ *
+ * @param <T> the type of item flowing through the stage
+ */
+public final class StreamingStage<T> {
+
+    /**
+     * Work executed by a stage for every item.
+     *
+     * @param <T> the type of item flowing through the stage
+     */
+    @FunctionalInterface
+    public interface StageTask<T> {
+        /**
+         * Processes one item.
+         *
+         * @param item the item received from the previous stage
+         * @return the item to hand to the next stage, or null to drop it
+         * @throws Exception if the item could not be processed, the item is dropped
+         */
+        T process(T item) throws Exception;
+    }
+
+    private static final Object END_OF_STREAM = new Object();
+
+    private final String name;
+    private final int workers;
+    private final BlockingQueue<Object> queue;
+    private final StageTask<T> task;
+    private final AtomicInteger runningWorkers;
+    private final AtomicInteger processedItems = new AtomicInteger();
+    private final AtomicInteger droppedItems = new AtomicInteger();
+    private StreamingStage<T> next;
+    private ExecutorService executor;
+
+    public StreamingStage(String name, int workers, int queueCapacity, StageTask<T> task) {
+        this.name = name;
+        this.workers = Math.max(1, workers);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.task = task;
+        this.runningWorkers = new AtomicInteger(this.workers);
+    }
+
+    /**
+     * Links this stage to the next one. Processed items and the end of the stream
+     * are forwarded to it.
+     *
+     * @param next the downstream stage
+     * @return the downstream stage, to allow chaining
+     */
+    public StreamingStage<T> then(StreamingStage<T> next) {
+        this.next = next;
+        return next;
+    }
+
+    /**
+     * Starts the stage workers.
+     */
+    public void start() {
+        executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::work);
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Puts an item in the stage queue, blocking while the queue is full.
+     *
+     * @param item the item to process
+     * @throws InterruptedException if interrupted while waiting for space
+     */
+    public void submit(T item) throws InterruptedException {
+        queue.put(item);
+    }
+
+    /**
+     * Signals that no more items will be submitted to this stage.
+     *
+     * @throws InterruptedException if interrupted while waiting for space
+     */
+    public void complete() throws InterruptedException {
+        for (int i = 0; i < workers; i++) {
+            queue.put(END_OF_STREAM);
+        }
+    }
+
+    /**
+     * Waits until every worker of the stage has finished, however long the stage
+     * takes.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void awaitTermination() throws InterruptedException {
+        while (!executor.awaitTermination(1, TimeUnit.HOURS)) {
+            LoggerHelper.logger.info("[Stage " + name + "] still running - processed: " + processedItems.get()
+                    + ", dropped: " + droppedItems.get());
+        }
+        LoggerHelper.logger.info("[Stage " + name + "] finished - processed: " + processedItems.get()
+                + ", dropped: " + droppedItems.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void work() {
+        try {
+            while (true) {
+                Object item = queue.take();
+                if (item == END_OF_STREAM) {
+                    break;
+                }
+                T result = null;
+                try {
+                    result = task.process((T) item);
+                } catch (Exception e) {
+                    LoggerHelper.logger.error("[Stage " + name + "] Error while processing item: " + e.getMessage(), e);
+                }
+                if (result == null) {
+                    droppedItems.incrementAndGet();
+                    continue;
+                }
+                processedItems.incrementAndGet();
+                if (next != null) {
+                    next.submit(result);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (runningWorkers.decrementAndGet() == 0 && next != null) {
+                try {
+                    next.complete();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
@@ -46,12 +46,10 @@ public class ETLValidation {
         public static LocalValidationResult validateParsingWithTestJson(JsonNode targetJson, JsonNode parsedJson,
                         TableDescription tableDescription) throws Exception {
                 LocalValidationResult result = new LocalValidationResult();
-                var missingMandatoryFields = LocalHelper.checkMandatoryFields(parsedJson,
-                                tableDescription.getFullJsonSchemaFromToJson().get("columns"));
-                var dataTypeErrors = LocalHelper.checkDataTypes(parsedJson,
-                                tableDescription.getFullJsonSchemaFromToJson().get("columns"));
-                var conformityAndUnknownRate = LocalHelper.conformityAndUnknownRate(parsedJson,
-                                tableDescription.getFullJsonSchemaFromToJson().get("columns"));
+                var columnsSchema = tableDescription.getColumnsJsonSchema();
+                var missingMandatoryFields = LocalHelper.checkMandatoryFields(parsedJson, columnsSchema);
+                var dataTypeErrors = LocalHelper.checkDataTypes(parsedJson, columnsSchema);
+                var conformityAndUnknownRate = LocalHelper.conformityAndUnknownRate(parsedJson, columnsSchema);
                 var precisionRecallF1 = LocalHelper.precisionRecallF1(targetJson, parsedJson);
                 var jaccardSimilarity = LocalHelper.jaccardSimilarity(targetJson, parsedJson);
                 result.setMissingMandatoryFields(missingMandatoryFields);
@@ -74,12 +72,10 @@ public class ETLValidation {
         public static LocalSimpleValidationResult validateParsingLocally(JsonNode parsedJson,
                         TableDescription tableDescription) throws Exception {
                 LocalSimpleValidationResult result = new LocalSimpleValidationResult();
-                var missingMandatoryFields = LocalHelper.checkMandatoryFields(parsedJson,
-                                tableDescription.getFullJsonSchemaFromToJson().get("columns"));
-                var dataTypeErrors = LocalHelper.checkDataTypes(parsedJson,
-                                tableDescription.getFullJsonSchemaFromToJson().get("columns"));
-                var conformityAndUnknownRate = LocalHelper.conformityAndUnknownRate(parsedJson,
-                                tableDescription.getFullJsonSchemaFromToJson().get("columns"));
+                var columnsSchema = tableDescription.getColumnsJsonSchema();
+                var missingMandatoryFields = LocalHelper.checkMandatoryFields(parsedJson, columnsSchema);
+                var dataTypeErrors = LocalHelper.checkDataTypes(parsedJson, columnsSchema);
+                var conformityAndUnknownRate = LocalHelper.conformityAndUnknownRate(parsedJson, columnsSchema);
                 result.setMissingMandatoryFields(missingMandatoryFields);
                 result.setDataTypeErrors(dataTypeErrors);
                 result.setConformityAndUnknownRate(conformityAndUnknownRate);
@@ -0,0 +1,125 @@
+package com.leonjr.ldo.validation;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+
+/**
+ * Scores the relevance of a document to a table without calling the LLM.
+ *
+ * The name of every column the LLM fills is split into terms ("unit_price" and
+ * "unitPrice" become "unit" and "price"), and a column is found in the document
+ * when most of its terms are words of the document, or share the first
+ * {@value #PREFIX_LENGTH} letters with one of them, so plurals and other
+ * inflections still match. Numeric and temporal columns are only found when the
+ * document also holds numbers or dates. The score is the fraction of the
+ * columns found.
+ *
+ * @author leonjr
+ * @version 1.0
+ */
+public final class RelevanceScorer {
+
+    /**
+     * Relevance of a document to a table.
+     *
+     * @param score          the fraction of the columns found, from 0 to 1
+     * @param matchedColumns the names of the columns found
+     */
+    public record RelevanceScore(double score, List<String> matchedColumns) {
+    }
+
+    private static final int PREFIX_LENGTH = 5;
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern CAMEL_CASE = Pattern.compile("(?<=\\p{Ll})(?=\\p{Lu})");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NUMBER = Pattern.compile("\\d");
+    private static final Pattern DATE = Pattern.compile("\\d{1,4}[-/.]\\d{1,2}[-/.]\\d{1,4}");
+    // terms of column names that say nothing about the content of a document
+    private static final Set<String> IGNORED_TERMS = Set.of("id", "cd", "nr", "num", "no", "of", "the", "at",
+            "by", "to", "in", "is", "de", "da", "do", "dt", "tp", "fk");
+
+    private RelevanceScorer() {
+    }
+
+    /**
+     * Scores the relevance of a document to a table.
+     *
+     * @param tableDescription the description of the table
+     * @param text             the text of the document
+     * @return the score of the document, 0 when the table has no column filled by
+     *         the LLM
+     */
+    public static RelevanceScore score(TableDescription tableDescription, String text) {
+        String normalizedText = normalize(text == null ? "" : text);
+        Set<String> words = new HashSet<>();
+        Set<String> prefixes = new HashSet<>();
+        Matcher matcher = WORD.matcher(normalizedText);
+        while (matcher.find()) {
+            String word = matcher.group();
+            words.add(word);
+            if (word.length() >= PREFIX_LENGTH) {
+                prefixes.add(word.substring(0, PREFIX_LENGTH));
+            }
+        }
+        boolean hasNumbers = NUMBER.matcher(normalizedText).find();
+        boolean hasDates = DATE.matcher(normalizedText).find();
+
+        List<String> matchedColumns = new ArrayList<>();
+        int columnsCount = 0;
+        for (ColumnDescription column : tableDescription.getColumns()) {
+            if (column.isPrimaryKey()) {
+                continue;
+            }
+            columnsCount++;
+            List<String> terms = terms(column.getName());
+            long foundTerms = terms.stream().filter(term -> words.contains(term)
+                    || (term.length() >= PREFIX_LENGTH && prefixes.contains(term.substring(0, PREFIX_LENGTH))))
+                    .count();
+            if (terms.isEmpty() || foundTerms * 2 < terms.size()) {
+                continue;
+            }
+            String type = column.getType() == null ? "" : column.getType().toUpperCase(Locale.ROOT);
+            if (isTemporal(type) ? !hasDates : isNumeric(type) && !hasNumbers) {
+                continue;
+            }
+            matchedColumns.add(column.getName());
+        }
+        double score = columnsCount == 0 ? 0 : (double) matchedColumns.size() / columnsCount;
+        return new RelevanceScore(score, matchedColumns);
+    }
+
+    private static List<String> terms(String columnName) {
+        List<String> terms = new ArrayList<>();
+        for (String part : CAMEL_CASE.matcher(columnName).replaceAll(" ").split("[^\\p{L}\\p{N}]+")) {
+            String term = normalize(part);
+            if (term.length() >= 2 && !IGNORED_TERMS.contains(term)) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isNumeric(String type) {
+        return type.contains("INT") || type.contains("SERIAL") || type.startsWith("DECIMAL")
+                || type.startsWith("NUMERIC") || type.startsWith("FLOAT") || type.startsWith("DOUBLE")
+                || type.equals("REAL") || type.equals("MONEY");
+    }
+
+    private static boolean isTemporal(String type) {
+        return type.startsWith("DATE") || type.startsWith("TIME");
+    }
+}
@@ -3,6 +3,8 @@ package com.leonjr.ldo.validation.helper;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.leonjr.ldo.parsing.etl.interfaces.LLMValidation;
 import com.leonjr.ldo.parsing.llm.AiHelper;
+import com.leonjr.ldo.parsing.llm.prompts.PromptTexts;
+import com.leonjr.ldo.parsing.llm.scheduler.LLMRequestScheduler;
 import com.leonjr.ldo.validation.models.LLMValidationResult;
 
 import dev.langchain4j.data.message.UserMessage;
@@ -29,7 +31,7 @@ public class LLMValidationHelper {
             String originalContext,
             String generatedResponse,
             String originalQuery) throws JsonProcessingException, Exception {
-        LLMValidation etlValidationAgent = AiHelper.buildNewValidator();
+        LLMValidation etlValidationAgent = AiHelper.getSharedValidator();
         UserMessage userMessage = UserMessage.from("original_context" + originalContext + "\ngenerated_response" +
                 generatedResponse + "\noriginal_query" + originalQuery);
         ResponseFormat jsonFormat = ResponseFormat.builder()
@@ -39,6 +41,9 @@ public class LLMValidationHelper {
                 .responseFormat(jsonFormat)
                 .messages(userMessage)
                 .build();
-        return etlValidationAgent.validate(chatRequest);
+        return LLMRequestScheduler.getInstance().execute(
+                LLMRequestScheduler.estimateTokens(PromptTexts.VALIDATE_LLM_OUTPUT, originalContext,
+                        generatedResponse, originalQuery),
+                () -> etlValidationAgent.validate(chatRequest));
     }
 }
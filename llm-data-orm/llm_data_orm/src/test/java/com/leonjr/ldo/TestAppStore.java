@@ -0,0 +1,31 @@
+package com.leonjr.ldo;
+
+import java.util.List;
+
+import com.leonjr.ldo.app.models.AppConfig;
+import com.leonjr.ldo.app.models.DatabaseConfig;
+import com.leonjr.ldo.app.models.StartupConfiguration;
+
+/**
+ * Starts the application store with the default configurations, for the
+ * classes that read them. The store is shared by every test of the JVM, so
+ * each test sets the options it depends on.
+ */
+public final class TestAppStore {
+
+    private TestAppStore() {
+    }
+
+    /**
+     * @return the configurations of the application store, started if needed
+     */
+    public static synchronized StartupConfiguration startConfigs() {
+        if (AppStore.getInstance() == null) {
+            StartupConfiguration startupConfiguration = new StartupConfiguration();
+            startupConfiguration.setApp(new AppConfig());
+            startupConfiguration.setDatabase(new DatabaseConfig());
+            AppStore.getInstance(startupConfiguration, List.of("test_table"), false, null, null);
+        }
+        return AppStore.getStartConfigs();
+    }
+}
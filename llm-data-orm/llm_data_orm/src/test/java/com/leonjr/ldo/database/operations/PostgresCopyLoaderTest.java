@@ -0,0 +1,67 @@
+package com.leonjr.ldo.database.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Types;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leonjr.ldo.app.helper.JsonHelper;
+import com.leonjr.ldo.database.models.ColumnDescription;
+
+class PostgresCopyLoaderTest {
+
+    private static final List<ColumnDescription> COLUMNS = List.of(
+            ColumnDescription.builder().name("name").type("VARCHAR").jdbcType(Types.VARCHAR).build(),
+            ColumnDescription.builder().name("amount").type("NUMERIC").jdbcType(Types.NUMERIC).build(),
+            ColumnDescription.builder().name("active").type("BOOLEAN").jdbcType(Types.BOOLEAN).build(),
+            ColumnDescription.builder().name("born_on").type("DATE").jdbcType(Types.DATE).build());
+    private static final int[] SQL_TYPES = { Types.VARCHAR, Types.NUMERIC, Types.BOOLEAN, Types.DATE };
+
+    @Test
+    void appendQuotedDoublesQuotes() {
+        StringBuilder buffer = new StringBuilder();
+        PostgresCopyLoader.appendQuoted(buffer, "say \"hi\", bye");
+        assertEquals("\"say \"\"hi\"\", bye\"", buffer.toString());
+    }
+
+    @Test
+    void appendQuotedKeepsLineBreaksInsideQuotes() {
+        StringBuilder buffer = new StringBuilder();
+        PostgresCopyLoader.appendQuoted(buffer, "first\nsecond");
+        assertEquals("\"first\nsecond\"", buffer.toString());
+    }
+
+    @Test
+    void appendRowEncodesTypesAndNulls() throws Exception {
+        ObjectNode row = JsonHelper.getObjectMapper().createObjectNode();
+        row.put("name", "Ana, \"Jr\"");
+        row.put("amount", 12.5);
+        row.put("active", true);
+        row.putNull("born_on");
+        StringBuilder buffer = new StringBuilder();
+        PostgresCopyLoader.appendRow(buffer, COLUMNS, SQL_TYPES, row);
+        assertEquals("\"Ana, \"\"Jr\"\"\",12.5,true,\n", buffer.toString());
+    }
+
+    @Test
+    void appendRowTreatsMissingColumnsAsNull() throws Exception {
+        ObjectNode row = JsonHelper.getObjectMapper().createObjectNode();
+        row.put("amount", 3);
+        StringBuilder buffer = new StringBuilder();
+        PostgresCopyLoader.appendRow(buffer, COLUMNS, SQL_TYPES, row);
+        assertEquals(",3,,\n", buffer.toString());
+    }
+
+    @Test
+    void appendRowConvertsIsoDatesOfTemporalColumns() throws Exception {
+        ObjectNode row = JsonHelper.getObjectMapper().createObjectNode();
+        row.put("name", "2024-03-05T00:00:00Z");
+        row.put("born_on", "2024-03-05T00:00:00Z");
+        StringBuilder buffer = new StringBuilder();
+        PostgresCopyLoader.appendRow(buffer, COLUMNS, SQL_TYPES, row);
+        assertEquals("\"2024-03-05T00:00:00Z\",,,\"2024-03-05\"\n", buffer.toString());
+    }
+}
@@ -0,0 +1,40 @@
+package com.leonjr.ldo.database.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.OffsetDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class RowBinderTest {
+
+    @Test
+    void parsesOffsetDateTimeWithSeconds() {
+        assertEquals(OffsetDateTime.parse("2024-03-05T10:15:30-03:00"),
+                RowBinder.parseIsoOffsetDateTime("2024-03-05T10:15:30-03:00"));
+    }
+
+    @Test
+    void parsesOffsetDateTimeWithoutSeconds() {
+        assertEquals(OffsetDateTime.parse("2024-03-05T10:15Z"), RowBinder.parseIsoOffsetDateTime("2024-03-05T10:15Z"));
+    }
+
+    @Test
+    void parsesOffsetDateTimeWithFraction() {
+        assertEquals(OffsetDateTime.parse("2024-03-05T10:15:30.123+01:00"),
+                RowBinder.parseIsoOffsetDateTime("2024-03-05T10:15:30.123+01:00"));
+    }
+
+    @Test
+    void rejectsInvalidFields() {
+        assertNull(RowBinder.parseIsoOffsetDateTime("2024-13-05T10:15:30Z"));
+    }
+
+    @Test
+    void rejectsTextWithoutIsoShape() {
+        assertNull(RowBinder.parseIsoOffsetDateTime("Order 12 - 2024"));
+        assertNull(RowBinder.parseIsoOffsetDateTime("2024-03-05"));
+        assertNull(RowBinder.parseIsoOffsetDateTime("10:15Z"));
+    }
+}
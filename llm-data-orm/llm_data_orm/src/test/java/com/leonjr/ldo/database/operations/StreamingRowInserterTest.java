@@ -0,0 +1,131 @@
+package com.leonjr.ldo.database.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.leonjr.ldo.TestAppStore;
+import com.leonjr.ldo.app.helper.JsonHelper;
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+
+class StreamingRowInserterTest {
+
+    private static final TableDescription CUSTOMERS = TableDescription.builder().name("customers")
+            .columns(List.of(ColumnDescription.builder().name("name").type("VARCHAR").jdbcType(Types.VARCHAR).build()))
+            .build();
+
+    // the calls received by the fake connections, in order
+    private final List<String> calls = new ArrayList<>();
+    private final List<List<String>> commits = new ArrayList<>();
+    private boolean failBatch;
+
+    @BeforeEach
+    void useBatchInserts() {
+        TestAppStore.startConfigs().getDatabase().setBulkLoad(false);
+    }
+
+    private Connection openConnection() {
+        calls.add("open");
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "addBatch" -> calls.add("addBatch");
+                        case "executeBatch" -> {
+                            calls.add("executeBatch");
+                            if (failBatch) {
+                                throw new SQLException("duplicate key");
+                            }
+                            return new int[0];
+                        }
+                        default -> {
+                        }
+                    }
+                    return null;
+                });
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement" -> {
+                            return statement;
+                        }
+                        case "commit", "rollback", "close" -> calls.add(method.getName());
+                        default -> {
+                        }
+                    }
+                    return null;
+                });
+    }
+
+    private StreamingRowInserter inserter(int batchSize, int commitSize) {
+        return new StreamingRowInserter(this::openConnection, CUSTOMERS, batchSize, commitSize, commits::add);
+    }
+
+    private static ArrayNode rows(int count) {
+        ArrayNode rows = JsonHelper.getObjectMapper().createArrayNode();
+        for (int i = 0; i < count; i++) {
+            rows.addObject().put("name", "customer " + i);
+        }
+        return rows;
+    }
+
+    @Test
+    void commitsWholeChunksOnceCommitSizeIsReached() throws Exception {
+        try (var inserter = inserter(2, 3)) {
+            inserter.addChunk("c1", rows(2));
+            assertTrue(calls.isEmpty());
+            inserter.addChunk("c2", rows(2));
+            assertEquals(List.of("open", "addBatch", "addBatch", "executeBatch", "addBatch", "addBatch",
+                    "executeBatch", "commit", "close"), calls);
+            assertEquals(List.of(List.of("c1", "c2")), commits);
+
+            calls.clear();
+            inserter.addChunk("c3", rows(1));
+            assertEquals(5, inserter.finish());
+            assertEquals(List.of("open", "addBatch", "executeBatch", "commit", "close"), calls);
+            assertEquals(List.of(List.of("c1", "c2"), List.of("c3")), commits);
+        }
+    }
+
+    @Test
+    void reportsEmptyChunksWithoutConnection() throws Exception {
+        try (var inserter = inserter(10, 10)) {
+            inserter.addChunk("c1", rows(0));
+            inserter.addChunk("c2", null);
+            assertEquals(0, inserter.finish());
+        }
+        assertTrue(calls.isEmpty());
+        assertEquals(List.of(List.of("c1", "c2")), commits);
+    }
+
+    @Test
+    void rollsBackFailedCommitWithoutReportingIt() {
+        failBatch = true;
+        try (var inserter = inserter(10, 1)) {
+            assertThrows(SQLException.class, () -> inserter.addChunk("c1", rows(1)));
+        }
+        assertEquals(List.of("open", "addBatch", "executeBatch", "rollback", "close"), calls);
+        assertTrue(commits.isEmpty());
+    }
+
+    @Test
+    void closeDropsUncommittedRows() throws Exception {
+        try (var inserter = inserter(10, 10)) {
+            inserter.addChunk("c1", rows(3));
+        }
+        assertTrue(calls.isEmpty());
+        assertTrue(commits.isEmpty());
+    }
+}
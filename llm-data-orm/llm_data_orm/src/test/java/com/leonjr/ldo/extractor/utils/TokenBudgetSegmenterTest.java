@@ -0,0 +1,72 @@
+package com.leonjr.ldo.extractor.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.leonjr.ldo.parsing.llm.TokenCounter;
+
+class TokenBudgetSegmenterTest {
+
+    private static List<String> rows(int count) {
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add("row " + i + ";Ana Souza;12.50;2024-03-05;paid");
+        }
+        return rows;
+    }
+
+    @Test
+    void packsUnitsUpToBudget() {
+        List<String> chunks = TokenBudgetSegmenter.pack(rows(200), "", "\n", 300, false);
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(TokenCounter.count(chunk) <= 300, "chunk over budget: " + TokenCounter.count(chunk));
+        }
+        assertEquals(String.join("\n", rows(200)), String.join("\n", chunks));
+    }
+
+    @Test
+    void repeatsPrefixInEveryChunk() {
+        String prefix = "id;buyer;price;date;status\n";
+        List<String> chunks = TokenBudgetSegmenter.pack(rows(200), prefix, "\n", 300, false);
+        assertTrue(chunks.size() > 1);
+        for (String chunk : chunks) {
+            assertTrue(chunk.startsWith(prefix));
+            assertTrue(TokenCounter.count(chunk) <= 300);
+        }
+    }
+
+    @Test
+    void skipsBlankUnits() {
+        assertEquals(List.of("first\n\nsecond"),
+                TokenBudgetSegmenter.pack(List.of("first", " ", "", "second"), "", "\n\n", 1000, false));
+        assertTrue(TokenBudgetSegmenter.pack(List.of(" "), "", "\n\n", 1000, false).isEmpty());
+    }
+
+    @Test
+    void splitsUnitsOverBudget() {
+        String paragraph = String.join(" ", rows(100));
+        List<String> chunks = TokenBudgetSegmenter.pack(List.of("intro", paragraph), "", "\n\n", 300, false);
+        assertEquals("intro", chunks.get(0));
+        assertTrue(chunks.size() > 2);
+        for (String chunk : chunks) {
+            assertTrue(TokenCounter.count(chunk) <= 300);
+        }
+    }
+
+    @Test
+    void breaksOnHeadingsPastHalfBudget() {
+        List<String> units = new ArrayList<>(rows(10));
+        units.add("# Next section");
+        units.add("closing paragraph");
+        List<String> chunks = TokenBudgetSegmenter.pack(units, "", "\n\n", 300, true);
+        assertEquals(2, chunks.size());
+        assertTrue(chunks.get(1).startsWith("# Next section"));
+        assertEquals(1, TokenBudgetSegmenter.pack(units, "", "\n\n", 300, false).size());
+    }
+}
@@ -0,0 +1,51 @@
+package com.leonjr.ldo.parsing.etl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+class ETLParserTest {
+
+    @Test
+    void splitsBatchResponseByChunkId() {
+        Map<String, ArrayNode> rows = ETLParser.toBatchRows(
+                "{\"c1\": [{\"name\": \"Ana\"}, {\"name\": \"Bia\"}], \"c2\": []}", Set.of("c1", "c2"));
+        assertNotNull(rows);
+        assertEquals(2, rows.get("c1").size());
+        assertEquals("Bia", rows.get("c1").get(1).get("name").asText());
+        assertEquals(0, rows.get("c2").size());
+    }
+
+    @Test
+    void ignoresFencesAndSurroundingText() {
+        Map<String, ArrayNode> rows = ETLParser.toBatchRows(
+                "Here you go:\n```json\n{\"c1\": [{\"name\": \"Ana\"}]}\n```\nDone.", Set.of("c1"));
+        assertNotNull(rows);
+        assertEquals("Ana", rows.get("c1").get(0).get("name").asText());
+    }
+
+    @Test
+    void rejectsBatchMissingChunk() {
+        assertNull(ETLParser.toBatchRows("{\"c1\": []}", Set.of("c1", "c2")));
+    }
+
+    @Test
+    void rejectsChunkWithoutRowArray() {
+        assertNull(ETLParser.toBatchRows("{\"c1\": {\"name\": \"Ana\"}}", Set.of("c1")));
+    }
+
+    @Test
+    void rejectsResponsesWithoutObject() {
+        assertNull(ETLParser.toBatchRows(null, Set.of("c1")));
+        assertNull(ETLParser.toBatchRows("", Set.of("c1")));
+        assertNull(ETLParser.toBatchRows("[{\"name\": \"Ana\"}]", Set.of("c1")));
+        assertNull(ETLParser.toBatchRows("{\"c1\": [", Set.of("c1")));
+    }
+}
@@ -0,0 +1,105 @@
+package com.leonjr.ldo.parsing.etl.models;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+
+class TabularMappingTest {
+
+    private static final TableDescription TICKETS = TableDescription.builder().name("tickets")
+            .columns(List.of(
+                    ColumnDescription.builder().name("id").type("INT").autoIncrement("YES").build(),
+                    ColumnDescription.builder().name("buyer").type("VARCHAR").build(),
+                    ColumnDescription.builder().name("price").type("DECIMAL").build(),
+                    ColumnDescription.builder().name("seats").type("INT").build(),
+                    ColumnDescription.builder().name("paid").type("BOOLEAN").build(),
+                    ColumnDescription.builder().name("event_date").type("DATE").build()))
+            .build();
+    private static final List<String> HEADER = List.of("Buyer", "Price", "Seats", "Paid", "Date");
+    private static final String MAPPING = """
+            ```json
+            {"columns": {"buyer": {"source": 0}, "price": {"source": 1}, "seats": {"source": 2},
+            "paid": {"source": 3}, "event_date": {"source": 4, "format": "dd/MM/yyyy"}}}
+            ```""";
+
+    private static TabularMapping mapping(String response) {
+        TabularMapping mapping = TabularMapping.fromResponse(response, TICKETS, HEADER);
+        assertNotNull(mapping);
+        return mapping;
+    }
+
+    @Test
+    void mapsColumnsSkippingPrimaryKey() {
+        assertEquals(List.of("buyer", "price", "seats", "paid", "event_date"), mapping(MAPPING).getColumnNames());
+    }
+
+    @Test
+    void convertsCellsToColumnTypes() {
+        ObjectNode row = mapping(MAPPING).toRow(List.of(" Ana ", "12.50", "3", "sim", "05/03/2024"));
+        assertNotNull(row);
+        assertEquals("Ana", row.get("buyer").asText());
+        assertEquals(new BigDecimal("12.50"), row.get("price").decimalValue());
+        assertEquals(3, row.get("seats").asInt());
+        assertTrue(row.get("paid").asBoolean());
+        assertEquals("2024-03-05T00:00Z", row.get("event_date").asText());
+    }
+
+    @Test
+    void turnsEmptyAndMissingCellsIntoNulls() {
+        ObjectNode row = mapping(MAPPING).toRow(List.of("Ana", ""));
+        assertNotNull(row);
+        assertTrue(row.get("price").isNull());
+        assertTrue(row.get("event_date").isNull());
+    }
+
+    @Test
+    void detectsDecimalSeparatorFromCell() {
+        TabularMapping mapping = mapping(MAPPING);
+        assertEquals(new BigDecimal("1234.56"), mapping.toRow(List.of("Ana", "1.234,56")).get("price").decimalValue());
+        assertEquals(new BigDecimal("1234.56"), mapping.toRow(List.of("Ana", "1,234.56")).get("price").decimalValue());
+        assertEquals(new BigDecimal("0.5"), mapping.toRow(List.of("Ana", "0,5")).get("price").decimalValue());
+        assertEquals(1234567, mapping.toRow(List.of("Ana", "", "1.234.567")).get("seats").asInt());
+    }
+
+    @Test
+    void rejectsAmbiguousNumberWithoutDecimalSeparator() {
+        assertNull(mapping(MAPPING).toRow(List.of("Ana", "1.234")));
+    }
+
+    @Test
+    void rejectsMisplacedThousandsSeparator() {
+        assertNull(mapping(MAPPING).toRow(List.of("Ana", "12.34.5")));
+    }
+
+    @Test
+    void usesDecimalSeparatorOfMapping() {
+        TabularMapping mapping = mapping("{\"columns\": {\"price\": {\"source\": 1, \"decimal\": \",\"}}}");
+        assertEquals(new BigDecimal("1234"), mapping.toRow(List.of("Ana", "1.234")).get("price").decimalValue());
+        assertEquals(new BigDecimal("1.25"), mapping.toRow(List.of("Ana", "1,25")).get("price").decimalValue());
+    }
+
+    @Test
+    void rejectsInvalidCells() {
+        TabularMapping mapping = mapping(MAPPING);
+        assertNull(mapping.toRow(List.of("Ana", "", "2.5")));
+        assertNull(mapping.toRow(List.of("Ana", "", "", "maybe")));
+        assertNull(mapping.toRow(List.of("Ana", "", "", "", "2024-03-05")));
+    }
+
+    @Test
+    void rejectsInvalidResponses() {
+        assertNull(TabularMapping.fromResponse(null, TICKETS, HEADER));
+        assertNull(TabularMapping.fromResponse("no mapping", TICKETS, HEADER));
+        assertNull(TabularMapping.fromResponse("{\"columns\": {\"buyer\": {\"source\": 9}}}", TICKETS, HEADER));
+    }
+}
@@ -0,0 +1,129 @@
+package com.leonjr.ldo.parsing.llm.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.leonjr.ldo.app.models.AppConfig;
+
+import dev.langchain4j.exception.HttpException;
+
+class LLMRequestSchedulerTest {
+
+    private static final double MAX_RATE = 100;
+
+    private static LLMRequestScheduler scheduler(int maxRetries) {
+        AppConfig appConfig = new AppConfig();
+        appConfig.setLlmRequestsPerSecond(MAX_RATE);
+        appConfig.setLlmMaxRetries(maxRetries);
+        appConfig.setLlmMaxConcurrentRequests(8);
+        return new LLMRequestScheduler(appConfig);
+    }
+
+    private static HttpException throttled() {
+        return new RetryAfterHttpException(429, "Too many requests", Duration.ZERO);
+    }
+
+    @Test
+    void retriesUntilSuccess() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        String result = scheduler(5).execute(1, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new RetryAfterHttpException(503, "Unavailable", Duration.ofMillis(10));
+            }
+            return "rows";
+        });
+        assertEquals("rows", result);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void failsFastOnNonRetriableError() {
+        AtomicInteger calls = new AtomicInteger();
+        HttpException error = new HttpException(401, "Unauthorized");
+        assertSame(error, assertThrows(HttpException.class, () -> scheduler(5).execute(1, () -> {
+            calls.incrementAndGet();
+            throw error;
+        })));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void stopsAfterMaxRetries() {
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(HttpException.class, () -> scheduler(3).execute(1, () -> {
+            calls.incrementAndGet();
+            throw new RetryAfterHttpException(503, "Unavailable", Duration.ZERO);
+        }));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void waitsRetryAfterDelay() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+        scheduler(2).execute(1, () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new RetryAfterHttpException(429, "Too many requests", Duration.ofMillis(300));
+            }
+            return null;
+        });
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+    }
+
+    @Test
+    void throttlesOfOneWindowHalveRateOnce() throws Exception {
+        LLMRequestScheduler scheduler = scheduler(2);
+        int requests = 4;
+        CyclicBarrier inFlight = new CyclicBarrier(requests);
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                AtomicInteger calls = new AtomicInteger();
+                results.add(executor.submit(() -> scheduler.execute(1, () -> {
+                    if (calls.incrementAndGet() == 1) {
+                        // every first attempt is running before any of them fails
+                        inFlight.await(5, TimeUnit.SECONDS);
+                    }
+                    throw throttled();
+                })));
+            }
+            for (Future<Object> result : results) {
+                assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(MAX_RATE / 2, scheduler.getCurrentRate(), 1e-9);
+    }
+
+    @Test
+    void throttleAfterDecreaseHalvesRateAgain() throws Exception {
+        LLMRequestScheduler scheduler = scheduler(3);
+        List<Double> rates = new ArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.execute(1, () -> {
+            rates.add(scheduler.getCurrentRate());
+            if (calls.incrementAndGet() < 3) {
+                throw throttled();
+            }
+            return null;
+        });
+        assertEquals(List.of(MAX_RATE, MAX_RATE / 2, MAX_RATE / 4), rates);
+        assertEquals(MAX_RATE / 4 + MAX_RATE / 20, scheduler.getCurrentRate(), 1e-9);
+    }
+}
@@ -0,0 +1,140 @@
+package com.leonjr.ldo.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.leonjr.ldo.TestAppStore;
+import com.leonjr.ldo.app.helper.JsonHelper;
+
+class RunJournalTest {
+
+    private static final String TABLE = "orders";
+
+    @TempDir
+    Path workDirectory;
+
+    @BeforeEach
+    void useTempWorkDirectory() {
+        TestAppStore.startConfigs().getApp().setWorkDirectory(workDirectory.toString());
+    }
+
+    private static ArrayNode rows(String... names) {
+        ArrayNode rows = JsonHelper.getObjectMapper().createArrayNode();
+        for (String name : names) {
+            rows.addObject().put("name", name);
+        }
+        return rows;
+    }
+
+    @Test
+    void resumeSkipsSummariesAndInsertedDocuments() throws IOException {
+        RunJournal journal = RunJournal.start("run-1", TABLE, "docs");
+        journal.recordSummary("doc-1", "orders of Ana");
+        journal.recordInserted("doc-2", 3);
+        journal.close();
+
+        RunJournal resumed = RunJournal.resume("run-1", TABLE);
+        assertEquals("orders of Ana", resumed.getSummary("doc-1"));
+        assertNull(resumed.getSummary("doc-2"));
+        assertFalse(resumed.isInserted("doc-1"));
+        assertTrue(resumed.isInserted("doc-2"));
+        resumed.close();
+    }
+
+    @Test
+    void freshRunKeepsChunkRowsInFileOnly() throws IOException {
+        RunJournal journal = RunJournal.start("run-1", TABLE, "docs");
+        journal.recordChunkRows("doc-1", "chunk-1", rows("Ana"));
+        assertNull(journal.getChunkRows("doc-1", "chunk-1"));
+        journal.close();
+
+        RunJournal resumed = RunJournal.resume("run-1", TABLE);
+        assertEquals(rows("Ana"), resumed.getChunkRows("doc-1", "chunk-1"));
+        assertNull(resumed.getChunkRows("doc-1", "chunk-2"));
+        resumed.close();
+    }
+
+    @Test
+    void insertedDocumentDropsItsChunks() throws IOException {
+        RunJournal journal = RunJournal.start("run-1", TABLE, "docs");
+        journal.recordChunkRows("doc-1", "chunk-1", rows("Ana"));
+        journal.recordChunksInserted("doc-1", List.of("chunk-1"));
+        journal.recordInserted("doc-1", 1);
+        journal.recordChunkRows("doc-2", "chunk-2", rows("Bia"));
+        journal.close();
+
+        RunJournal resumed = RunJournal.resume("run-1", TABLE);
+        assertTrue(resumed.isInserted("doc-1"));
+        assertNull(resumed.getChunkRows("doc-1", "chunk-1"));
+        assertFalse(resumed.isChunkInserted("doc-1", "chunk-1"));
+        assertEquals(rows("Bia"), resumed.getChunkRows("doc-2", "chunk-2"));
+
+        resumed.recordInserted("doc-2", 1);
+        assertNull(resumed.getChunkRows("doc-2", "chunk-2"));
+        resumed.close();
+    }
+
+    @Test
+    void resumeSkipsCommittedPartitions() throws IOException {
+        ArrayNode documentRows = rows("Ana", "Bia", "Caio", "Davi");
+        String firstPartition = RunJournal.partitionKey(documentRows, 0, 2);
+        String secondPartition = RunJournal.partitionKey(documentRows, 2, 4);
+        RunJournal journal = RunJournal.start("run-1", TABLE, "docs");
+        journal.recordChunksInserted("doc-1", List.of(firstPartition));
+        journal.close();
+
+        RunJournal resumed = RunJournal.resume("run-1", TABLE);
+        // the rows parsed again by the resumed run give the same partition keys
+        assertTrue(resumed.isChunkInserted("doc-1",
+                RunJournal.partitionKey(rows("Ana", "Bia", "Caio", "Davi"), 0, 2)));
+        assertFalse(resumed.isChunkInserted("doc-1", secondPartition));
+        assertFalse(resumed.isChunkInserted("doc-2", firstPartition));
+        resumed.close();
+    }
+
+    @Test
+    void partitionKeyDependsOnRowsOfPartition() {
+        ArrayNode documentRows = rows("Ana", "Bia", "Caio");
+        assertEquals(RunJournal.partitionKey(documentRows, 0, 2), RunJournal.partitionKey(rows("Ana", "Bia"), 0, 2));
+        assertNotEquals(RunJournal.partitionKey(documentRows, 0, 2), RunJournal.partitionKey(documentRows, 1, 3));
+        assertNotEquals(RunJournal.partitionKey(documentRows, 0, 2),
+                RunJournal.partitionKey(rows("Ana", "Bia", "Caio"), 0, 3));
+    }
+
+    @Test
+    void resumeIgnoresLineCutByCrash() throws IOException {
+        RunJournal journal = RunJournal.start("run-1", TABLE, "docs");
+        journal.recordInserted("doc-1", 2);
+        journal.close();
+        Files.writeString(workDirectory.resolve("runs").resolve("run-1.jsonl"),
+                "{\"event\":\"inserted\",\"docu", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        RunJournal resumed = RunJournal.resume("run-1", TABLE);
+        assertTrue(resumed.isInserted("doc-1"));
+        resumed.close();
+    }
+
+    @Test
+    void resumeRejectsAnotherTableAndUnknownRuns() throws IOException {
+        RunJournal.start("run-1", TABLE, "docs").close();
+        assertThrows(IOException.class, () -> RunJournal.resume("run-1", "customers"));
+        assertThrows(IOException.class, () -> RunJournal.resume("run-2", TABLE));
+        assertThrows(IOException.class, () -> RunJournal.resume("../run-1", TABLE));
+    }
+}
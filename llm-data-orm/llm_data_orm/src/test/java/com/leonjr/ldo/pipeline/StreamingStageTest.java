@@ -0,0 +1,109 @@
+package com.leonjr.ldo.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class StreamingStageTest {
+
+    private static StreamingStage<Integer> collector(Set<Integer> received) {
+        return new StreamingStage<>("collect", 1, 10, item -> {
+            received.add(item);
+            return item;
+        });
+    }
+
+    @Test
+    void forwardsProcessedItemsAndEndOfStream() throws Exception {
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+        var doubling = new StreamingStage<Integer>("double", 3, 2, item -> item * 2);
+        var collect = collector(received);
+        doubling.then(collect);
+        doubling.start();
+        collect.start();
+        for (int i = 1; i <= 20; i++) {
+            doubling.submit(i);
+        }
+        doubling.complete();
+        doubling.awaitTermination();
+        // the last worker of a stage completes the next one
+        collect.awaitTermination();
+        assertEquals(20, received.size());
+        assertTrue(received.stream().allMatch(item -> item % 2 == 0));
+    }
+
+    @Test
+    void dropsNullAndFailedItems() throws Exception {
+        Set<Integer> received = ConcurrentHashMap.newKeySet();
+        var filter = new StreamingStage<Integer>("filter", 2, 4, item -> {
+            if (item == 4) {
+                throw new IllegalStateException("invalid item");
+            }
+            return item % 2 == 0 ? item : null;
+        });
+        var collect = collector(received);
+        filter.then(collect);
+        filter.start();
+        collect.start();
+        for (int i = 1; i <= 6; i++) {
+            filter.submit(i);
+        }
+        filter.complete();
+        filter.awaitTermination();
+        collect.awaitTermination();
+        assertEquals(Set.of(2, 6), received);
+    }
+
+    @Test
+    void awaitTerminationWaitsForEveryWorker() throws Exception {
+        AtomicInteger processed = new AtomicInteger();
+        var slow = new StreamingStage<Integer>("slow", 2, 4, item -> {
+            Thread.sleep(100);
+            processed.incrementAndGet();
+            return item;
+        });
+        slow.start();
+        for (int i = 0; i < 6; i++) {
+            slow.submit(i);
+        }
+        slow.complete();
+        slow.awaitTermination();
+        assertEquals(6, processed.get());
+    }
+
+    @Test
+    void fullQueueBlocksProducer() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        var blocked = new StreamingStage<Integer>("blocked", 1, 1, item -> {
+            release.await();
+            return item;
+        });
+        blocked.start();
+        // the worker holds the first item and the queue holds the second
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            try {
+                for (int item : List.of(1, 2, 3)) {
+                    blocked.submit(item);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(producer.isDone());
+        release.countDown();
+        producer.get(5, TimeUnit.SECONDS);
+        blocked.complete();
+        blocked.awaitTermination();
+    }
+}
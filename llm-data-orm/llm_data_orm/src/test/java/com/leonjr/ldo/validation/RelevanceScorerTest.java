@@ -0,0 +1,52 @@
+package com.leonjr.ldo.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.leonjr.ldo.database.models.ColumnDescription;
+import com.leonjr.ldo.database.models.TableDescription;
+import com.leonjr.ldo.validation.RelevanceScorer.RelevanceScore;
+
+class RelevanceScorerTest {
+
+    private static final TableDescription ORDERS = TableDescription.builder().name("orders")
+            .columns(List.of(
+                    ColumnDescription.builder().name("id").type("INT").autoIncrement("YES").build(),
+                    ColumnDescription.builder().name("customerName").type("VARCHAR").build(),
+                    ColumnDescription.builder().name("unit_price").type("DECIMAL").build(),
+                    ColumnDescription.builder().name("order_date").type("DATE").build(),
+                    ColumnDescription.builder().name("descrição").type("TEXT").build()))
+            .build();
+
+    @Test
+    void matchesColumnsFoundInDocument() {
+        RelevanceScore score = RelevanceScorer.score(ORDERS,
+                "Customer name: Ana. Unit prices: 12.50. Order date: 2024-03-05. Descricao: two tickets.");
+        assertEquals(1.0, score.score());
+        assertEquals(List.of("customerName", "unit_price", "order_date", "descrição"), score.matchedColumns());
+    }
+
+    @Test
+    void requiresNumbersAndDatesForTypedColumns() {
+        RelevanceScore score = RelevanceScorer.score(ORDERS, "Customer name and unit price, order date unknown.");
+        assertEquals(List.of("customerName"), score.matchedColumns());
+        assertEquals(0.25, score.score());
+    }
+
+    @Test
+    void scoresUnrelatedDocumentAsZero() {
+        assertEquals(0.0, RelevanceScorer.score(ORDERS, "The weather was sunny all week.").score());
+        assertEquals(0.0, RelevanceScorer.score(ORDERS, null).score());
+    }
+
+    @Test
+    void scoresTableWithoutLlmColumnsAsZero() {
+        TableDescription keysOnly = TableDescription.builder().name("keys")
+                .columns(List.of(ColumnDescription.builder().name("id").type("INT").autoIncrement("YES").build()))
+                .build();
+        assertEquals(0.0, RelevanceScorer.score(keysOnly, "id 1").score());
+    }
+}